@@ -0,0 +1,68 @@
+package org.bingoscape.models.adapters;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import org.bingoscape.TestBoards;
+import org.bingoscape.models.Bingo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses a board response body the way the API service used to, buffering it with
+ * {@code ResponseBody.string()} before {@code fromJson(String)}, and the way it does
+ * now, reading a {@link JsonReader} over {@code charStream()}. Both use the streaming
+ * adapters. Run with {@code ./gradlew jmh}; the gc profiler's
+ * {@code gc.alloc.rate.norm} is the allocation per parse.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardParseBenchmark {
+    private static final MediaType MEDIA_TYPE_JSON = MediaType.parse("application/json");
+
+    @Param({"100", "500"})
+    public int tiles;
+
+    private final Gson gson = new Gson().newBuilder()
+            .registerTypeAdapterFactory(new BingoTypeAdapterFactory())
+            .create();
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        payload = new Gson().toJson(TestBoards.board(tiles)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Bingo bufferedString() throws IOException {
+        try (ResponseBody body = ResponseBody.create(MEDIA_TYPE_JSON, payload)) {
+            return gson.fromJson(body.string(), Bingo.class);
+        }
+    }
+
+    @Benchmark
+    public Bingo charStream() throws IOException {
+        try (ResponseBody body = ResponseBody.create(MEDIA_TYPE_JSON, payload);
+             JsonReader reader = new JsonReader(body.charStream())) {
+            return gson.fromJson(reader, Bingo.class);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.bingoscape.services;
+
+import org.bingoscape.models.Bingo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays {@value #DROPS} drops against a 300-tile board with the linear goal tree
+ * walk the matcher used before {@link ItemIndex}, and with a compiled
+ * {@link MatcherSnapshot}. Most drops are items no tile needs, as in real loot, and
+ * they come from a mix of NPCs and non-NPC sources. Scores are per drop. Run with
+ * {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemLookupBenchmark {
+    private static final int DROPS = 10_000;
+    private static final int MAX_ITEM_ID = 30_000;
+    private static final int BOARD_ITEM_PERCENT = 20;
+
+    private Bingo board;
+    private MatcherSnapshot snapshot;
+    private int[] itemIds;
+    private LootSource[] sources;
+    private final List<BoardTile> matches = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(10);
+        board = ItemIndexTest.randomBoard(random);
+        snapshot = MatcherSnapshot.build(board, 1);
+
+        LootSource[] sourcePool = {
+                LootSource.ofNpc(null), LootSource.ofNpc(2042), LootSource.ofNpc(8061), LootSource.ofNpc(415),
+        };
+        itemIds = new int[DROPS];
+        sources = new LootSource[DROPS];
+        for (int i = 0; i < DROPS; i++) {
+            itemIds[i] = random.nextInt(100) < BOARD_ITEM_PERCENT
+                    ? random.nextInt(ItemIndexTest.ITEM_RANGE)
+                    : random.nextInt(MAX_ITEM_ID);
+            sources[i] = sourcePool[random.nextInt(sourcePool.length)];
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DROPS)
+    public int linear() {
+        int hits = 0;
+        for (int i = 0; i < DROPS; i++) {
+            hits += ItemIndexTest.linearTilesForItem(board, itemIds[i]).size();
+        }
+        return hits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DROPS)
+    public int indexed() {
+        int hits = 0;
+        for (int i = 0; i < DROPS; i++) {
+            if (snapshot.hasOpenMatch(itemIds[i], sources[i])) {
+                matches.clear();
+                snapshot.collectOpenTiles(itemIds[i], sources[i], 1, matches);
+                hits += matches.size();
+            }
+        }
+        return hits;
+    }
+}
@@ -0,0 +1,86 @@
+package org.bingoscape.services;
+
+import org.bingoscape.services.metrics.ScreenshotMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes a PNG screenshot with the conversion the plugin did before
+ * {@link ScreenshotPipeline} existed and with a warm pipeline. Run with
+ * {@code ./gradlew jmh}. The gc profiler's {@code gc.alloc.rate.norm} is the
+ * allocation per screenshot; it sums every live thread, so it includes what the
+ * pipeline allocates on its encode thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScreenshotEncodeBenchmark {
+    private static final long TIMEOUT_SECONDS = 30;
+
+    @Param({"1920x1080", "3840x2160"})
+    public String frameSize;
+
+    private BufferedImage frame;
+    private ScreenshotPipeline pipeline;
+
+    @Setup
+    public void setUp() {
+        String[] size = frameSize.split("x");
+        frame = ScreenshotPipelineTest.frame(Integer.parseInt(size[0]), Integer.parseInt(size[1]));
+        pipeline = new ScreenshotPipeline(new ScreenshotMetrics(), ScreenshotPipelineTest.config());
+        pipeline.startUp();
+    }
+
+    @TearDown
+    public void tearDown() {
+        pipeline.shutDown();
+    }
+
+    /**
+     * The conversion the plugin did before the pipeline: a fresh ARGB copy of the frame
+     * written by ImageIO into a default-sized output stream.
+     */
+    @Benchmark
+    public byte[] unpooled() throws IOException {
+        BufferedImage screenshot = new BufferedImage(frame.getWidth(), frame.getHeight(),
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics graphics = screenshot.getGraphics();
+        graphics.drawImage(frame, 0, 0, null);
+        graphics.dispose();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(screenshot, "png", outputStream);
+        return outputStream.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] pipeline() throws Exception {
+        CompletableFuture<byte[]> result = new CompletableFuture<>();
+        pipeline.encode(frame, null, result::complete);
+        byte[] bytes = result.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        if (bytes == null) {
+            throw new IllegalStateException("Screenshot was not encoded");
+        }
+        return bytes;
+    }
+}
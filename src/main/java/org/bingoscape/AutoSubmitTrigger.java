@@ -0,0 +1,37 @@
+package org.bingoscape;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.bingoscape.services.TileOutcome;
+
+/**
+ * Which drops are auto-submitted for a tile.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum AutoSubmitTrigger {
+    ANY_MATCH("Any matching drop"),
+    ADVANCES_TILE("Drops that advance the tile"),
+    COMPLETES_TILE("Drops that complete the tile");
+
+    private final String name;
+
+    /**
+     * Whether a drop with the predicted outcome should be submitted.
+     */
+    public boolean accepts(TileOutcome outcome) {
+        switch (this) {
+            case COMPLETES_TILE:
+                return outcome == TileOutcome.COMPLETE;
+            case ADVANCES_TILE:
+                return outcome != TileOutcome.NONE;
+            default:
+                return true;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
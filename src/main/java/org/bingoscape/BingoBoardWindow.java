@@ -19,7 +19,6 @@ import javax.swing.border.LineBorder;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
-import java.net.URL;
 import java.text.SimpleDateFormat;
 import java.util.Map;
 import java.util.Set;
@@ -33,7 +32,6 @@ import java.util.stream.Collectors;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ConcurrentHashMap;
-import javax.imageio.ImageIO;
 
 public class BingoBoardWindow extends JFrame {
     private static final int WINDOW_WIDTH = 600;
@@ -250,6 +248,21 @@ public class BingoBoardWindow extends JFrame {
         });
     }
 
+    /**
+     * Redraws the board after some of its tiles were patched. The changed tiles are
+     * already known, so the unchanged-data check in {@link #updateBingoBoard} is skipped. The builders lay out the whole board,
+     * so any displayed change causes a single relayout.
+     */
+    public void refreshTiles(Bingo bingo, Set<UUID> changedTileIds) {
+        if (changedTileIds.isEmpty() || this.currentBingo == null
+                || !this.currentBingo.getId().equals(bingo.getId())) {
+            return;
+        }
+
+        this.currentBingo = bingo;
+        updateBoardLayout(bingo);
+    }
+
     /**
      * Checks if bingo data is unchanged to avoid unnecessary updates.
      * Compares key fields that would require a UI refresh.
@@ -667,8 +680,7 @@ public class BingoBoardWindow extends JFrame {
     }
     
     private BufferedImage fetchImageFromNetwork(String imageUrl) throws IOException {
-        URL url = new URL(imageUrl);
-        return ImageIO.read(url);
+        return plugin.getHeaderImageCache().load(imageUrl);
     }
     
     private void processAndCacheImage(BufferedImage originalImage, String imageUrl, 
@@ -967,8 +979,7 @@ public class BingoBoardWindow extends JFrame {
 
                 try {
                     // Fetch image in network thread
-                    URL url = new URL(imageUrl);
-                    BufferedImage originalImage = ImageIO.read(url);
+                    BufferedImage originalImage = plugin.getHeaderImageCache().load(imageUrl);
 
                     if (originalImage != null) {
                         // Process image in separate thread
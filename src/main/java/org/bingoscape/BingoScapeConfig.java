@@ -4,6 +4,8 @@ import net.runelite.client.config.Config;
 import net.runelite.client.config.ConfigGroup;
 import net.runelite.client.config.ConfigItem;
 import net.runelite.client.config.ConfigSection;
+import net.runelite.client.config.Range;
+import net.runelite.client.config.Units;
 
 import java.awt.Color;
 
@@ -63,11 +65,46 @@ public interface BingoScapeConfig extends Config {
                 return false; // Off by default for safety
         }
 
+        @ConfigItem(keyName = "autoSubmitTrigger", name = "Auto-Submit When", description = "Which drops are auto-submitted: any drop for a tile, only drops that advance a goal the tile still needs, or only drops that complete the tile")
+        default AutoSubmitTrigger autoSubmitTrigger() {
+                return AutoSubmitTrigger.ANY_MATCH;
+        }
+
+        @ConfigItem(keyName = "batchFlushMinutes", name = "Batch Flush Interval", description = "For goals that need many of an item, submit the drops collected so far after this many minutes even if the target isn't reached yet (0 to only submit at the target)")
+        @Units(Units.MINUTES)
+        default int batchFlushMinutes() {
+                return 30;
+        }
+
+        @ConfigItem(keyName = "enableFrameBuffer", name = "Capture Drop Frames", description = "Keep a few recent downscaled frames in memory so auto-submissions show the moment of the drop instead of a later frame")
+        default boolean enableFrameBuffer() {
+                return false;
+        }
+
+        @ConfigItem(keyName = "frameBufferMemory", name = "Frame Buffer Memory", description = "Memory the recent frames may use; fewer frames are kept at larger window sizes")
+        @Units(" MB")
+        @Range(min = 4, max = 256)
+        default int frameBufferMemory() {
+                return 32;
+        }
+
+        @ConfigItem(keyName = "frameCaptureTicks", name = "Frame Capture Interval", description = "Game ticks between captured frames")
+        @Units(Units.TICKS)
+        @Range(min = 1, max = 10)
+        default int frameCaptureTicks() {
+                return 1;
+        }
+
         @ConfigItem(keyName = "showAutoSubmitNotifications", name = "Show Auto-Submit Notifications", description = "Display notifications when tiles are automatically submitted")
         default boolean showAutoSubmitNotifications() {
                 return true;
         }
 
+        @ConfigItem(keyName = "enableLiveUpdates", name = "Live Board Updates", description = "Keep a connection open to receive teammates' tile updates as they happen")
+        default boolean enableLiveUpdates() {
+                return false;
+        }
+
         @ConfigSection(name = "Notifications", description = "Toast notification settings", position = 10)
         String notificationSection = "notifications";
 
@@ -80,4 +117,47 @@ public interface BingoScapeConfig extends Config {
         default Color notificationColor() {
                 return new Color(255, 98, 0); // BingoScape orange
         }
+
+        @ConfigSection(name = "Screenshots", description = "How submission screenshots are encoded", position = 11)
+        String screenshotSection = "screenshots";
+
+        @ConfigItem(keyName = "evidenceFormat", name = "Image Format", description = "PNG keeps every pixel, Fast PNG trades size for encode speed, JPEG is much smaller", section = screenshotSection, position = 0)
+        default EvidenceFormat evidenceFormat() {
+                return EvidenceFormat.PNG;
+        }
+
+        @ConfigItem(keyName = "jpegQuality", name = "JPEG Quality", description = "Quality of JPEG screenshots; lower is smaller", section = screenshotSection, position = 1)
+        @Units(Units.PERCENT)
+        @Range(min = 10, max = 100)
+        default int jpegQuality() {
+                return 85;
+        }
+
+        @ConfigItem(keyName = "fastPngLevel", name = "Fast PNG Compression", description = "Deflate level for Fast PNG screenshots, from 0 (fastest, largest) to 9 (slowest, smallest)", section = screenshotSection, position = 2)
+        @Range(max = 9)
+        default int fastPngLevel() {
+                return 1;
+        }
+
+        @ConfigItem(keyName = "maxScreenshotDimension", name = "Max Screenshot Size", description = "Scale screenshots down so neither side exceeds this (0 for no limit)", section = screenshotSection, position = 3)
+        @Units(Units.PIXELS)
+        default int maxScreenshotDimension() {
+                return 0;
+        }
+
+        @ConfigItem(keyName = "evidenceCrop", name = "Crop", description = "Part of the client kept in screenshots", section = screenshotSection, position = 4)
+        default EvidenceCrop evidenceCrop() {
+                return EvidenceCrop.FULL;
+        }
+
+        @ConfigItem(keyName = "duplicateScreenshots", name = "Duplicate Screenshots", description = "What to do when a manual submission's screenshot looks the same as one delivered for the same tile in the last two minutes", section = screenshotSection, position = 5)
+        default DuplicateScreenshotAction duplicateScreenshots() {
+                return DuplicateScreenshotAction.WARN;
+        }
+
+        @ConfigItem(keyName = "duplicateThreshold", name = "Duplicate Sensitivity", description = "How many of the 64 hash bits may differ for screenshots to count as the same; higher catches more but risks false matches", section = screenshotSection, position = 6)
+        @Range(max = 32)
+        default int duplicateThreshold() {
+                return 4;
+        }
 }
@@ -10,6 +10,7 @@ import org.bingoscape.models.Role;
 import org.bingoscape.models.TeamMember;
 import org.bingoscape.models.Tile;
 import org.bingoscape.models.TileSubmissionType;
+import org.bingoscape.ui.ApiDiagnosticsManager;
 import org.bingoscape.ui.ColorPalette;
 import org.bingoscape.ui.UIConstants;
 import org.bingoscape.ui.UIEffects;
@@ -34,6 +35,7 @@ import java.util.List;
 import java.util.ArrayList;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.UUID;
 import java.io.File;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.Executors;
@@ -65,6 +67,7 @@ public class BingoScapePanel extends PluginPanel {
 
     // Managers
     private PinnedTilesManager pinnedTilesManager;
+    private ApiDiagnosticsManager diagnosticsManager;
     private TileListItemFactory tileFactory;
     private ScreenshotHandler screenshotHandler;
 
@@ -91,6 +94,8 @@ public class BingoScapePanel extends PluginPanel {
             this::showTileQuickActionsForPinnedTile,
             this::showBingoBoardFromPinnedTiles
         );
+        this.diagnosticsManager = new ApiDiagnosticsManager(plugin.getApiMetrics(), plugin.getRequestScheduler(),
+                plugin.getSubmissionOutbox(), plugin.getScreenshotMetrics());
 
         // Initialize components
         initializeComponents();
@@ -133,6 +138,8 @@ public class BingoScapePanel extends PluginPanel {
         container.add(createShowBoardButtonSection());
         container.add(createSpacing(12));
         container.add(createPinnedTilesSection());
+        container.add(createSpacing(12));
+        container.add(diagnosticsManager.getSection());
         
         // Add glue to push everything to top
         container.add(Box.createVerticalGlue());
@@ -758,17 +765,18 @@ public class BingoScapePanel extends PluginPanel {
     }
 
     private void saveScreenshotToFile(byte[] screenshotBytes) {
+        String extension = EvidenceFormat.detect(screenshotBytes).getExtension();
         JFileChooser fileChooser = new JFileChooser();
-        fileChooser.setFileFilter(new FileNameExtensionFilter("PNG files", "png"));
-        fileChooser.setSelectedFile(new File("bingoscape_screenshot.png"));
+        fileChooser.setFileFilter(new FileNameExtensionFilter(extension.toUpperCase() + " files", extension));
+        fileChooser.setSelectedFile(new File("bingoscape_screenshot." + extension));
         fileChooser.setDialogTitle("Save Screenshot");
 
         if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
             File selectedFile = fileChooser.getSelectedFile();
             try {
-                // Ensure .png extension
-                if (!selectedFile.getName().toLowerCase().endsWith(".png")) {
-                    selectedFile = new File(selectedFile.getAbsolutePath() + ".png");
+                // Ensure the extension matches the image format
+                if (!selectedFile.getName().toLowerCase().endsWith("." + extension)) {
+                    selectedFile = new File(selectedFile.getAbsolutePath() + "." + extension);
                 }
 
                 java.nio.file.Files.write(selectedFile.toPath(), screenshotBytes);
@@ -903,6 +911,7 @@ public class BingoScapePanel extends PluginPanel {
         if (fadeTimer != null && fadeTimer.isRunning()) {
             fadeTimer.stop();
         }
+        diagnosticsManager.stop();
     }
 
     public void displayBingoBoard(Bingo bingo) {
@@ -921,6 +930,22 @@ public class BingoScapePanel extends PluginPanel {
         }
     }
 
+    /**
+     * Updates the views after tiles of the current board were patched.
+     * Pinned tiles are only rebuilt if one of them changed.
+     */
+    public void updateTiles(Bingo bingo, Set<UUID> changedTileIds) {
+        currentBingo = bingo;
+
+        if (changedTileIds.stream().anyMatch(id -> isPinnedTile(id.toString()))) {
+            refreshPinnedTiles();
+        }
+
+        if (bingoBoardWindow != null && bingoBoardWindow.isVisible()) {
+            SwingUtilities.invokeLater(() -> bingoBoardWindow.refreshTiles(bingo, changedTileIds));
+        }
+    }
+
     private JPanel createEventCard(EventData eventData) {
         JPanel card = new JPanel(new BorderLayout());
         card.setBackground(ColorPalette.CARD_BG);
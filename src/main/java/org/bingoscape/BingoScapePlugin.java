@@ -9,7 +9,10 @@ import lombok.Getter;
 import net.runelite.api.ChatMessageType;
 import net.runelite.api.Client;
 import net.runelite.api.GameState;
+import net.runelite.api.events.ChatMessage;
 import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.GameTick;
+import net.runelite.api.events.StatChanged;
 import net.runelite.client.callback.ClientThread;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
@@ -24,19 +27,32 @@ import net.runelite.client.ui.DrawManager;
 import net.runelite.client.ui.overlay.OverlayManager;
 import org.bingoscape.services.BingoScapeApiService;
 import org.bingoscape.services.AutoSubmissionHandler;
+import org.bingoscape.services.BoardPrefetcher;
+import org.bingoscape.services.EvidenceRegion;
+import org.bingoscape.services.FrameRingBuffer;
+import org.bingoscape.services.GoalAccumulator;
+import org.bingoscape.services.HeaderImageCache;
+import org.bingoscape.services.LiveBoardUpdates;
+import org.bingoscape.services.MultiBoardMatcher;
+import org.bingoscape.services.RequestScheduler;
+import org.bingoscape.services.ScreenshotDeduplicator;
+import org.bingoscape.services.ScreenshotPipeline;
+import org.bingoscape.services.SubmissionOutbox;
 import org.bingoscape.services.TileRequirementMatcher;
+import org.bingoscape.services.metrics.ApiMetrics;
+import org.bingoscape.services.metrics.ScreenshotMetrics;
 import org.bingoscape.utils.EventComparator;
 import org.bingoscape.utils.EventFilter;
+import org.bingoscape.utils.TileDeltaApplier;
+import net.runelite.client.events.ConfigChanged;
 import net.runelite.client.events.NpcLootReceived;
 import net.runelite.client.plugins.loottracker.LootReceived;
 
+import java.time.Duration;
 import java.time.temporal.ChronoUnit;
 import java.awt.image.BufferedImage;
 import java.awt.Image;
-import java.awt.Graphics;
-import java.io.IOException;
-import java.io.ByteArrayOutputStream;
-import javax.imageio.ImageIO;
+import java.awt.geom.Rectangle2D;
 import javax.swing.*;
 
 import okhttp3.*;
@@ -46,10 +62,16 @@ import org.bingoscape.models.*;
 import org.bingoscape.models.AutoSubmissionMetadata;
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.UUID;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.Date;
 
@@ -62,9 +84,9 @@ import java.util.Date;
 public class BingoScapePlugin extends Plugin {
     // Constants
     private static final String ICON_PATH = "/sidepanel_icon.png";
-    private static final String PNG_FORMAT = "png";
     private static final MediaType MEDIA_TYPE_PNG = MediaType.parse("image/png");
     private static final String HTTP_STATUS_LOCKED = "423";
+    private static final Duration BOARD_REQUEST_TIMEOUT = Duration.ofSeconds(15);
 
     // Injected components
     @Inject
@@ -107,9 +129,53 @@ public class BingoScapePlugin extends Plugin {
     @Inject
     private TileRequirementMatcher requirementMatcher;
 
+    @Inject
+    private MultiBoardMatcher boardMatcher;
+
     @Inject
     private AutoSubmissionHandler autoSubmissionHandler;
 
+    @Inject
+    private GoalAccumulator goalAccumulator;
+
+    @Inject
+    private FrameRingBuffer frameRingBuffer;
+
+    @Inject
+    private ScreenshotPipeline screenshotPipeline;
+
+    @Inject
+    private EvidenceRegion evidenceRegion;
+
+    @Inject
+    private ScreenshotDeduplicator screenshotDeduplicator;
+
+    @Getter
+    @Inject
+    private SubmissionOutbox submissionOutbox;
+
+    @Inject
+    private LiveBoardUpdates liveBoardUpdates;
+
+    @Getter
+    @Inject
+    private ApiMetrics apiMetrics;
+
+    @Getter
+    @Inject
+    private ScreenshotMetrics screenshotMetrics;
+
+    @Inject
+    private BoardPrefetcher boardPrefetcher;
+
+    @Getter
+    @Inject
+    private HeaderImageCache headerImageCache;
+
+    @Getter
+    @Inject
+    private RequestScheduler requestScheduler;
+
     @Inject
     private org.bingoscape.notifications.NotificationManager notificationManager;
 
@@ -126,9 +192,13 @@ public class BingoScapePlugin extends Plugin {
     @Getter
     private EventData currentEvent;
     @Getter
-    private Bingo currentBingo;
+    private volatile Bingo currentBingo;
     private boolean isLoggedIn;
 
+    // Bumped on every board selection; board responses requested under an older value are dropped
+    private final AtomicLong selectionGeneration = new AtomicLong();
+    private volatile CompletableFuture<Bingo> pendingBoardLoad;
+
     @Override
     protected void startUp() {
         // Load the icon for the side panel
@@ -146,6 +216,16 @@ public class BingoScapePlugin extends Plugin {
         clientToolbar.addNavigation(navButton);
         overlayManager.add(codephraseOverlay);
         notificationManager.startUp();
+        submissionOutbox.startUp(this::onOutboxSubmitted, this::onOutboxRejected);
+        goalAccumulator.startUp();
+        screenshotPipeline.startUp();
+        // Live updates are applied on the client thread, like every other board update
+        liveBoardUpdates.startUp(
+                (bingoId, tile) -> clientThread.invokeLater(() -> applyLiveTileUpdate(bingoId, tile)),
+                (bingoId, delta) -> clientThread.invokeLater(() -> applyLiveTileDelta(bingoId, delta)),
+                bingoId -> refreshBingoBoard());
+        headerImageCache.startUp();
+        boardPrefetcher.startUp(this::updateCurrentBingoAndPanel);
 
         // Load all events and handle pinned bingo
         if (hasApiKey()) {
@@ -156,6 +236,7 @@ public class BingoScapePlugin extends Plugin {
                     activeEvents.addAll(events);
                     sortEvents(activeEvents);
                     panel.updateEventsList(activeEvents);
+                    boardMatcher.setActiveEvents(activeEvents);
 
                     // If there's a pinned bingo, find and select its event
                     if (!pinnedBingoId.isEmpty()) {
@@ -164,11 +245,7 @@ public class BingoScapePlugin extends Plugin {
                             if (event.getBingos().stream().anyMatch(b -> b.getId().equals(pinnedId))) {
                                 // Found the event with pinned bingo, select it and load the bingo
                                 setEventDetails(event);
-                                apiService.refreshBingoBoard(
-                                    pinnedId,
-                                    bingo -> selectBingo(bingo),
-                                    error -> log.error("Failed to load pinned bingo: " + error)
-                                );
+                                loadAndSelectBingo(pinnedId);
                                 break;
                             }
                         }
@@ -181,6 +258,13 @@ public class BingoScapePlugin extends Plugin {
 
     @Override
     protected void shutDown() {
+        boardMatcher.shutDown();
+        boardPrefetcher.shutDown();
+        headerImageCache.shutDown();
+        liveBoardUpdates.shutDown();
+        goalAccumulator.shutDown();
+        screenshotPipeline.shutDown();
+        submissionOutbox.shutDown();
         notificationManager.shutDown();
         clientToolbar.removeNavigation(navButton);
         overlayManager.remove(codephraseOverlay);
@@ -196,6 +280,7 @@ public class BingoScapePlugin extends Plugin {
             }
         } else if (gameStateChanged.getGameState() == GameState.LOGIN_SCREEN) {
             isLoggedIn = false;
+            autoSubmissionHandler.resetStatBaseline();
         }
     }
 
@@ -210,6 +295,7 @@ public class BingoScapePlugin extends Plugin {
                 activeEvents.addAll(events);
                 sortEvents(activeEvents);
                 panel.updateEventsList(activeEvents);
+                boardMatcher.setActiveEvents(activeEvents);
             },
             error -> showErrorMessage(error)
         );
@@ -227,6 +313,7 @@ public class BingoScapePlugin extends Plugin {
     public void setEventDetails(EventData eventData) {
         currentEvent = eventData;
         panel.updateEventDetails(eventData);
+        boardPrefetcher.prefetchEvent(eventData);
 
         if (eventData.getBingos() != null && !eventData.getBingos().isEmpty()) {
             // Default to first bingo or current one if it exists
@@ -236,7 +323,26 @@ public class BingoScapePlugin extends Plugin {
     }
 
     public void selectBingo(Bingo bingo) {
+        // Anything still loading for the previous selection is now stale
+        selectionGeneration.incrementAndGet();
+        CompletableFuture<Bingo> pending = pendingBoardLoad;
+        if (pending != null) {
+            pendingBoardLoad = null;
+            pending.cancel(false);
+        }
+
+        // Selectors can hold an older copy; prefer the prefetched board
+        boolean revalidate = false;
+        if (bingo != null) {
+            Bingo cached = boardPrefetcher.getCached(bingo.getId());
+            if (cached != null) {
+                bingo = cached;
+                revalidate = boardPrefetcher.isStale(bingo.getId());
+            }
+        }
+
         currentBingo = bingo;
+        boardPrefetcher.select(bingo);
         panel.displayBingoBoard(currentBingo);
 
         // Rebuild requirement matcher lookup maps for auto-submission
@@ -248,79 +354,194 @@ public class BingoScapePlugin extends Plugin {
         } else {
             log.info("Cleared bingo selection - Auto-submission disabled");
         }
+
+        updateLiveUpdateSubscription();
+
+        // Serve the cached copy now and revalidate it in the background if it is old
+        if (revalidate) {
+            refreshBingoBoard();
+        }
+    }
+
+    /**
+     * Loads a board from the API and selects it, unless another board gets selected
+     * before the response arrives.
+     */
+    private void loadAndSelectBingo(UUID bingoId) {
+        long generation = selectionGeneration.incrementAndGet();
+        CompletableFuture<Bingo> load = apiService.refreshBingoBoard(bingoId, BOARD_REQUEST_TIMEOUT);
+        pendingBoardLoad = load;
+        load.whenComplete((bingo, error) -> {
+            if (generation != selectionGeneration.get()) {
+                log.debug("Dropping superseded load of bingo {}", bingoId);
+                return;
+            }
+            if (error != null) {
+                if (!(error instanceof CancellationException)) {
+                    log.error("Failed to load bingo {}: {}", bingoId, error.getMessage());
+                }
+                return;
+            }
+            boardPrefetcher.put(bingo);
+            selectBingo(bingo);
+        });
+    }
+
+    /**
+     * Follows the selected bingo on the live update stream, or closes the stream
+     * if live updates are disabled or nothing is selected.
+     */
+    private void updateLiveUpdateSubscription() {
+        if (config.enableLiveUpdates() && currentBingo != null && hasApiKey()) {
+            liveBoardUpdates.follow(currentBingo.getId());
+        } else {
+            liveBoardUpdates.stop();
+        }
+    }
+
+    /**
+     * Applies a tile pushed over the live update stream to the selected board.
+     * Unknown tiles or structural changes trigger a full refresh instead.
+     * Runs on the client thread.
+     */
+    private void applyLiveTileUpdate(UUID bingoId, Tile tile) {
+        Bingo bingo = currentBingo;
+        if (bingo == null || !bingo.getId().equals(bingoId) || bingo.getTiles() == null) {
+            return;
+        }
+
+        Tile currentTile = bingo.getTiles().stream()
+                .filter(t -> t.getId().equals(tile.getId()))
+                .findFirst()
+                .orElse(null);
+        TileDelta delta = TileDeltaApplier.diffTile(currentTile, tile);
+        if (delta == null) {
+            refreshBingoBoard();
+            return;
+        }
+
+        log.debug("Live update for tile {} on bingo {}", tile.getId(), bingoId);
+        applyTileDeltas(bingo, Collections.singletonList(delta), null);
+    }
+
+    /**
+     * Applies a tile delta pushed over the live update stream to the selected board.
+     * Runs on the client thread.
+     */
+    private void applyLiveTileDelta(UUID bingoId, TileDelta delta) {
+        Bingo bingo = currentBingo;
+        if (bingo == null || !bingo.getId().equals(bingoId)) {
+            return;
+        }
+
+        log.debug("Live delta for tile {} on bingo {}", delta.getTileId(), bingoId);
+        applyTileDeltas(bingo, Collections.singletonList(delta), null);
     }
 
     public void takeScreenshot(UUID tileId, Consumer<byte[]> callback) {
         drawManager.requestNextFrameListener(image -> {
-            executor.submit(() -> {
-                try {
-                    BufferedImage screenshot = convertToBufferedImage(image);
-                    byte[] screenshotBytes = convertImageToBytes(screenshot);
-                    callback.accept(screenshotBytes);
-                } catch (IOException e) {
-                    log.error("Failed to process screenshot", e);
-                    showErrorMessage("Failed to take screenshot for submission.");
-                    callback.accept(null);
-                }
-            });
+            // Frame listeners run on the client thread, where the crop can be resolved
+            encodeScreenshot(image, evidenceRegion.resolve(config.evidenceCrop()), callback);
         });
     }
 
-    private BufferedImage convertToBufferedImage(Image image) {
-        BufferedImage screenshot = new BufferedImage(
-                image.getWidth(null),
-                image.getHeight(null),
-                BufferedImage.TYPE_INT_ARGB
-        );
-        Graphics graphics = screenshot.getGraphics();
-        graphics.drawImage(image, 0, 0, null);
-        graphics.dispose();
-        return screenshot;
+    /**
+     * Takes the screenshot for a drop on the given game tick. Uses the buffered frame
+     * nearest to that tick when the frame buffer is enabled, otherwise the next rendered
+     * frame.
+     * Must be called on the client thread.
+     */
+    public void takeDropScreenshot(int tick, UUID tileId, Consumer<byte[]> callback) {
+        if (!frameRingBuffer.isActive()) {
+            takeScreenshot(tileId, callback);
+            return;
+        }
+        Rectangle2D crop = evidenceRegion.resolve(config.evidenceCrop());
+        frameRingBuffer.frameAt(tick, frame -> {
+            if (frame == null) {
+                takeScreenshot(tileId, callback);
+                return;
+            }
+            encodeScreenshot(frame, crop, callback);
+        });
     }
 
-    private byte[] convertImageToBytes(BufferedImage image) throws IOException {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        ImageIO.write(image, PNG_FORMAT, outputStream);
-        return outputStream.toByteArray();
+    private void encodeScreenshot(Image image, Rectangle2D crop, Consumer<byte[]> callback) {
+        // Hand the result back to the shared executor so callbacks never hold up the encode thread
+        screenshotPipeline.encode(image, crop, screenshotBytes -> executor.execute(() -> {
+            if (screenshotBytes == null) {
+                showErrorMessage("Failed to take screenshot for submission.");
+            }
+            callback.accept(screenshotBytes);
+        }));
     }
 
+    /**
+     * Queues a manual tile submission in the outbox. It is delivered in the background
+     * and retried if the network or the API is unavailable.
+     */
     public void submitTileCompletionWithScreenshot(UUID tileId, byte[] screenshotBytes) {
-        apiService.submitTileCompletion(
-            tileId,
-            screenshotBytes,
-            updatedBingo -> {
-                showSuccessMessage("Tile submission sent to BingoScape!");
-                updateCurrentBingoAndPanel(updatedBingo);
-            },
-            error -> {
-                showErrorMessage(error);
-                if (error.contains(HTTP_STATUS_LOCKED)) { // HTTP 423 Locked
-                    refreshBingoBoard();
-                }
-            }
-        );
+        Long hash = screenshotDeduplicator.hash(screenshotBytes);
+        if (isDuplicateSkipped(tileId, hash)) {
+            return;
+        }
+        submissionOutbox.enqueue(tileId, screenshotBytes, hash);
     }
 
     /**
-     * Submits a tile completion automatically with metadata.
+     * Queues an automatic tile submission with metadata in the outbox.
      * Used by the auto-submission handler to include context about the drop.
+     * Auto-submissions skip the duplicate check, since separate drops of the same item can
+     * look alike; their screenshots still count against later manual submissions.
      */
     public void submitTileAutomaticWithMetadata(UUID tileId, byte[] screenshotBytes, AutoSubmissionMetadata metadata) {
-        apiService.submitTileAutomatic(
-            tileId,
-            screenshotBytes,
-            metadata,
-            updatedBingo -> {
-                log.info("Auto-submission successful for tile {}", tileId);
-                updateCurrentBingoAndPanel(updatedBingo);
-            },
-            error -> {
-                log.error("Auto-submission failed: {}", error);
-                if (error.contains(HTTP_STATUS_LOCKED)) { // HTTP 423 Locked
-                    refreshBingoBoard();
-                }
-            }
-        );
+        submissionOutbox.enqueueAutomatic(tileId, screenshotBytes, screenshotDeduplicator.hash(screenshotBytes),
+                metadata);
+    }
+
+    /**
+     * Runs the duplicate screenshot check for a manual submission and tells the player
+     * when it matched a recently delivered one.
+     *
+     * @return true if the submission should be dropped
+     */
+    private boolean isDuplicateSkipped(UUID tileId, Long hash) {
+        switch (screenshotDeduplicator.check(tileId, hash)) {
+            case SKIP:
+                showErrorMessage("Skipped a submission whose screenshot matches one sent moments ago.");
+                return true;
+            case WARN:
+                showErrorMessage("This screenshot looks the same as one submitted moments ago for this tile.");
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    private void onOutboxSubmitted(OutboxEntry entry, Bingo updatedBingo) {
+        screenshotDeduplicator.recordDelivered(entry.getTileId(), entry.getScreenshotHash());
+        if (entry.isAutomatic()) {
+            log.info("Auto-submission successful for tile {}", entry.getTileId());
+        } else {
+            showSuccessMessage("Tile submission sent to BingoScape!");
+        }
+        if (updatedBingo == null) {
+            // Accepted, but the board in the response couldn't be read
+            refreshBingoBoard();
+            return;
+        }
+        updateCurrentBingoAndPanel(updatedBingo);
+    }
+
+    private void onOutboxRejected(OutboxEntry entry, String error) {
+        if (entry.isAutomatic()) {
+            log.error("Auto-submission failed: {}", error);
+        } else {
+            showErrorMessage(error);
+        }
+        if (error.contains(HTTP_STATUS_LOCKED)) { // HTTP 423 Locked
+            refreshBingoBoard();
+        }
     }
 
     /**
@@ -338,17 +559,68 @@ public class BingoScapePlugin extends Plugin {
             return;
         }
 
-        apiService.refreshBingoBoard(
-            currentBingo.getId(),
-            this::updateCurrentBingoAndPanel,
-            error -> log.error(error)
-        );
+        UUID bingoId = currentBingo.getId();
+        long generation = selectionGeneration.get();
+        apiService.refreshBingoBoardIfModified(bingoId, BOARD_REQUEST_TIMEOUT)
+            .whenComplete((result, error) -> {
+                if (generation != selectionGeneration.get()) {
+                    log.debug("Dropping bingo {} refresh, selection changed while it was in flight", bingoId);
+                    return;
+                }
+                if (error != null) {
+                    log.error("Failed to refresh bingo {}: {}", bingoId, error.getMessage());
+                    return;
+                }
+                if (result.isPresent()) {
+                    updateCurrentBingoAndPanel(result.get());
+                } else {
+                    boardPrefetcher.markFresh(bingoId);
+                    log.debug("Bingo {} unchanged, skipping board rebuild", bingoId);
+                }
+            });
     }
 
+    /**
+     * Applies a board received from the API. Boards arrive on OkHttp and executor
+     * threads; they are applied on the client thread one at a time, the same thread
+     * live updates are applied on, so two updates never patch the same tiles at once.
+     */
     private void updateCurrentBingoAndPanel(Bingo updatedBingo) {
+        if (updatedBingo == null) {
+            return;
+        }
+        clientThread.invokeLater(() -> applyBoardUpdate(updatedBingo));
+    }
+
+    private void applyBoardUpdate(Bingo updatedBingo) {
+        Bingo bingo = currentBingo;
+        if (bingo != null && bingo.getId().equals(updatedBingo.getId()) && isOlder(updatedBingo, bingo)) {
+            log.debug("Ignoring bingo {} from {}, already have the version from {}", bingo.getId(),
+                    updatedBingo.getUpdatedAt(), bingo.getUpdatedAt());
+            return;
+        }
+
+        // Patch the selected board when only tile state changed
+        if (bingo != null && bingo.getId().equals(updatedBingo.getId())) {
+            List<TileDelta> deltas = TileDeltaApplier.diff(bingo, updatedBingo);
+            if (deltas != null) {
+                applyTileDeltas(bingo, deltas, updatedBingo.getUpdatedAt());
+                return;
+            }
+        }
+
         for(EventData e : activeEvents) {
             e.getBingos().replaceAll(b -> b.getId().equals(updatedBingo.getId()) ? updatedBingo : b);
         }
+        boardPrefetcher.put(updatedBingo);
+        boardMatcher.onBoardUpdated(updatedBingo);
+        goalAccumulator.reconcile(updatedBingo);
+
+        // Queued submissions can complete after the user switched boards (or after a restart);
+        // those only refresh the event copies, not the selected board
+        if (currentBingo == null || !currentBingo.getId().equals(updatedBingo.getId())) {
+            return;
+        }
         currentBingo = updatedBingo;
         panel.displayBingoBoard(updatedBingo);
 
@@ -357,6 +629,56 @@ public class BingoScapePlugin extends Plugin {
         requirementMatcher.rebuildLookupMaps();
     }
 
+    private static boolean isOlder(Bingo candidate, Bingo current) {
+        return candidate.getUpdatedAt() != null && current.getUpdatedAt() != null
+                && candidate.getUpdatedAt().before(current.getUpdatedAt());
+    }
+
+    /**
+     * Applies tile deltas to a copy of the selected board, publishes the copy and updates
+     * only what the changed tiles touch. The old board is left as it was, since matcher
+     * snapshots and the panel may still be reading it. Nothing is rebuilt if no tile
+     * actually changed.
+     *
+     * @param updatedAt The board version the deltas bring it to, or null for live deltas
+     */
+    private void applyTileDeltas(Bingo bingo, Collection<TileDelta> deltas, Date updatedAt) {
+        TileDeltaApplier.Patch patch = TileDeltaApplier.apply(bingo, deltas);
+        Bingo patched = patch.getBingo();
+        if (updatedAt != null && !updatedAt.equals(patched.getUpdatedAt())) {
+            patched = patched == bingo ? TileDeltaApplier.copyBoard(bingo) : patched;
+            patched.setUpdatedAt(updatedAt);
+        }
+
+        if (patched != bingo) {
+            Bingo published = patched;
+            if (currentBingo == bingo) {
+                currentBingo = published;
+            }
+            // Make sure the event lists hold the patched board, not an older copy
+            for (EventData e : activeEvents) {
+                e.getBingos().replaceAll(b -> b.getId().equals(published.getId()) ? published : b);
+            }
+        }
+        if (patched != bingo || updatedAt != null) {
+            boardPrefetcher.put(patched);
+        }
+
+        Set<UUID> changedTileIds = patch.getChangedTileIds();
+        if (changedTileIds.isEmpty()) {
+            log.debug("Bingo {} update contained no tile changes", bingo.getId());
+            return;
+        }
+
+        log.debug("Applied changes to {} tile(s) on bingo {}", changedTileIds.size(), bingo.getId());
+        if (currentBingo == patched) {
+            panel.updateTiles(patched, changedTileIds);
+            requirementMatcher.updateTiles(changedTileIds);
+        }
+        boardMatcher.onBoardUpdated(patched);
+        goalAccumulator.reconcile(patched);
+    }
+
     private void showErrorMessage(String message) {
         clientThread.invokeLater(() ->
                 client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", "BingoScape: " + message, null));
@@ -383,6 +705,19 @@ public class BingoScapePlugin extends Plugin {
         return panel;
     }
 
+    @Subscribe
+    public void onConfigChanged(ConfigChanged event) {
+        if (!"bingoscape".equals(event.getGroup())) {
+            return;
+        }
+        if ("enableLiveUpdates".equals(event.getKey())) {
+            updateLiveUpdateSubscription();
+        } else if ("enableAutoSubmission".equals(event.getKey())) {
+            // Indexes the active events' boards again, or clears the index when turned off
+            boardMatcher.setActiveEvents(activeEvents);
+        }
+    }
+
     @Subscribe
     public void onNpcLootReceived(NpcLootReceived event) {
         autoSubmissionHandler.onNpcLootReceived(event);
@@ -393,6 +728,21 @@ public class BingoScapePlugin extends Plugin {
         autoSubmissionHandler.onLootReceived(event);
     }
 
+    @Subscribe
+    public void onGameTick(GameTick event) {
+        frameRingBuffer.onGameTick();
+    }
+
+    @Subscribe
+    public void onStatChanged(StatChanged event) {
+        autoSubmissionHandler.onStatChanged(event);
+    }
+
+    @Subscribe
+    public void onChatMessage(ChatMessage event) {
+        autoSubmissionHandler.onChatMessage(event);
+    }
+
     @Schedule(period = 60, unit = ChronoUnit.SECONDS)
     public void cleanupAutoSubmissionCooldowns() {
         autoSubmissionHandler.cleanupCooldowns();
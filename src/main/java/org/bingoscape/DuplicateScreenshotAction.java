@@ -0,0 +1,22 @@
+package org.bingoscape;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * What to do with a screenshot that looks the same as a recent one for the same tile.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum DuplicateScreenshotAction {
+    OFF("Submit anyway"),
+    WARN("Submit and warn"),
+    SKIP("Don't submit");
+
+    private final String name;
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,22 @@
+package org.bingoscape;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Part of the client kept in submission screenshots.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum EvidenceCrop {
+    FULL("Whole client"),
+    VIEWPORT("Game viewport"),
+    CHATBOX_AND_LOOT("Chatbox and loot");
+
+    private final String name;
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
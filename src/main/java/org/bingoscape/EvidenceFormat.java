@@ -0,0 +1,36 @@
+package org.bingoscape;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Image format used for submission screenshots.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum EvidenceFormat {
+    PNG("PNG", "png", "image/png", "png"),
+    FAST_PNG("Fast PNG", "png", "image/png", "png"),
+    JPEG("JPEG", "jpeg", "image/jpeg", "jpg");
+
+    private final String name;
+    private final String formatName;
+    private final String mediaType;
+    private final String extension;
+
+    /**
+     * Detects the format of encoded screenshot bytes from their signature, falling back
+     * to PNG, so stored and queued screenshots upload with the right media type.
+     */
+    public static EvidenceFormat detect(byte[] bytes) {
+        if (bytes != null && bytes.length > 2 && (bytes[0] & 0xFF) == 0xFF && (bytes[1] & 0xFF) == 0xD8) {
+            return JPEG;
+        }
+        return PNG;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
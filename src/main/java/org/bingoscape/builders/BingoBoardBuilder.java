@@ -54,7 +54,7 @@ public abstract class BingoBoardBuilder {
         this.plugin = plugin;
         this.imageExecutor = imageExecutor;
         this.imageCache = imageCache;
-        this.tileFactory = new TileComponentFactory(imageExecutor, imageCache);
+        this.tileFactory = new TileComponentFactory(imageExecutor, imageCache, plugin.getHeaderImageCache());
     }
     
     /**
@@ -2,6 +2,7 @@ package org.bingoscape.builders;
 
 import net.runelite.client.ui.ColorScheme;
 import org.bingoscape.models.*;
+import org.bingoscape.services.HeaderImageCache;
 import org.bingoscape.ui.ColorPalette;
 import org.bingoscape.ui.StatusConstants;
 import org.bingoscape.ui.TileTooltipBuilder;
@@ -15,10 +16,8 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
-import java.net.URL;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
-import javax.imageio.ImageIO;
 
 /**
  * Factory class for creating common tile components and UI elements.
@@ -41,6 +40,7 @@ public class TileComponentFactory {
 
     private final ExecutorService imageExecutor;
     private final Map<String, ImageIcon> imageCache;
+    private final HeaderImageCache headerImageCache;
     private final TileTooltipBuilder tooltipBuilder;
 
     /**
@@ -48,10 +48,13 @@ public class TileComponentFactory {
      *
      * @param imageExecutor Executor service for async image loading
      * @param imageCache Shared image cache for performance
+     * @param headerImageCache Decoded header images shared with the prefetcher
      */
-    public TileComponentFactory(ExecutorService imageExecutor, Map<String, ImageIcon> imageCache) {
+    public TileComponentFactory(ExecutorService imageExecutor, Map<String, ImageIcon> imageCache,
+                                HeaderImageCache headerImageCache) {
         this.imageExecutor = imageExecutor;
         this.imageCache = imageCache;
+        this.headerImageCache = headerImageCache;
         this.tooltipBuilder = new TileTooltipBuilder();
     }
     
@@ -335,9 +338,8 @@ public class TileComponentFactory {
                     return;
                 }
                 
-                // Load from network
-                URL url = new URL(imageUrl);
-                BufferedImage originalImage = ImageIO.read(url);
+                // Load from the shared cache or the network
+                BufferedImage originalImage = headerImageCache.load(imageUrl);
                 
                 if (originalImage != null) {
                     // Scale image
@@ -8,7 +8,7 @@ import lombok.Data;
  * Contains contextual information about where and how the submission was triggered.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class AutoSubmissionMetadata {
     /**
      * The NPC ID that dropped the item (nullable for non-NPC sources).
@@ -27,9 +27,15 @@ public class AutoSubmissionMetadata {
 
     /**
      * The quantity of the item obtained (for stackable items).
+     * For batched count-based goals, the total across all drops in the batch.
      */
     private Integer quantity;
 
+    /**
+     * Number of drops summed into {@link #quantity}, null for a single drop.
+     */
+    private Integer dropCount;
+
     /**
      * The RuneScape account name of the logged-in player at time of submission.
      */
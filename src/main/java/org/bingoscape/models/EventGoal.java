@@ -0,0 +1,15 @@
+package org.bingoscape.models;
+
+import lombok.Data;
+
+/**
+ * Represents a goal completed by an in-game event rather than an item drop:
+ * reaching XP or a level, kill counts, collection log slots and pets.
+ * The threshold or count comes from the node's {@code targetValue}.
+ */
+@Data
+public class EventGoal {
+    private String trigger; // "xp", "level", "kill_count", "collection_log" or "pet"
+    private String skill; // Skill name for xp and level goals, e.g. "SLAYER"
+    private String target; // Boss, collection log item or pet name; null or empty matches any
+}
@@ -0,0 +1,79 @@
+package org.bingoscape.models;
+
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * Locally collected progress toward a count-based item goal (one with a
+ * {@code targetValue} above one), waiting to be submitted as a single batch.
+ */
+@Data
+public class GoalAccumulation {
+    private String goalId;
+    private UUID bingoId;
+    private UUID tileId;
+    private Integer itemId; // null for kill count goals
+    private int targetValue;
+
+    /**
+     * The goal's completed count as last reported by the server.
+     */
+    private int serverCount;
+
+    /**
+     * Collected locally and not submitted yet.
+     */
+    private int pending;
+
+    /**
+     * Submitted, but not yet reflected in {@link #serverCount}.
+     */
+    private int submitted;
+
+    /**
+     * Drops summed into {@link #pending}.
+     */
+    private int dropCount;
+
+    /**
+     * Epoch millis of the first drop in the pending batch.
+     */
+    private long firstDropAt;
+
+    /**
+     * Screenshot of the first drop in the batch, stored next to the state file.
+     * Null until one was captured.
+     */
+    private UUID evidenceId;
+
+    /**
+     * File extension of the evidence screenshot, from its detected format. Null for
+     * state saved before it was recorded, which was always PNG.
+     */
+    private String evidenceExtension;
+
+    /**
+     * Metadata of the latest drop, the base for the batch submission.
+     */
+    private AutoSubmissionMetadata lastDrop;
+
+    /**
+     * A batch reaching the target was submitted and the server hasn't confirmed or
+     * rejected it yet. Drops meanwhile only add to {@link #pending}.
+     */
+    private boolean awaitingServer;
+
+    /**
+     * Epoch millis when the batch that reached the target was started, 0 if none is
+     * awaiting the server.
+     */
+    private long reachedAt;
+
+    /**
+     * Total count once everything collected so far is credited.
+     */
+    public int getProjectedCount() {
+        return serverCount + submitted + pending;
+    }
+}
@@ -25,8 +25,9 @@ public class GoalTreeNode {
     // Goal-specific fields
     private String description;
     private Integer targetValue;
-    private String goalType; // "item" or "generic"
+    private String goalType; // "item", "event" or "generic"
     private ItemGoal itemGoal;
+    private EventGoal eventGoal;
     // Note: progress field is already declared above (shared between group and goal)
 
     /**
@@ -63,4 +64,11 @@ public class GoalTreeNode {
     public boolean isItemGoal() {
         return isGoal() && "item".equals(goalType) && itemGoal != null;
     }
+
+    /**
+     * Checks if this goal is completed by an in-game event (has eventGoal).
+     */
+    public boolean isEventGoal() {
+        return isGoal() && "event".equals(goalType) && eventGoal != null;
+    }
 }
@@ -2,6 +2,8 @@ package org.bingoscape.models;
 
 import lombok.Data;
 
+import java.util.List;
+
 /**
  * Represents an item-based goal with OSRS item metadata.
  */
@@ -11,4 +13,18 @@ public class ItemGoal {
     private String baseName;
     private String exactVariant; // e.g., "Undamaged" for Barrows items
     private String imageUrl;
+
+    // Optional source restrictions; null or empty means the item counts from any source
+    private List<Integer> npcIds; // NPCs the drop must come from
+    private List<String> lootTypes; // LootRecordType names, e.g. "NPC", "EVENT", "PICKPOCKET"
+    private List<Integer> regionIds; // Map regions the player must be in
+
+    /**
+     * Checks if this goal only counts drops from specific sources.
+     */
+    public boolean hasSourceRestrictions() {
+        return (npcIds != null && !npcIds.isEmpty())
+                || (lootTypes != null && !lootTypes.isEmpty())
+                || (regionIds != null && !regionIds.isEmpty());
+    }
 }
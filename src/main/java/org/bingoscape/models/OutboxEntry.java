@@ -0,0 +1,46 @@
+package org.bingoscape.models;
+
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * A tile submission waiting in the on-disk outbox.
+ * The screenshot is stored next to the journal as a separate blob file.
+ */
+@Data
+public class OutboxEntry {
+    private UUID id;
+    private UUID tileId;
+
+    /**
+     * True for auto-submissions (sent with metadata to the auto-submission endpoint).
+     */
+    private boolean automatic;
+
+    /**
+     * Auto-submission metadata, null for manual submissions.
+     */
+    private AutoSubmissionMetadata metadata;
+
+    /**
+     * File extension of the stored screenshot, from its detected format. Null for
+     * entries queued before it was recorded, whose screenshot is a .png file.
+     */
+    private String blobExtension;
+
+    /**
+     * Perceptual hash of the screenshot, recorded for duplicate detection once the
+     * submission is delivered. Null if it wasn't computed.
+     */
+    private Long screenshotHash;
+
+    /**
+     * Epoch millis when the submission was queued.
+     */
+    private long createdAt;
+
+    // Retry state is kept in memory only; a restart retries immediately
+    private transient int attempts;
+    private transient long nextAttemptAt;
+}
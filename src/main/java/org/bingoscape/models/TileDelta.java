@@ -0,0 +1,39 @@
+package org.bingoscape.models;
+
+import lombok.Data;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A change to a single tile's state: its submission and/or the progress of
+ * nodes in its goal tree. Everything else about the tile stays as it was.
+ */
+@Data
+public class TileDelta {
+    private UUID tileId;
+
+    /**
+     * The tile's new submission state, null if unchanged.
+     */
+    private TileSubmission submission;
+
+    /**
+     * New progress per goal tree node ID, null or empty if unchanged.
+     */
+    private Map<String, GoalTreeProgress> goalProgress;
+
+    /**
+     * When the tile changed on the server, null if unknown. A delta older than the
+     * tile's last applied change is ignored.
+     */
+    private Date updatedAt;
+
+    /**
+     * Returns true if this delta carries no changes.
+     */
+    public boolean isEmpty() {
+        return submission == null && (goalProgress == null || goalProgress.isEmpty());
+    }
+}
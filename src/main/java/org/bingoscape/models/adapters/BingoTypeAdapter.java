@@ -0,0 +1,119 @@
+package org.bingoscape.models.adapters;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.bingoscape.models.Bingo;
+import org.bingoscape.models.ProgressionMetadata;
+import org.bingoscape.models.Tile;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Streaming reader for {@link Bingo}. Tiles are read one at a time from the
+ * stream so the board is never materialized as a String first.
+ */
+class BingoTypeAdapter extends TypeAdapter<Bingo> {
+    private final TypeAdapter<Bingo> delegate;
+    private final TypeAdapter<UUID> uuidAdapter;
+    private final TypeAdapter<Date> dateAdapter;
+    private final TypeAdapter<Tile> tileAdapter;
+    private final TypeAdapter<ProgressionMetadata> progressionAdapter;
+
+    BingoTypeAdapter(Gson gson, TypeAdapter<Bingo> delegate) {
+        this.delegate = delegate;
+        this.uuidAdapter = gson.getAdapter(UUID.class);
+        this.dateAdapter = gson.getAdapter(Date.class);
+        this.tileAdapter = gson.getAdapter(Tile.class);
+        this.progressionAdapter = gson.getAdapter(ProgressionMetadata.class);
+    }
+
+    @Override
+    public void write(JsonWriter out, Bingo value) throws IOException {
+        delegate.write(out, value);
+    }
+
+    @Override
+    public Bingo read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        Bingo bingo = new Bingo();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+
+            switch (name) {
+                case "id":
+                    bingo.setId(uuidAdapter.read(in));
+                    break;
+                case "eventId":
+                    bingo.setEventId(uuidAdapter.read(in));
+                    break;
+                case "title":
+                    bingo.setTitle(in.nextString());
+                    break;
+                case "description":
+                    bingo.setDescription(in.nextString());
+                    break;
+                case "rows":
+                    bingo.setRows(in.nextInt());
+                    break;
+                case "columns":
+                    bingo.setColumns(in.nextInt());
+                    break;
+                case "codephrase":
+                    bingo.setCodephrase(in.nextString());
+                    break;
+                case "createdAt":
+                    bingo.setCreatedAt(dateAdapter.read(in));
+                    break;
+                case "updatedAt":
+                    bingo.setUpdatedAt(dateAdapter.read(in));
+                    break;
+                case "locked":
+                    bingo.setLocked(in.nextBoolean());
+                    break;
+                case "visible":
+                    bingo.setVisible(in.nextBoolean());
+                    break;
+                case "bingoType":
+                    bingo.setBingoType(in.nextString());
+                    break;
+                case "tiles":
+                    bingo.setTiles(readTiles(in));
+                    break;
+                case "progression":
+                    bingo.setProgression(progressionAdapter.read(in));
+                    break;
+                default:
+                    UnknownFields.skip(in, "Bingo", name);
+                    break;
+            }
+        }
+        in.endObject();
+        return bingo;
+    }
+
+    private List<Tile> readTiles(JsonReader in) throws IOException {
+        List<Tile> tiles = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            tiles.add(tileAdapter.read(in));
+        }
+        in.endArray();
+        return tiles;
+    }
+}
@@ -0,0 +1,41 @@
+package org.bingoscape.models.adapters;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import org.bingoscape.models.Bingo;
+import org.bingoscape.models.GoalTreeNode;
+import org.bingoscape.models.Tile;
+
+/**
+ * Registers the streaming adapters for the board models.
+ * <p>
+ * Boards are the largest payloads the API returns, so {@link Bingo}, {@link Tile}
+ * and {@link GoalTreeNode} are read field by field from the {@code JsonReader}
+ * instead of through Gson's reflective adapter. Writing is delegated to the
+ * reflective adapter so the serialized form stays unchanged.
+ */
+public class BingoTypeAdapterFactory implements TypeAdapterFactory {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> rawType = type.getRawType();
+
+        if (rawType == Bingo.class) {
+            TypeAdapter<Bingo> delegate = gson.getDelegateAdapter(this, TypeToken.get(Bingo.class));
+            return (TypeAdapter<T>) new BingoTypeAdapter(gson, delegate);
+        }
+        if (rawType == Tile.class) {
+            TypeAdapter<Tile> delegate = gson.getDelegateAdapter(this, TypeToken.get(Tile.class));
+            return (TypeAdapter<T>) new TileTypeAdapter(gson, delegate);
+        }
+        if (rawType == GoalTreeNode.class) {
+            TypeAdapter<GoalTreeNode> delegate = gson.getDelegateAdapter(this, TypeToken.get(GoalTreeNode.class));
+            return (TypeAdapter<T>) new GoalTreeNodeTypeAdapter(gson, delegate);
+        }
+
+        return null;
+    }
+}
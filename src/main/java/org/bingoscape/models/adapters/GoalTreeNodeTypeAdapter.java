@@ -0,0 +1,113 @@
+package org.bingoscape.models.adapters;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.bingoscape.models.EventGoal;
+import org.bingoscape.models.GoalTreeNode;
+import org.bingoscape.models.GoalTreeProgress;
+import org.bingoscape.models.ItemGoal;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming reader for {@link GoalTreeNode}. Child nodes are read recursively
+ * by this adapter, so deep goal trees never go through reflection.
+ */
+class GoalTreeNodeTypeAdapter extends TypeAdapter<GoalTreeNode> {
+    private final TypeAdapter<GoalTreeNode> delegate;
+    private final TypeAdapter<GoalTreeProgress> progressAdapter;
+    private final TypeAdapter<ItemGoal> itemGoalAdapter;
+    private final TypeAdapter<EventGoal> eventGoalAdapter;
+
+    GoalTreeNodeTypeAdapter(Gson gson, TypeAdapter<GoalTreeNode> delegate) {
+        this.delegate = delegate;
+        this.progressAdapter = gson.getAdapter(GoalTreeProgress.class);
+        this.itemGoalAdapter = gson.getAdapter(ItemGoal.class);
+        this.eventGoalAdapter = gson.getAdapter(EventGoal.class);
+    }
+
+    @Override
+    public void write(JsonWriter out, GoalTreeNode value) throws IOException {
+        delegate.write(out, value);
+    }
+
+    @Override
+    public GoalTreeNode read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        GoalTreeNode node = new GoalTreeNode();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+
+            switch (name) {
+                case "type":
+                    node.setType(in.nextString());
+                    break;
+                case "id":
+                    node.setId(in.nextString());
+                    break;
+                case "orderIndex":
+                    node.setOrderIndex(in.nextInt());
+                    break;
+                case "name":
+                    node.setName(in.nextString());
+                    break;
+                case "logicalOperator":
+                    node.setLogicalOperator(in.nextString());
+                    break;
+                case "minRequiredGoals":
+                    node.setMinRequiredGoals(in.nextInt());
+                    break;
+                case "children":
+                    node.setChildren(readChildren(in));
+                    break;
+                case "progress":
+                    node.setProgress(progressAdapter.read(in));
+                    break;
+                case "description":
+                    node.setDescription(in.nextString());
+                    break;
+                case "targetValue":
+                    node.setTargetValue(in.nextInt());
+                    break;
+                case "goalType":
+                    node.setGoalType(in.nextString());
+                    break;
+                case "itemGoal":
+                    node.setItemGoal(itemGoalAdapter.read(in));
+                    break;
+                case "eventGoal":
+                    node.setEventGoal(eventGoalAdapter.read(in));
+                    break;
+                default:
+                    UnknownFields.skip(in, "GoalTreeNode", name);
+                    break;
+            }
+        }
+        in.endObject();
+        return node;
+    }
+
+    private List<GoalTreeNode> readChildren(JsonReader in) throws IOException {
+        List<GoalTreeNode> children = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            children.add(read(in));
+        }
+        in.endArray();
+        return children;
+    }
+}
@@ -0,0 +1,122 @@
+package org.bingoscape.models.adapters;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.bingoscape.models.Goal;
+import org.bingoscape.models.GoalTreeNode;
+import org.bingoscape.models.Tile;
+import org.bingoscape.models.TileSubmission;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Streaming reader for {@link Tile}.
+ */
+class TileTypeAdapter extends TypeAdapter<Tile> {
+    private final TypeAdapter<Tile> delegate;
+    private final TypeAdapter<UUID> uuidAdapter;
+    private final TypeAdapter<Date> dateAdapter;
+    private final TypeAdapter<TileSubmission> submissionAdapter;
+    private final TypeAdapter<List<Goal>> goalsAdapter;
+    private final TypeAdapter<GoalTreeNode> goalTreeNodeAdapter;
+
+    TileTypeAdapter(Gson gson, TypeAdapter<Tile> delegate) {
+        this.delegate = delegate;
+        this.uuidAdapter = gson.getAdapter(UUID.class);
+        this.dateAdapter = gson.getAdapter(Date.class);
+        this.submissionAdapter = gson.getAdapter(TileSubmission.class);
+        this.goalsAdapter = gson.getAdapter(new TypeToken<List<Goal>>() {});
+        this.goalTreeNodeAdapter = gson.getAdapter(GoalTreeNode.class);
+    }
+
+    @Override
+    public void write(JsonWriter out, Tile value) throws IOException {
+        delegate.write(out, value);
+    }
+
+    @Override
+    public Tile read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        Tile tile = new Tile();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+
+            switch (name) {
+                case "id":
+                    tile.setId(uuidAdapter.read(in));
+                    break;
+                case "bingoId":
+                    tile.setBingoId(uuidAdapter.read(in));
+                    break;
+                case "headerImage":
+                    tile.setHeaderImage(in.nextString());
+                    break;
+                case "title":
+                    tile.setTitle(in.nextString());
+                    break;
+                case "description":
+                    tile.setDescription(in.nextString());
+                    break;
+                case "weight":
+                    tile.setWeight(in.nextInt());
+                    break;
+                case "index":
+                    tile.setIndex(in.nextInt());
+                    break;
+                case "tier":
+                    tile.setTier(in.nextInt());
+                    break;
+                case "isHidden":
+                    tile.setHidden(in.nextBoolean());
+                    break;
+                case "createdAt":
+                    tile.setCreatedAt(dateAdapter.read(in));
+                    break;
+                case "updatedAt":
+                    tile.setUpdatedAt(dateAdapter.read(in));
+                    break;
+                case "submission":
+                    tile.setSubmission(submissionAdapter.read(in));
+                    break;
+                case "goals":
+                    tile.setGoals(goalsAdapter.read(in));
+                    break;
+                case "goalTree":
+                    tile.setGoalTree(readGoalTree(in));
+                    break;
+                default:
+                    UnknownFields.skip(in, "Tile", name);
+                    break;
+            }
+        }
+        in.endObject();
+        return tile;
+    }
+
+    private List<GoalTreeNode> readGoalTree(JsonReader in) throws IOException {
+        List<GoalTreeNode> nodes = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            nodes.add(goalTreeNodeAdapter.read(in));
+        }
+        in.endArray();
+        return nodes;
+    }
+}
@@ -0,0 +1,27 @@
+package org.bingoscape.models.adapters;
+
+import com.google.gson.stream.JsonReader;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Skips fields the streaming adapters do not know. Each unknown field is logged
+ * once, so a field added on the server shows up in the log instead of vanishing.
+ */
+@Slf4j
+final class UnknownFields {
+    private static final Set<String> reported = ConcurrentHashMap.newKeySet();
+
+    private UnknownFields() {
+    }
+
+    static void skip(JsonReader in, String model, String name) throws IOException {
+        in.skipValue();
+        if (reported.add(model + '.' + name)) {
+            log.warn("Ignoring unknown {} field '{}' from the API", model, name);
+        }
+    }
+}
@@ -4,7 +4,10 @@ import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.ChatMessageType;
 import net.runelite.api.Client;
 import net.runelite.api.NPC;
+import net.runelite.api.Skill;
 import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.ChatMessage;
+import net.runelite.api.events.StatChanged;
 import net.runelite.client.callback.ClientThread;
 import net.runelite.client.events.NpcLootReceived;
 import net.runelite.client.game.ItemStack;
@@ -13,11 +16,13 @@ import net.runelite.http.api.loottracker.LootRecordType;
 import org.bingoscape.BingoScapeConfig;
 import org.bingoscape.BingoScapePlugin;
 import org.bingoscape.models.AutoSubmissionMetadata;
+import org.bingoscape.services.metrics.ScreenshotMetrics;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Handles automatic tile submissions when game events match tile requirements.
@@ -31,6 +36,18 @@ public class AutoSubmissionHandler {
     private final Map<UUID, Long> recentSubmissions = new ConcurrentHashMap<>();
     private static final long SUBMISSION_COOLDOWN_MS = 5000; // 5 seconds
 
+    // Last XP and level seen per skill ordinal, -1 until the first StatChanged after login
+    private final int[] lastXp = unknownStats();
+    private final int[] lastLevel = new int[Skill.values().length];
+
+    // Loot events dropped by the item pre-filter vs. events that reached the matcher
+    private final LongAdder filteredLootEvents = new LongAdder();
+    private final LongAdder processedLootEvents = new LongAdder();
+
+    // Submissions matched during the current tick, sent with one shared screenshot (client thread only)
+    private final List<PendingSubmission> tickBatch = new ArrayList<>();
+    private int tickBatchTick;
+
     @Inject
     private BingoScapePlugin plugin;
 
@@ -38,11 +55,17 @@ public class AutoSubmissionHandler {
     private BingoScapeConfig config;
 
     @Inject
-    private TileRequirementMatcher requirementMatcher;
+    private MultiBoardMatcher boardMatcher;
+
+    @Inject
+    private GoalAccumulator goalAccumulator;
 
     @Inject
     private org.bingoscape.notifications.NotificationManager notificationManager;
 
+    @Inject
+    private ScreenshotMetrics screenshotMetrics;
+
     @Inject
     private Client client;
 
@@ -53,7 +76,7 @@ public class AutoSubmissionHandler {
      * Handles NPC loot received events (most common source of item drops).
      */
     public void onNpcLootReceived(NpcLootReceived event) {
-        if (!shouldProcessEvent()) {
+        if (!shouldProcessEvent(event.getItems())) {
             return;
         }
 
@@ -62,25 +85,152 @@ public class AutoSubmissionHandler {
         String npcName = npc.getName();
 
         Collection<ItemStack> items = event.getItems();
-        processItemDrops(items, npcId, npcName, "NPC loot");
+        LootSource source = new LootSource(npcId, LootRecordType.NPC, getCurrentRegionId());
+        processItemDrops(items, source, npcName, "NPC loot");
     }
 
     /**
      * Handles generic loot received events (pickpocket, event rewards, etc.).
      */
     public void onLootReceived(LootReceived event) {
-        if (!shouldProcessEvent()) {
+        // Only process non-NPC loot (NPC loot is handled by onNpcLootReceived)
+        if (event.getType() == LootRecordType.NPC) {
             return;
         }
 
-        // Only process non-NPC loot (NPC loot is handled by onNpcLootReceived)
-        if (event.getType() == LootRecordType.NPC) {
+        if (!shouldProcessEvent(event.getItems())) {
             return;
         }
 
         // For non-NPC loot, we don't have an NPC ID
         Collection<ItemStack> items = event.getItems();
-        processItemDrops(items, null, event.getName(), event.getType().name());
+        LootSource source = new LootSource(null, event.getType(), getCurrentRegionId());
+        processItemDrops(items, source, event.getName(), event.getType().name());
+    }
+
+    /**
+     * Handles stat changes, for XP and level goals. The first change per skill after
+     * login only records the starting point, since the client reports every skill then.
+     */
+    public void onStatChanged(StatChanged event) {
+        Skill skill = event.getSkill();
+        int ordinal = skill.ordinal();
+        int oldXp = lastXp[ordinal];
+        int oldLevel = lastLevel[ordinal];
+        lastXp[ordinal] = event.getXp();
+        lastLevel[ordinal] = event.getLevel();
+
+        if (oldXp < 0 || event.getXp() <= oldXp || !config.enableAutoSubmission()) {
+            return;
+        }
+        int skillTriggers = EventTrigger.XP.bit() | EventTrigger.LEVEL.bit();
+        if ((boardMatcher.getTriggerMask() & skillTriggers) == 0) {
+            return;
+        }
+
+        List<BoardTile> matches = boardMatcher.getTilesForSkill(skill, oldXp, event.getXp(), oldLevel,
+                event.getLevel());
+        String description = event.getLevel() > oldLevel
+                ? String.format("%s level %d", skill.getName(), event.getLevel())
+                : String.format("%,d %s XP", event.getXp(), skill.getName());
+        processEventTiles(matches, description, skill.getName(), "Skill", 1);
+    }
+
+    /**
+     * Forgets the last seen stats, so the next login sets a new starting point.
+     */
+    public void resetStatBaseline() {
+        Arrays.fill(lastXp, -1);
+    }
+
+    private static int[] unknownStats() {
+        int[] stats = new int[Skill.values().length];
+        Arrays.fill(stats, -1);
+        return stats;
+    }
+
+    /**
+     * Handles game messages, for kill count, collection log and pet goals. Most chat
+     * lines are rejected by the trigger mask and a prefix check without allocating.
+     */
+    public void onChatMessage(ChatMessage event) {
+        if (event.getType() != ChatMessageType.GAMEMESSAGE && event.getType() != ChatMessageType.SPAM) {
+            return;
+        }
+        int triggerMask = boardMatcher.getTriggerMask();
+        if (triggerMask == 0 || !config.enableAutoSubmission()) {
+            return;
+        }
+
+        ChatEvent chatEvent = ChatEvent.parse(event.getMessage(), triggerMask);
+        if (chatEvent == null) {
+            return;
+        }
+
+        List<BoardTile> matches = boardMatcher.getTilesForChat(chatEvent);
+        switch (chatEvent.getTrigger()) {
+            case KILL_COUNT:
+                processEventTiles(matches, String.format("%s kill count %d", chatEvent.getName(), chatEvent.getCount()),
+                        chatEvent.getName(), "Kill count", 1);
+                break;
+            case COLLECTION_LOG:
+                processEventTiles(matches, String.format("collection log: %s", chatEvent.getName()),
+                        chatEvent.getName(), "Collection log", 1);
+                break;
+            default:
+                processEventTiles(matches, "a pet", "Pet", "Pet", 1);
+                break;
+        }
+    }
+
+    /**
+     * Submits the tiles a game event matched, like {@link #processItemDrops} does for drops.
+     */
+    private void processEventTiles(List<BoardTile> matches, String description, String sourceName,
+                                   String sourceType, int quantity) {
+        if (matches.isEmpty()) {
+            return;
+        }
+        log.info("Game event {} matched {} tile(s)", description, matches.size());
+
+        for (BoardTile match : matches) {
+            UUID tileId = match.getTileId();
+
+            // Kill counts toward a count accumulate like drops do
+            if (goalAccumulator.accepts(match)) {
+                AutoSubmissionMetadata metadata = buildMetadata(null, quantity, sourceName, null, sourceType);
+                if (goalAccumulator.record(match, quantity, metadata) && config.showAutoSubmitNotifications()) {
+                    showNotification("Bingo Goal", String.format("Reached %s - auto-submitting...", description));
+                }
+                continue;
+            }
+
+            if (!config.autoSubmitTrigger().accepts(match.getOutcome())) {
+                log.debug("Not submitting tile {} on bingo {} for {}: outcome {}", tileId, match.getBingoId(),
+                        description, match.getOutcome());
+                continue;
+            }
+            if (isOnCooldown(tileId)) {
+                log.debug("Tile {} is on submission cooldown, skipping", tileId);
+                continue;
+            }
+
+            if (config.showAutoSubmitNotifications()) {
+                showNotification("Bingo Goal", String.format("Reached %s - auto-submitting...", description));
+            }
+            submitWithScreenshot(tileId, description, buildMetadata(null, quantity, sourceName, null, sourceType));
+        }
+    }
+
+    /**
+     * Gets the region the local player is standing in, for region-restricted goals.
+     */
+    private int getCurrentRegionId() {
+        if (client.getLocalPlayer() == null) {
+            return LootSource.UNKNOWN_REGION;
+        }
+        WorldPoint location = client.getLocalPlayer().getWorldLocation();
+        return location != null ? location.getRegionID() : LootSource.UNKNOWN_REGION;
     }
 
     /**
@@ -99,11 +249,12 @@ public class AutoSubmissionHandler {
     /**
      * Processes a collection of item drops to check if any match tile requirements.
      */
-    private void processItemDrops(Collection<ItemStack> items, Integer npcId, String sourceName, String sourceType) {
+    private void processItemDrops(Collection<ItemStack> items, LootSource source, String sourceName, String sourceType) {
         if (items == null || items.isEmpty()) {
             return;
         }
 
+        Integer npcId = source.getNpcId();
         log.debug("Processing {} items from {} ({})", items.size(), sourceName, sourceType);
 
         for (ItemStack item : items) {
@@ -111,13 +262,32 @@ public class AutoSubmissionHandler {
             int quantity = item.getQuantity();
 
             // Check if this item is required for any tile
-            if (requirementMatcher.isRequiredItem(itemId, npcId)) {
+            if (boardMatcher.mayBeRequired(itemId) && boardMatcher.isRequiredItem(itemId, source)) {
                 log.info("Found required item {} from {}", itemId, sourceName);
 
-                // Get all tiles that can be completed with this item
-                List<UUID> matchingTiles = requirementMatcher.getTilesForItem(itemId, npcId);
+                // Get all tiles, on every active board, that can be completed with this item
+                List<BoardTile> matchingTiles = boardMatcher.getTilesForItem(itemId, source, quantity);
+
+                for (BoardTile match : matchingTiles) {
+                    UUID tileId = match.getTileId();
+
+                    // Count-based goals add up drops locally and submit them as one batch
+                    if (goalAccumulator.accepts(match)) {
+                        AutoSubmissionMetadata metadata = buildMetadata(itemId, quantity, sourceName, npcId, sourceType);
+                        if (goalAccumulator.record(match, quantity, metadata) && config.showAutoSubmitNotifications()) {
+                            showNotification("Bingo Goal", String.format("Collected enough %s - auto-submitting...",
+                                    getItemName(itemId)));
+                        }
+                        continue;
+                    }
+
+                    // Skip drops that won't move the tile as far as the user asked for
+                    if (!config.autoSubmitTrigger().accepts(match.getOutcome())) {
+                        log.debug("Not submitting tile {} on bingo {}: drop would {}", tileId, match.getBingoId(),
+                                match.getOutcome() == TileOutcome.NONE ? "not advance it" : "only advance it");
+                        continue;
+                    }
 
-                for (UUID tileId : matchingTiles) {
                     // Check cooldown to avoid duplicate submissions
                     if (isOnCooldown(tileId)) {
                         log.debug("Tile {} is on submission cooldown, skipping", tileId);
@@ -151,14 +321,78 @@ public class AutoSubmissionHandler {
             String sourceType) {
         log.info("Auto-submitting tile {} for item {} from {}", tileId, itemId, sourceName);
 
-        // Mark this tile as recently submitted
-        recentSubmissions.put(tileId, System.currentTimeMillis());
-
         // Get item name NOW (on client thread) before entering background thread
         // This must be done here because ItemManager requires the client thread
         final String itemName = getItemName(itemId);
 
-        // Capture location data (must be on client thread like getItemName)
+        AutoSubmissionMetadata metadata = buildMetadata(itemId, quantity, sourceName, npcId, sourceType);
+        submitWithScreenshot(tileId, itemName, metadata);
+    }
+
+    /**
+     * Queues a submission for the current tick. All submissions matched during one tick
+     * are sent together with a single screenshot once the tick's events have been handled.
+     *
+     * @param description What was achieved, for the chat message
+     */
+    private void submitWithScreenshot(UUID tileId, String description, AutoSubmissionMetadata metadata) {
+        // Mark this tile as recently submitted
+        recentSubmissions.put(tileId, System.currentTimeMillis());
+
+        if (tickBatch.isEmpty()) {
+            tickBatchTick = client.getTickCount();
+            clientThread.invokeLater(this::flushTickBatch);
+        }
+        tickBatch.add(new PendingSubmission(tileId, description, metadata));
+    }
+
+    /**
+     * Takes one screenshot of the batch's tick and submits every tile queued during it.
+     */
+    private void flushTickBatch() {
+        if (tickBatch.isEmpty()) {
+            return;
+        }
+        List<PendingSubmission> batch = new ArrayList<>(tickBatch);
+        tickBatch.clear();
+
+        // Take screenshot and submit with metadata
+        plugin.takeDropScreenshot(tickBatchTick, batch.get(0).tileId, screenshotBytes -> {
+            if (screenshotBytes == null) {
+                log.error("Failed to capture screenshot for {} tile(s)", batch.size());
+                showChatMessage("Auto-submission failed: could not capture screenshot");
+                return;
+            }
+            screenshotMetrics.recordShared(batch.size());
+
+            // Submit to API with metadata, every tile sharing the same screenshot
+            for (PendingSubmission submission : batch) {
+                plugin.submitTileAutomaticWithMetadata(submission.tileId, screenshotBytes, submission.metadata);
+            }
+
+            // Log success in chatbox (use pre-fetched descriptions from client thread)
+            if (config.showAutoSubmitNotifications()) {
+                if (batch.size() == 1) {
+                    showChatMessage(String.format("Tile auto-submitted for %s", batch.get(0).description));
+                } else {
+                    Set<String> descriptions = new LinkedHashSet<>();
+                    for (PendingSubmission submission : batch) {
+                        descriptions.add(submission.description);
+                    }
+                    showChatMessage(String.format("%d tiles auto-submitted for %s",
+                            batch.size(), String.join(", ", descriptions)));
+                }
+            }
+        });
+    }
+
+    /**
+     * Builds submission metadata for a drop. Must be called on the client thread,
+     * since it reads the player's location.
+     */
+    private AutoSubmissionMetadata buildMetadata(Integer itemId, int quantity, String sourceName, Integer npcId,
+            String sourceType) {
+        // Capture location data
         WorldPoint location = client.getLocalPlayer().getWorldLocation();
         final int worldX = location.getX();
         final int worldY = location.getY();
@@ -166,8 +400,7 @@ public class AutoSubmissionHandler {
         final int worldNumber = client.getWorld();
         final int regionId = ((worldX >> 6) << 8) | (worldY >> 6);
 
-        // Build metadata
-        AutoSubmissionMetadata metadata = AutoSubmissionMetadata.builder()
+        return AutoSubmissionMetadata.builder()
                 .itemId(itemId)
                 .quantity(quantity)
                 .sourceName(sourceName)
@@ -180,23 +413,6 @@ public class AutoSubmissionHandler {
                 .worldNumber(worldNumber)
                 .regionId(regionId)
                 .build();
-
-        // Take screenshot and submit with metadata
-        plugin.takeScreenshot(tileId, screenshotBytes -> {
-            if (screenshotBytes == null) {
-                log.error("Failed to capture screenshot for tile {}", tileId);
-                showChatMessage("Auto-submission failed: could not capture screenshot");
-                return;
-            }
-
-            // Submit to API with metadata
-            plugin.submitTileAutomaticWithMetadata(tileId, screenshotBytes, metadata);
-
-            // Log success in chatbox (use pre-fetched item name from client thread)
-            if (config.showAutoSubmitNotifications()) {
-                showChatMessage(String.format("Tile auto-submitted for %s", itemName));
-            }
-        });
     }
 
     /**
@@ -219,29 +435,25 @@ public class AutoSubmissionHandler {
     }
 
     /**
-     * Checks if events should be processed based on config and plugin state.
+     * Checks if a loot event should be processed: auto-submission is enabled and at
+     * least one item may be required by a tracked board. Loot with no relevant items
+     * exits here without allocating or formatting anything.
      */
-    private boolean shouldProcessEvent() {
+    private boolean shouldProcessEvent(Collection<ItemStack> items) {
         // Check if auto-submission is enabled
-        if (!config.enableAutoSubmission()) {
-            log.debug("Auto-submission disabled in config");
+        if (!config.enableAutoSubmission() || items == null) {
             return false;
         }
 
-        // Check if we have a current bingo loaded
-        if (plugin.getCurrentBingo() == null) {
-            log.debug("No current bingo loaded");
-            return false;
-        }
-
-        // Check if the requirement matcher has any trackable tiles
-        if (!requirementMatcher.hasTrackableTiles()) {
-            log.warn("Requirement matcher has no trackable tiles. Stats: {}", requirementMatcher.getStats());
-            return false;
+        for (ItemStack item : items) {
+            if (boardMatcher.mayBeRequired(item.getId())) {
+                processedLootEvents.increment();
+                return true;
+            }
         }
 
-        log.debug("Event processing enabled. Trackable tiles: {}", requirementMatcher.getStats());
-        return true;
+        filteredLootEvents.increment();
+        return false;
     }
 
     /**
@@ -303,9 +515,25 @@ public class AutoSubmissionHandler {
      * Gets statistics about auto-submission for debugging.
      */
     public String getStats() {
-        return String.format("Auto-submission: enabled=%s, tiles tracked=%s, recent submissions=%d",
+        return String.format("Auto-submission: enabled=%s, tiles tracked=%s, recent submissions=%d, "
+                        + "loot events filtered=%d, processed=%d, screenshots saved=%d",
                 config.enableAutoSubmission(),
-                requirementMatcher.hasTrackableTiles(),
-                recentSubmissions.size());
+                boardMatcher.hasTrackableTiles(),
+                recentSubmissions.size(),
+                filteredLootEvents.sum(),
+                processedLootEvents.sum(),
+                screenshotMetrics.getSaved());
+    }
+
+    private static final class PendingSubmission {
+        private final UUID tileId;
+        private final String description;
+        private final AutoSubmissionMetadata metadata;
+
+        private PendingSubmission(UUID tileId, String description, AutoSubmissionMetadata metadata) {
+            this.tileId = tileId;
+            this.description = description;
+            this.metadata = metadata;
+        }
     }
 }
@@ -1,115 +1,447 @@
 package org.bingoscape.services;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
 import org.bingoscape.BingoScapeConfig;
+import org.bingoscape.EvidenceFormat;
 import org.bingoscape.models.*;
+import org.bingoscape.models.adapters.BingoTypeAdapterFactory;
+import org.bingoscape.services.metrics.ApiEndpoint;
+import org.bingoscape.services.metrics.ApiMetrics;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.io.IOException;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
 @Slf4j
 @Singleton
 public class BingoScapeApiService {
-    private static final MediaType MEDIA_TYPE_PNG = MediaType.parse("image/png");
     private static final MediaType MEDIA_TYPE_JSON = MediaType.parse("application/json");
+    private static final int HTTP_NOT_MODIFIED = 304;
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final String HEADER_IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final long REFRESH_DEBOUNCE_MS = 250;
+    private static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final long DEFAULT_RETRY_AFTER_MS = 5000;
 
     private final OkHttpClient httpClient;
     private final Gson gson;
     private final BingoScapeConfig config;
+    private final ScheduledExecutorService scheduler;
+    private final RequestScheduler requestScheduler;
+
+    // In-flight board refreshes per bingo (guarded by the map itself)
+    private final Map<UUID, BoardRefresh> boardRefreshes = new HashMap<>();
+
+    // Last validators seen per bingo, used to revalidate board refreshes
+    private final Map<UUID, BoardValidator> boardValidators = new ConcurrentHashMap<>();
+
+    // Board refresh response counters (full payload vs. 304 Not Modified)
+    private final AtomicLong boardFullResponses = new AtomicLong();
+    private final AtomicLong boardNotModifiedResponses = new AtomicLong();
+    private final AtomicLong coalescedBoardRefreshes = new AtomicLong();
 
     @Inject
-    public BingoScapeApiService(OkHttpClient httpClient, Gson gson, BingoScapeConfig config) {
-        this.httpClient = httpClient;
-        this.gson = gson;
+    public BingoScapeApiService(OkHttpClient httpClient, Gson gson, BingoScapeConfig config,
+                                ScheduledExecutorService scheduler, ApiMetrics apiMetrics,
+                                RequestScheduler requestScheduler) {
+        // Derived client shares the connection pool; the listener only times tagged API calls
+        this.httpClient = httpClient.newBuilder()
+                .eventListenerFactory(apiMetrics.listenerFactory())
+                .build();
+        this.gson = gson.newBuilder()
+                .registerTypeAdapterFactory(new BingoTypeAdapterFactory())
+                .create();
         this.config = config;
+        this.scheduler = scheduler;
+        this.requestScheduler = requestScheduler;
     }
 
+    /**
+     * Sends a call once the request scheduler grants a permit for its host. Shed requests
+     * fail through the callback like network errors, and 429 responses pause the host.
+     */
+    private void dispatch(RequestPriority priority, Call call, Callback callback) {
+        String host = call.request().url().host();
+        requestScheduler.acquire(host, priority).whenComplete((permit, error) -> {
+            if (error != null) {
+                callback.onFailure(call, new IOException("Request not sent: " + error.getMessage(), error));
+                return;
+            }
+
+            call.enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    callback.onFailure(call, e);
+                }
+
+                @Override
+                public void onResponse(Call call, Response response) throws IOException {
+                    if (response.code() == HTTP_TOO_MANY_REQUESTS) {
+                        requestScheduler.onRateLimited(host, parseRetryAfter(response));
+                    }
+                    callback.onResponse(call, response);
+                }
+            });
+        });
+    }
+
+    /**
+     * Reads a Retry-After header given in seconds, defaulting to a few seconds.
+     */
+    private static long parseRetryAfter(Response response) {
+        String retryAfter = response.header("Retry-After");
+        if (retryAfter != null) {
+            try {
+                return TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim()));
+            } catch (NumberFormatException e) {
+                log.debug("Unsupported Retry-After value: {}", retryAfter);
+            }
+        }
+        return DEFAULT_RETRY_AFTER_MS;
+    }
+
+    /**
+     * Fetches the full bingo board unconditionally.
+     */
     public void refreshBingoBoard(UUID bingoId, Consumer<Bingo> onSuccess, Consumer<String> onError) {
+        requestBingoBoard(bingoId, false, onSuccess, () -> {}, onError);
+    }
+
+    /**
+     * Revalidates the bingo board against the last ETag/Last-Modified seen for it.
+     * If the server answers 304 Not Modified the body is not parsed and
+     * {@code onNotModified} is called instead of {@code onSuccess}.
+     */
+    public void refreshBingoBoardIfModified(UUID bingoId, Consumer<Bingo> onSuccess, Runnable onNotModified,
+                                            Consumer<String> onError) {
+        requestBingoBoard(bingoId, true, onSuccess, onNotModified, onError);
+    }
+
+    /**
+     * Fetches the full bingo board unconditionally.
+     * The future fails with a {@link TimeoutException} if no response arrives within the
+     * default deadline. Cancelling it detaches the caller, and the HTTP call is cancelled
+     * once no other caller is waiting on it.
+     */
+    public CompletableFuture<Bingo> refreshBingoBoard(UUID bingoId) {
+        return refreshBingoBoard(bingoId, DEFAULT_REQUEST_TIMEOUT);
+    }
+
+    public CompletableFuture<Bingo> refreshBingoBoard(UUID bingoId, Duration timeout) {
+        CompletableFuture<Bingo> future = new CompletableFuture<>();
+        BoardRefreshWaiter waiter = requestBingoBoard(bingoId, false, future::complete, () -> {},
+                error -> future.completeExceptionally(new IOException(error)));
+        if (waiter != null) {
+            withDeadline(future, timeout, () -> abandonBoardRefresh(bingoId, waiter));
+        }
+        return future;
+    }
+
+    /**
+     * Revalidates the bingo board. The future completes with an empty optional if the
+     * server answered 304 Not Modified. Deadline and cancellation behave as in
+     * {@link #refreshBingoBoard(UUID, Duration)}.
+     */
+    public CompletableFuture<Optional<Bingo>> refreshBingoBoardIfModified(UUID bingoId, Duration timeout) {
+        CompletableFuture<Optional<Bingo>> future = new CompletableFuture<>();
+        BoardRefreshWaiter waiter = requestBingoBoard(bingoId, true,
+                bingo -> future.complete(Optional.ofNullable(bingo)),
+                () -> future.complete(Optional.empty()),
+                error -> future.completeExceptionally(new IOException(error)));
+        if (waiter != null) {
+            withDeadline(future, timeout, () -> abandonBoardRefresh(bingoId, waiter));
+        }
+        return future;
+    }
+
+    /**
+     * Applies a deadline to a future and runs {@code onAbandoned} if it times out or is
+     * cancelled before the response arrived.
+     */
+    private static <T> void withDeadline(CompletableFuture<T> future, Duration timeout, Runnable onAbandoned) {
+        future.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((result, error) -> {
+                    if (error instanceof CancellationException || error instanceof TimeoutException) {
+                        onAbandoned.run();
+                    }
+                });
+    }
+
+    /**
+     * Single-flight entry point for board refreshes. The first caller for a bingo starts
+     * the request and callers that arrive while it is in flight share its response.
+     * A caller only waits for a trailing follow-up fetch when it cannot use the in-flight
+     * request: that request is conditional and may answer 304 without the board this
+     * caller needs, or its response is already being delivered. The follow-up runs after
+     * a short debounce and delivers the same parsed {@link Bingo} to all of its callers.
+     *
+     * @return The registered waiter, or null if the request was rejected immediately
+     */
+    private BoardRefreshWaiter requestBingoBoard(UUID bingoId, boolean conditional, Consumer<Bingo> onSuccess,
+                                                 Runnable onNotModified, Consumer<String> onError) {
         if (!hasApiKey()) {
             onError.accept("No API key configured");
-            return;
+            return null;
         }
 
+        BoardRefreshWaiter waiter = new BoardRefreshWaiter(conditional, onSuccess, onNotModified, onError);
+        BoardRefresh newRefresh = new BoardRefresh();
+        synchronized (boardRefreshes) {
+            BoardRefresh refresh = boardRefreshes.get(bingoId);
+            if (refresh != null) {
+                boolean cancelled = refresh.call != null && refresh.call.isCanceled();
+                if (!refresh.answered && !cancelled && (conditional || !refresh.conditional)) {
+                    refresh.current.add(waiter);
+                    coalescedBoardRefreshes.incrementAndGet();
+                    log.debug("Bingo {} refresh already in flight, sharing it ({} waiting)",
+                            bingoId, refresh.current.size());
+                    return waiter;
+                }
+                if (refresh.followUp == null) {
+                    refresh.followUp = new ArrayList<>();
+                }
+                refresh.followUp.add(waiter);
+                coalescedBoardRefreshes.incrementAndGet();
+                log.debug("Bingo {} refresh already in flight, joining follow-up ({} waiting)",
+                        bingoId, refresh.followUp.size());
+                return waiter;
+            }
+            newRefresh.current = new ArrayList<>(Collections.singletonList(waiter));
+            newRefresh.conditional = conditional;
+            boardRefreshes.put(bingoId, newRefresh);
+        }
+
+        executeBoardRefresh(bingoId, newRefresh, newRefresh.current);
+        return waiter;
+    }
+
+    /**
+     * Detaches a future-based caller that timed out or was cancelled. The in-flight call
+     * is cancelled once every caller it serves has been detached.
+     */
+    private void abandonBoardRefresh(UUID bingoId, BoardRefreshWaiter waiter) {
+        synchronized (boardRefreshes) {
+            waiter.abandoned = true;
+            BoardRefresh refresh = boardRefreshes.get(bingoId);
+            if (refresh == null) {
+                return;
+            }
+
+            if (refresh.followUp != null && refresh.followUp.remove(waiter) && refresh.followUp.isEmpty()) {
+                refresh.followUp = null;
+            }
+
+            if (refresh.call != null && refresh.current.contains(waiter)
+                    && refresh.current.stream().allMatch(w -> w.abandoned)) {
+                log.debug("All callers for bingo {} refresh gave up, cancelling request", bingoId);
+                refresh.call.cancel();
+            }
+        }
+    }
+
+    private void executeBoardRefresh(UUID bingoId, BoardRefresh refresh, List<BoardRefreshWaiter> initial) {
+        // Only revalidate if every waiter can handle a 304 without a body
+        boolean conditional = initial.stream().allMatch(w -> w.conditional);
+
         String apiUrl = config.apiBaseUrl() + "/api/runelite/bingos/" + bingoId;
-        Request request = new Request.Builder()
+        Request.Builder requestBuilder = new Request.Builder()
                 .url(apiUrl)
-                .header("Authorization", "Bearer " + config.apiKey())
-                .build();
+                .tag(ApiEndpoint.class, ApiEndpoint.BINGO)
+                .header("Authorization", "Bearer " + config.apiKey());
 
-        httpClient.newCall(request).enqueue(new Callback() {
+        BoardValidator validator = conditional ? boardValidators.get(bingoId) : null;
+        if (validator != null) {
+            if (validator.etag != null) {
+                requestBuilder.header("If-None-Match", validator.etag);
+            }
+            if (validator.lastModified != null) {
+                requestBuilder.header("If-Modified-Since", validator.lastModified);
+            }
+        }
+
+        Call boardCall = httpClient.newCall(requestBuilder.build());
+        synchronized (boardRefreshes) {
+            refresh.call = boardCall;
+            refresh.current = initial;
+            refresh.conditional = conditional;
+            refresh.answered = false;
+            // Callers may have given up between being scheduled and the call existing
+            if (initial.stream().allMatch(w -> w.abandoned)) {
+                boardCall.cancel();
+            }
+        }
+
+        dispatch(RequestPriority.BOARD_REFRESH, boardCall, new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
-                log.error("Failed to refresh bingo board", e);
-                onError.accept("Failed to refresh bingo board: " + e.getMessage());
+                List<BoardRefreshWaiter> waiters = answer(refresh);
+                try {
+                    if (call.isCanceled()) {
+                        log.debug("Bingo {} refresh cancelled", bingoId);
+                    } else {
+                        log.error("Failed to refresh bingo board", e);
+                    }
+                    String error = "Failed to refresh bingo board: " + e.getMessage();
+                    waiters.forEach(w -> w.error(error));
+                } finally {
+                    completeBoardRefresh(bingoId);
+                }
             }
 
             @Override
             public void onResponse(Call call, Response response) throws IOException {
+                List<BoardRefreshWaiter> waiters = answer(refresh);
                 try (ResponseBody responseBody = response.body()) {
+                    if (response.code() == HTTP_NOT_MODIFIED) {
+                        boardNotModifiedResponses.incrementAndGet();
+                        log.debug("Bingo {} not modified. {}", bingoId, getBoardRefreshStats());
+                        waiters.forEach(BoardRefreshWaiter::notModified);
+                        return;
+                    }
+
                     if (!response.isSuccessful() || responseBody == null) {
                         String error = "Unsuccessful response when refreshing bingo: " + response;
                         log.error(error);
-                        onError.accept(error);
+                        waiters.forEach(w -> w.error(error));
                         return;
                     }
 
-                    String jsonData = responseBody.string();
-                    Bingo updatedBingo = gson.fromJson(jsonData, Bingo.class);
-                    onSuccess.accept(updatedBingo);
+                    Bingo updatedBingo;
+                    try (JsonReader reader = new JsonReader(responseBody.charStream())) {
+                        updatedBingo = gson.fromJson(reader, Bingo.class);
+                    } catch (IOException | RuntimeException e) {
+                        // JsonParseException and friends from a truncated or non-JSON body
+                        log.error("Failed to parse bingo {} board", bingoId, e);
+                        String error = "Failed to read bingo board: " + e.getMessage();
+                        waiters.forEach(w -> w.error(error));
+                        return;
+                    }
+                    boardFullResponses.incrementAndGet();
+                    rememberValidator(bingoId, response, updatedBingo);
+                    waiters.forEach(w -> w.success(updatedBingo));
+                } finally {
+                    completeBoardRefresh(bingoId);
                 }
             }
         });
     }
 
+    /**
+     * Stops callers from joining a request whose response is being delivered and
+     * returns the callers it answers.
+     */
+    private List<BoardRefreshWaiter> answer(BoardRefresh refresh) {
+        synchronized (boardRefreshes) {
+            refresh.answered = true;
+            return new ArrayList<>(refresh.current);
+        }
+    }
+
+    /**
+     * Finishes the in-flight refresh for a bingo. If more refreshes were requested in the
+     * meantime, a single follow-up fetch is scheduled for all of them; callers arriving
+     * during the debounce window still join that same follow-up.
+     */
+    private void completeBoardRefresh(UUID bingoId) {
+        BoardRefresh refresh;
+        synchronized (boardRefreshes) {
+            refresh = boardRefreshes.get(bingoId);
+            if (refresh == null) {
+                return;
+            }
+            if (refresh.followUp == null) {
+                boardRefreshes.remove(bingoId);
+                return;
+            }
+        }
+
+        scheduler.schedule(() -> {
+            List<BoardRefreshWaiter> followUp;
+            synchronized (boardRefreshes) {
+                followUp = refresh.followUp;
+                refresh.followUp = null;
+                if (followUp == null) {
+                    // Every follow-up caller gave up during the debounce
+                    boardRefreshes.remove(bingoId);
+                    return;
+                }
+            }
+            executeBoardRefresh(bingoId, refresh, followUp);
+        }, REFRESH_DEBOUNCE_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stores the validators from a full board response. Falls back to the bingo's
+     * updatedAt when the server does not send a Last-Modified header.
+     */
+    private void rememberValidator(UUID bingoId, Response response, Bingo bingo) {
+        String etag = response.header("ETag");
+        String lastModified = response.header("Last-Modified");
+        if (lastModified == null && bingo != null && bingo.getUpdatedAt() != null) {
+            lastModified = DateTimeFormatter.RFC_1123_DATE_TIME
+                    .format(bingo.getUpdatedAt().toInstant().atOffset(ZoneOffset.UTC));
+        }
+
+        if (etag == null && lastModified == null) {
+            boardValidators.remove(bingoId);
+        } else {
+            boardValidators.put(bingoId, new BoardValidator(etag, lastModified));
+        }
+    }
+
     public void submitTileCompletion(UUID tileId, byte[] screenshotBytes, Consumer<Bingo> onSuccess, Consumer<String> onError) {
+        submitTileCompletion(tileId, screenshotBytes, null, onSuccess, (error, retryable) -> onError.accept(error));
+    }
+
+    /**
+     * Submits a tile completion, reporting whether a failure is worth retrying.
+     *
+     * @param submissionId Sent as the Idempotency-Key header so a retried upload the server
+     *                     already accepted is not counted twice; null to send none
+     */
+    public void submitTileCompletion(UUID tileId, byte[] screenshotBytes, UUID submissionId,
+                                     Consumer<Bingo> onSuccess, SubmissionErrorCallback onError) {
         if (!hasApiKey()) {
-            onError.accept("No API key configured");
+            onError.onError("No API key configured", true);
             return;
         }
 
         String apiUrl = config.apiBaseUrl() + "/api/runelite/tiles/" + tileId + "/submissions";
+        EvidenceFormat format = EvidenceFormat.detect(screenshotBytes);
         RequestBody requestBody = new MultipartBody.Builder()
                 .setType(MultipartBody.FORM)
-                .addFormDataPart("image", "screenshot.png", RequestBody.create(MEDIA_TYPE_PNG, screenshotBytes))
+                .addFormDataPart("image", "screenshot." + format.getExtension(),
+                        RequestBody.create(MediaType.parse(format.getMediaType()), screenshotBytes))
                 .build();
 
-        Request request = new Request.Builder()
-                .url(apiUrl)
-                .header("Authorization", "Bearer " + config.apiKey())
+        Request request = submissionRequest(apiUrl, ApiEndpoint.SUBMISSIONS, submissionId)
                 .post(requestBody)
                 .build();
 
-        httpClient.newCall(request).enqueue(new Callback() {
-            @Override
-            public void onFailure(Call call, IOException e) {
-                log.error("Failed to submit tile completion", e);
-                onError.accept("Failed to submit tile completion: " + e.getMessage());
-            }
-
-            @Override
-            public void onResponse(Call call, Response response) throws IOException {
-                try (ResponseBody responseBody = response.body()) {
-                    String stringBody = responseBody.string();
-                    if (!response.isSuccessful()) {
-                        ErrorResponse errorResponse = gson.fromJson(stringBody, ErrorResponse.class);
-                        String error = errorResponse.getError();
-                        log.error("Unsuccessful submission response: {}", error);
-                        onError.accept(error);
-                        return;
-                    }
-
-                    Bingo updatedBingo = gson.fromJson(stringBody, Bingo.class);
-                    onSuccess.accept(updatedBingo);
-                }
-            }
-        });
+        enqueueSubmission(request, "tile completion", onSuccess, onError);
     }
 
     /**
@@ -119,8 +451,19 @@ public class BingoScapeApiService {
      */
     public void submitTileAutomatic(UUID tileId, byte[] screenshotBytes, AutoSubmissionMetadata metadata,
                                      Consumer<Bingo> onSuccess, Consumer<String> onError) {
+        submitTileAutomatic(tileId, screenshotBytes, metadata, null, onSuccess,
+                (error, retryable) -> onError.accept(error));
+    }
+
+    /**
+     * Submits a tile completion automatically, reporting whether a failure is worth retrying.
+     *
+     * @param submissionId Sent as the Idempotency-Key header, as for {@link #submitTileCompletion}
+     */
+    public void submitTileAutomatic(UUID tileId, byte[] screenshotBytes, AutoSubmissionMetadata metadata,
+                                     UUID submissionId, Consumer<Bingo> onSuccess, SubmissionErrorCallback onError) {
         if (!hasApiKey()) {
-            onError.accept("No API key configured");
+            onError.onError("No API key configured", true);
             return;
         }
 
@@ -129,60 +472,126 @@ public class BingoScapeApiService {
         // Convert metadata to JSON
         String metadataJson = gson.toJson(metadata);
 
+        EvidenceFormat format = EvidenceFormat.detect(screenshotBytes);
         RequestBody requestBody = new MultipartBody.Builder()
                 .setType(MultipartBody.FORM)
-                .addFormDataPart("image", "screenshot.png", RequestBody.create(MEDIA_TYPE_PNG, screenshotBytes))
+                .addFormDataPart("image", "screenshot." + format.getExtension(),
+                        RequestBody.create(MediaType.parse(format.getMediaType()), screenshotBytes))
                 .addFormDataPart("metadata", metadataJson)
                 .build();
 
-        Request request = new Request.Builder()
-                .url(apiUrl)
-                .header("Authorization", "Bearer " + config.apiKey())
+        Request request = submissionRequest(apiUrl, ApiEndpoint.AUTO_SUBMISSIONS, submissionId)
                 .post(requestBody)
                 .build();
 
-        httpClient.newCall(request).enqueue(new Callback() {
+        enqueueSubmission(request, "automatic tile completion", onSuccess, onError);
+    }
+
+    private Request.Builder submissionRequest(String url, ApiEndpoint endpoint, UUID submissionId) {
+        Request.Builder builder = new Request.Builder()
+                .url(url)
+                .tag(ApiEndpoint.class, endpoint)
+                .header("Authorization", "Bearer " + config.apiKey());
+        if (submissionId != null) {
+            builder.header(HEADER_IDEMPOTENCY_KEY, submissionId.toString());
+        }
+        return builder;
+    }
+
+    /**
+     * Sends a submission request. Network errors, 5xx and 429 responses are reported
+     * as retryable; any other unsuccessful response is a rejection. A successful response
+     * whose board can't be parsed still counts as accepted, with a null board.
+     */
+    private void enqueueSubmission(Request request, String description, Consumer<Bingo> onSuccess,
+                                   SubmissionErrorCallback onError) {
+        dispatch(RequestPriority.SUBMISSION, httpClient.newCall(request), new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
-                log.error("Failed to submit automatic tile completion", e);
-                onError.accept("Failed to submit automatic tile completion: " + e.getMessage());
+                log.error("Failed to submit {}", description, e);
+                onError.onError("Failed to submit " + description + ": " + e.getMessage(), true);
             }
 
             @Override
             public void onResponse(Call call, Response response) throws IOException {
                 try (ResponseBody responseBody = response.body()) {
-                    String stringBody = responseBody.string();
+                    String stringBody = responseBody != null ? responseBody.string() : "";
                     if (!response.isSuccessful()) {
-                        ErrorResponse errorResponse = gson.fromJson(stringBody, ErrorResponse.class);
-                        String error = errorResponse.getError();
-                        log.error("Unsuccessful auto-submission response: {}", error);
-                        onError.accept(error);
+                        String error = parseError(stringBody, response.code());
+                        boolean retryable = response.code() >= 500 || response.code() == HTTP_TOO_MANY_REQUESTS;
+                        log.error("Unsuccessful {} response ({}): {}", description, response.code(), error);
+                        onError.onError(error, retryable);
                         return;
                     }
 
-                    Bingo updatedBingo = gson.fromJson(stringBody, Bingo.class);
-                    log.info("Auto-submission successful for tile {}", tileId);
+                    // The server has the submission; failing here would make the outbox send it again
+                    Bingo updatedBingo = null;
+                    try {
+                        updatedBingo = gson.fromJson(stringBody, Bingo.class);
+                    } catch (RuntimeException e) {
+                        log.error("Failed to parse {} response, submission was accepted", description, e);
+                    }
                     onSuccess.accept(updatedBingo);
                 }
             }
         });
     }
 
+    /**
+     * Extracts the error message from an error body. Gateways in front of the API can
+     * answer with HTML, so fall back to the status code if the body isn't an ErrorResponse.
+     */
+    private String parseError(String body, int statusCode) {
+        try {
+            ErrorResponse errorResponse = gson.fromJson(body, ErrorResponse.class);
+            if (errorResponse != null && errorResponse.getError() != null) {
+                return errorResponse.getError();
+            }
+        } catch (JsonParseException e) {
+            log.debug("Error response was not JSON", e);
+        }
+        return "HTTP " + statusCode;
+    }
+
     public void fetchEvents(Consumer<List<EventData>> onSuccess, Consumer<String> onError) {
+        startFetchEvents(onSuccess, onError);
+    }
+
+    /**
+     * Fetches the active events. The future fails with a {@link TimeoutException} after
+     * the deadline, and cancelling it cancels the HTTP call.
+     */
+    public CompletableFuture<List<EventData>> fetchEvents(Duration timeout) {
+        CompletableFuture<List<EventData>> future = new CompletableFuture<>();
+        Call call = startFetchEvents(future::complete, error -> future.completeExceptionally(new IOException(error)));
+        if (call != null) {
+            withDeadline(future, timeout, call::cancel);
+        }
+        return future;
+    }
+
+    private Call startFetchEvents(Consumer<List<EventData>> onSuccess, Consumer<String> onError) {
         if (!hasApiKey()) {
             onError.accept("No API key configured");
-            return;
+            return null;
         }
 
         String apiUrl = config.apiBaseUrl() + "/api/runelite/events";
         Request request = new Request.Builder()
                 .url(apiUrl)
+                .tag(ApiEndpoint.class, ApiEndpoint.EVENTS)
                 .header("Authorization", "Bearer " + config.apiKey())
                 .build();
 
-        httpClient.newCall(request).enqueue(new Callback() {
+        Call eventsCall = httpClient.newCall(request);
+        dispatch(RequestPriority.EVENTS, eventsCall, new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
+                if (call.isCanceled()) {
+                    log.debug("Fetching events cancelled");
+                    onError.accept("Fetching events cancelled");
+                    return;
+                }
                 log.error("Failed to fetch events", e);
                 onError.accept("Failed to fetch events: " + e.getMessage());
             }
@@ -197,15 +606,129 @@ public class BingoScapeApiService {
                         return;
                     }
 
-                    String jsonData = responseBody.string();
-                    EventData[] events = gson.fromJson(jsonData, EventData[].class);
+                    EventData[] events;
+                    try (JsonReader reader = new JsonReader(responseBody.charStream())) {
+                        events = gson.fromJson(reader, EventData[].class);
+                    } catch (IOException | JsonParseException e) {
+                        // Also covers JsonSyntaxException and JsonIOException from a truncated body
+                        log.error("Failed to parse events", e);
+                        onError.accept("Failed to read events: " + e.getMessage());
+                        return;
+                    }
+                    if (events == null) {
+                        // An empty body parses to null rather than failing
+                        String error = "Empty response when fetching events";
+                        log.error(error);
+                        onError.accept(error);
+                        return;
+                    }
+
+                    // The plugin replaces its board copies with the ones from the event list,
+                    // so earlier validators no longer describe what the client holds
+                    boardValidators.clear();
                     onSuccess.accept(Arrays.asList(events));
                 }
             }
         });
+        return eventsCall;
     }
 
     private boolean hasApiKey() {
         return config.apiKey() != null && !config.apiKey().isEmpty();
     }
-} 
\ No newline at end of file
+
+    /**
+     * Number of board refreshes that returned a full payload.
+     */
+    public long getBoardFullResponses() {
+        return boardFullResponses.get();
+    }
+
+    /**
+     * Number of board refreshes answered with 304 Not Modified.
+     */
+    public long getBoardNotModifiedResponses() {
+        return boardNotModifiedResponses.get();
+    }
+
+    /**
+     * Number of board refresh calls that were folded into another request.
+     */
+    public long getCoalescedBoardRefreshes() {
+        return coalescedBoardRefreshes.get();
+    }
+
+    /**
+     * Gets board refresh statistics for debugging.
+     */
+    public String getBoardRefreshStats() {
+        return String.format("Board refreshes: %d full, %d not modified, %d coalesced",
+                boardFullResponses.get(), boardNotModifiedResponses.get(), coalescedBoardRefreshes.get());
+    }
+
+    private static final class BoardValidator {
+        private final String etag;
+        private final String lastModified;
+
+        private BoardValidator(String etag, String lastModified) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+    }
+
+    private static final class BoardRefresh {
+        // Request currently on the wire and the callers it will answer
+        private Call call;
+        private List<BoardRefreshWaiter> current;
+        private boolean conditional;
+        // Set once the response arrived; later callers wait for the follow-up
+        private boolean answered;
+
+        // Callers waiting for the trailing follow-up fetch, null if none were requested
+        private List<BoardRefreshWaiter> followUp;
+    }
+
+    private static final class BoardRefreshWaiter {
+        private final boolean conditional;
+        private final Consumer<Bingo> onSuccess;
+        private final Runnable onNotModified;
+        private final Consumer<String> onError;
+
+        // Set when a future-based caller timed out or was cancelled (guarded by boardRefreshes)
+        private boolean abandoned;
+
+        private BoardRefreshWaiter(boolean conditional, Consumer<Bingo> onSuccess, Runnable onNotModified,
+                                   Consumer<String> onError) {
+            this.conditional = conditional;
+            this.onSuccess = onSuccess;
+            this.onNotModified = onNotModified;
+            this.onError = onError;
+        }
+
+        // Each callback is isolated so one failing caller can't starve the others
+
+        private void success(Bingo bingo) {
+            try {
+                onSuccess.accept(bingo);
+            } catch (RuntimeException e) {
+                log.error("Board refresh callback failed", e);
+            }
+        }
+
+        private void notModified() {
+            try {
+                onNotModified.run();
+            } catch (RuntimeException e) {
+                log.error("Board refresh callback failed", e);
+            }
+        }
+
+        private void error(String error) {
+            try {
+                onError.accept(error);
+            } catch (RuntimeException e) {
+                log.error("Board refresh callback failed", e);
+            }
+        }
+    }
+}
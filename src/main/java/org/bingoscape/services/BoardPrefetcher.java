@@ -0,0 +1,256 @@
+package org.bingoscape.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bingoscape.models.Bingo;
+import org.bingoscape.models.EventData;
+import org.bingoscape.models.Tile;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Prefetches every bingo of the selected event so switching boards is served from a
+ * warm cache.
+ * <p>
+ * At most {@value #MAX_CONCURRENT_FETCHES} boards are fetched at once. Fetched boards
+ * are handed to the plugin and their header images are warmed in the background; the
+ * image downloads run at the scheduler's lowest priority and stay within the image
+ * cache's budget, so they never hold up board fetches. Entries older than the stale threshold are
+ * revalidated the next time they are needed, and at most {@value #MAX_CACHED_BOARDS}
+ * boards are kept, least recently used first out.
+ */
+@Slf4j
+@Singleton
+public class BoardPrefetcher {
+    private static final int MAX_CONCURRENT_FETCHES = 3;
+    private static final int MAX_CACHED_BOARDS = 16;
+    private static final long STALE_AFTER_MS = TimeUnit.SECONDS.toMillis(60);
+    private static final Duration FETCH_TIMEOUT = Duration.ofSeconds(20);
+
+    private final BingoScapeApiService apiService;
+    private final HeaderImageCache headerImageCache;
+
+    // Access-ordered so the least recently used board is evicted first (guarded by this)
+    private final Map<UUID, CachedBoard> boards = new LinkedHashMap<UUID, CachedBoard>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, CachedBoard> eldest) {
+            return size() > MAX_CACHED_BOARDS;
+        }
+    };
+
+    // Bingos waiting for a fetch slot and bingos currently being fetched (guarded by this)
+    private final Deque<UUID> pending = new ArrayDeque<>();
+    private final Set<UUID> inFlight = new HashSet<>();
+
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+    private final AtomicLong boardsFetched = new AtomicLong();
+
+    private volatile Consumer<Bingo> onBoardFetched;
+    private volatile UUID selectedBingoId;
+
+    @Inject
+    public BoardPrefetcher(BingoScapeApiService apiService, HeaderImageCache headerImageCache) {
+        this.apiService = apiService;
+        this.headerImageCache = headerImageCache;
+    }
+
+    /**
+     * @param onBoardFetched Called with every board fetched or revalidated with changes
+     */
+    public void startUp(Consumer<Bingo> onBoardFetched) {
+        this.onBoardFetched = onBoardFetched;
+    }
+
+    public void shutDown() {
+        onBoardFetched = null;
+        selectedBingoId = null;
+        synchronized (this) {
+            pending.clear();
+            boards.clear();
+        }
+    }
+
+    /**
+     * Records the selected board and warms its header images.
+     */
+    public void select(Bingo bingo) {
+        selectedBingoId = bingo != null ? bingo.getId() : null;
+        if (bingo != null) {
+            warmHeaderImages(bingo);
+        }
+    }
+
+    /**
+     * Queues all stale or missing bingos of an event for fetching, replacing whatever was
+     * still queued for a previously selected event.
+     */
+    public void prefetchEvent(EventData event) {
+        if (event.getBingos() == null) {
+            return;
+        }
+
+        synchronized (this) {
+            pending.clear();
+            for (Bingo bingo : event.getBingos()) {
+                UUID bingoId = bingo.getId();
+                if (isStale(bingoId) && !inFlight.contains(bingoId)) {
+                    pending.add(bingoId);
+                }
+            }
+        }
+
+        startFetches();
+    }
+
+    /**
+     * Starts queued fetches until the concurrency limit is reached.
+     */
+    private void startFetches() {
+        while (true) {
+            UUID bingoId;
+            synchronized (this) {
+                if (inFlight.size() >= MAX_CONCURRENT_FETCHES || pending.isEmpty()) {
+                    return;
+                }
+                bingoId = pending.poll();
+                inFlight.add(bingoId);
+            }
+
+            fetch(bingoId);
+        }
+    }
+
+    private void fetch(UUID bingoId) {
+        // Boards already cached only need revalidating
+        boolean cached;
+        synchronized (this) {
+            cached = boards.containsKey(bingoId);
+        }
+        apiService.refreshBingoBoardIfModified(bingoId, FETCH_TIMEOUT).whenComplete((result, error) -> {
+            synchronized (this) {
+                inFlight.remove(bingoId);
+            }
+
+            if (error != null) {
+                log.debug("Failed to prefetch bingo {}: {}", bingoId, error.getMessage());
+            } else if (result.isPresent()) {
+                Bingo bingo = result.get();
+                put(bingo);
+                boardsFetched.incrementAndGet();
+                if (!bingoId.equals(selectedBingoId)) {
+                    // put() already warmed the selected board
+                    warmHeaderImages(bingo);
+                }
+
+                Consumer<Bingo> callback = onBoardFetched;
+                if (callback != null) {
+                    callback.accept(bingo);
+                }
+            } else if (cached) {
+                markFresh(bingoId);
+                // Images of an unchanged board may have been evicted since it was cached
+                CachedBoard entry;
+                synchronized (this) {
+                    entry = boards.get(bingoId);
+                }
+                if (entry != null) {
+                    warmHeaderImages(entry.bingo);
+                }
+            }
+
+            startFetches();
+        });
+    }
+
+    private void warmHeaderImages(Bingo bingo) {
+        if (bingo.getTiles() == null) {
+            return;
+        }
+        for (Tile tile : bingo.getTiles()) {
+            headerImageCache.warm(tile.getHeaderImage());
+        }
+    }
+
+    /**
+     * Returns the cached board, or null if the bingo has not been fetched.
+     */
+    public synchronized Bingo getCached(UUID bingoId) {
+        CachedBoard entry = boards.get(bingoId);
+        if (entry == null) {
+            cacheMisses.incrementAndGet();
+            return null;
+        }
+        cacheHits.incrementAndGet();
+        return entry.bingo;
+    }
+
+    /**
+     * Whether the bingo is missing from the cache or was last confirmed too long ago.
+     */
+    public synchronized boolean isStale(UUID bingoId) {
+        CachedBoard entry = boards.get(bingoId);
+        return entry == null || System.currentTimeMillis() - entry.confirmedAt > STALE_AFTER_MS;
+    }
+
+    /**
+     * Stores a board that was fetched or updated elsewhere. A new version of the selected
+     * board may bring new header images, so those are warmed.
+     */
+    public void put(Bingo bingo) {
+        if (bingo == null) {
+            return;
+        }
+        synchronized (this) {
+            boards.put(bingo.getId(), new CachedBoard(bingo, System.currentTimeMillis()));
+        }
+        if (bingo.getId().equals(selectedBingoId)) {
+            warmHeaderImages(bingo);
+        }
+    }
+
+    /**
+     * Records that the server confirmed the cached board is still current.
+     */
+    public synchronized void markFresh(UUID bingoId) {
+        boards.computeIfPresent(bingoId, (id, entry) -> new CachedBoard(entry.bingo, System.currentTimeMillis()));
+    }
+
+    /**
+     * Gets prefetch statistics for debugging.
+     */
+    public String getStats() {
+        int cached;
+        int queued;
+        int fetching;
+        synchronized (this) {
+            cached = boards.size();
+            queued = pending.size();
+            fetching = inFlight.size();
+        }
+        return String.format("Prefetch: %d cached, %d fetched, %d hits, %d misses, %d queued, %d in flight. %s",
+                cached, boardsFetched.get(), cacheHits.get(), cacheMisses.get(), queued, fetching,
+                headerImageCache.getStats());
+    }
+
+    private static final class CachedBoard {
+        private final Bingo bingo;
+        private final long confirmedAt;
+
+        private CachedBoard(Bingo bingo, long confirmedAt) {
+            this.bingo = bingo;
+            this.confirmedAt = confirmedAt;
+        }
+    }
+}
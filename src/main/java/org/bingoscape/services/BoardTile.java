@@ -0,0 +1,39 @@
+package org.bingoscape.services;
+
+import lombok.Value;
+import org.bingoscape.models.GoalTreeNode;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A tile on a specific bingo board that a drop or game event matched, with what
+ * it is predicted to do to the tile.
+ */
+@Value
+public class BoardTile {
+    UUID bingoId;
+    UUID tileId;
+    TileOutcome outcome;
+    List<GoalTreeNode> goals; // The tile's goal nodes the drop or event counts toward
+
+    /**
+     * Whether every matched goal counts several drops or kills, so they are
+     * accumulated locally rather than submitted one by one. XP and level goals
+     * have a threshold, not a count, and never are.
+     */
+    public boolean isCountBased() {
+        if (goals.isEmpty()) {
+            return false;
+        }
+        for (GoalTreeNode goal : goals) {
+            if (goal.getTargetValue() == null || goal.getTargetValue() <= 1) {
+                return false;
+            }
+            if (!goal.isItemGoal() && EventTrigger.of(goal.getEventGoal()) != EventTrigger.KILL_COUNT) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
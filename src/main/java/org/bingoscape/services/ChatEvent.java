@@ -0,0 +1,87 @@
+package org.bingoscape.services;
+
+import lombok.Value;
+import net.runelite.client.util.Text;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A game message that can complete an event goal: a kill count, a new collection
+ * log slot or a pet drop.
+ * <p>
+ * Messages are screened on their raw text with a first-character switch and a fixed
+ * prefix per enabled trigger, so a chat line that isn't one of these costs a couple of
+ * character comparisons. Only a line whose prefix matches has its tags stripped and
+ * goes through a regular expression.
+ */
+@Value
+public class ChatEvent {
+    private static final String KILL_COUNT_PREFIX = "Your ";
+    private static final String COLLECTION_LOG_PREFIX = "New item added to your collection log:";
+    private static final String[] PET_MESSAGES = {
+            "You have a funny feeling like you're being followed",
+            "You feel something weird sneaking into your backpack",
+            "You have a funny feeling like you would have been followed",
+    };
+
+    // "Your Zulrah kill count is: 12." and "Your completed Chambers of Xeric count is: 3."
+    private static final Pattern KILL_COUNT = Pattern.compile(
+            "Your (?:completed )?(.+?) (?:kill |success |completion )?count is: ([\\d,]+)");
+
+    EventTrigger trigger;
+    String name; // Lower-case boss or item name, null for pets
+    int count; // Reported kill count, 1 otherwise
+
+    /**
+     * Parses a game message.
+     *
+     * @param message     The raw message, tags included
+     * @param enabledMask Bits of the triggers any indexed goal uses
+     * @return The event, or null if the message is none of the enabled triggers
+     */
+    static ChatEvent parse(String message, int enabledMask) {
+        if (message == null || message.isEmpty()) {
+            return null;
+        }
+
+        switch (message.charAt(0)) {
+            case 'Y':
+                if ((enabledMask & EventTrigger.PET.bit()) != 0) {
+                    for (String petMessage : PET_MESSAGES) {
+                        if (message.startsWith(petMessage)) {
+                            return new ChatEvent(EventTrigger.PET, null, 1);
+                        }
+                    }
+                }
+                if ((enabledMask & EventTrigger.KILL_COUNT.bit()) != 0 && message.startsWith(KILL_COUNT_PREFIX)) {
+                    Matcher matcher = KILL_COUNT.matcher(Text.removeTags(message));
+                    if (matcher.find()) {
+                        int count = Integer.parseInt(matcher.group(2).replace(",", ""));
+                        return new ChatEvent(EventTrigger.KILL_COUNT, normalize(matcher.group(1)), count);
+                    }
+                }
+                return null;
+            case 'N':
+                if ((enabledMask & EventTrigger.COLLECTION_LOG.bit()) != 0
+                        && message.startsWith(COLLECTION_LOG_PREFIX)) {
+                    String item = Text.removeTags(message.substring(COLLECTION_LOG_PREFIX.length()));
+                    return new ChatEvent(EventTrigger.COLLECTION_LOG, normalize(item), 1);
+                }
+                return null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Normalizes a boss, item or pet name for lookups.
+     */
+    static String normalize(String name) {
+        String trimmed = name.trim();
+        if (trimmed.endsWith(".")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1);
+        }
+        return trimmed.toLowerCase();
+    }
+}
@@ -0,0 +1,234 @@
+package org.bingoscape.services;
+
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Skill;
+import org.bingoscape.models.EventGoal;
+import org.bingoscape.models.GoalTreeNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of a board's event goals, compiled together with its {@link MatcherSnapshot}.
+ * <p>
+ * XP and level thresholds are kept per skill in sorted arrays, so a stat change finds
+ * the thresholds it crossed with one binary search. Kill count and collection log goals
+ * are keyed by normalized name. {@link #getTriggerMask()} tells callers which triggers
+ * the board uses at all, so events nobody is waiting for are dropped before any lookup.
+ */
+@Slf4j
+final class EventGoalIndex {
+    private static final int SKILL_COUNT = Skill.values().length;
+    private static final EventHit[] NO_HITS = new EventHit[0];
+
+    static final EventGoalIndex EMPTY = build(Collections.emptyList());
+
+    private final int triggerMask;
+    private final int[][] xpThresholds;
+    private final EventHit[][] xpHits;
+    private final int[][] levelThresholds;
+    private final EventHit[][] levelHits;
+    private final Map<String, EventHit[]> killCounts;
+    private final Map<String, EventHit[]> collectionLog;
+    private final EventHit[] anyCollectionLog;
+    private final EventHit[] pets;
+
+    private EventGoalIndex(int triggerMask, int[][] xpThresholds, EventHit[][] xpHits, int[][] levelThresholds,
+                           EventHit[][] levelHits, Map<String, EventHit[]> killCounts,
+                           Map<String, EventHit[]> collectionLog, EventHit[] anyCollectionLog, EventHit[] pets) {
+        this.triggerMask = triggerMask;
+        this.xpThresholds = xpThresholds;
+        this.xpHits = xpHits;
+        this.levelThresholds = levelThresholds;
+        this.levelHits = levelHits;
+        this.killCounts = killCounts;
+        this.collectionLog = collectionLog;
+        this.anyCollectionLog = anyCollectionLog;
+        this.pets = pets;
+    }
+
+    /**
+     * Compiles the event goals of a board. Goals with an unknown trigger or skill, or
+     * without the threshold or name their trigger needs, are left out.
+     */
+    static EventGoalIndex build(List<EventHit> goals) {
+        List<List<EventHit>> xp = new ArrayList<>();
+        List<List<EventHit>> level = new ArrayList<>();
+        for (int i = 0; i < SKILL_COUNT; i++) {
+            xp.add(new ArrayList<>());
+            level.add(new ArrayList<>());
+        }
+        Map<String, List<EventHit>> killCounts = new HashMap<>();
+        Map<String, List<EventHit>> collectionLog = new HashMap<>();
+        List<EventHit> anyCollectionLog = new ArrayList<>();
+        List<EventHit> pets = new ArrayList<>();
+        int mask = 0;
+
+        for (EventHit hit : goals) {
+            EventGoal eventGoal = hit.goal.getEventGoal();
+            EventTrigger trigger = EventTrigger.of(eventGoal);
+            if (trigger == null) {
+                log.debug("Ignoring event goal {} with unknown trigger", hit.goal.getId());
+                continue;
+            }
+
+            String target = eventGoal.getTarget() != null ? ChatEvent.normalize(eventGoal.getTarget()) : "";
+            switch (trigger) {
+                case XP:
+                case LEVEL:
+                    Skill skill = parseSkill(eventGoal.getSkill());
+                    if (skill == null || hit.goal.getTargetValue() == null) {
+                        continue;
+                    }
+                    (trigger == EventTrigger.XP ? xp : level).get(skill.ordinal()).add(hit);
+                    break;
+                case KILL_COUNT:
+                    if (target.isEmpty()) {
+                        continue;
+                    }
+                    killCounts.computeIfAbsent(target, k -> new ArrayList<>()).add(hit);
+                    break;
+                case COLLECTION_LOG:
+                    if (target.isEmpty()) {
+                        anyCollectionLog.add(hit);
+                    } else {
+                        collectionLog.computeIfAbsent(target, k -> new ArrayList<>()).add(hit);
+                    }
+                    break;
+                case PET:
+                    // Pet messages don't name the pet, so every pet goal hears every pet
+                    pets.add(hit);
+                    break;
+            }
+            mask |= trigger.bit();
+        }
+
+        int[][] xpThresholds = new int[SKILL_COUNT][];
+        EventHit[][] xpHits = new EventHit[SKILL_COUNT][];
+        int[][] levelThresholds = new int[SKILL_COUNT][];
+        EventHit[][] levelHits = new EventHit[SKILL_COUNT][];
+        for (int i = 0; i < SKILL_COUNT; i++) {
+            xpHits[i] = sortByThreshold(xp.get(i));
+            xpThresholds[i] = thresholds(xpHits[i]);
+            levelHits[i] = sortByThreshold(level.get(i));
+            levelThresholds[i] = thresholds(levelHits[i]);
+        }
+
+        return new EventGoalIndex(mask, xpThresholds, xpHits, levelThresholds, levelHits, toArrays(killCounts),
+                toArrays(collectionLog), anyCollectionLog.toArray(NO_HITS), pets.toArray(NO_HITS));
+    }
+
+    private static Skill parseSkill(String name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return Skill.valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static EventHit[] sortByThreshold(List<EventHit> hits) {
+        hits.sort(Comparator.comparingInt(hit -> hit.goal.getTargetValue()));
+        return hits.toArray(NO_HITS);
+    }
+
+    private static int[] thresholds(EventHit[] hits) {
+        int[] thresholds = new int[hits.length];
+        for (int i = 0; i < hits.length; i++) {
+            thresholds[i] = hits[i].goal.getTargetValue();
+        }
+        return thresholds;
+    }
+
+    private static Map<String, EventHit[]> toArrays(Map<String, List<EventHit>> lists) {
+        Map<String, EventHit[]> arrays = new HashMap<>(lists.size() * 2);
+        lists.forEach((name, hits) -> arrays.put(name, hits.toArray(NO_HITS)));
+        return arrays;
+    }
+
+    /**
+     * Bits of the {@link EventTrigger}s this board has goals for.
+     */
+    int getTriggerMask() {
+        return triggerMask;
+    }
+
+    boolean isEmpty() {
+        return triggerMask == 0;
+    }
+
+    /**
+     * Adds the XP and level goals of a skill whose threshold lies above the old value
+     * and at or below the new one.
+     */
+    void collectCrossed(Skill skill, int oldXp, int newXp, int oldLevel, int newLevel, List<EventHit> result) {
+        int ordinal = skill.ordinal();
+        collectCrossed(xpThresholds[ordinal], xpHits[ordinal], oldXp, newXp, result);
+        collectCrossed(levelThresholds[ordinal], levelHits[ordinal], oldLevel, newLevel, result);
+    }
+
+    private static void collectCrossed(int[] thresholds, EventHit[] hits, int oldValue, int newValue,
+                                       List<EventHit> result) {
+        for (int i = firstAbove(thresholds, oldValue); i < thresholds.length && thresholds[i] <= newValue; i++) {
+            result.add(hits[i]);
+        }
+    }
+
+    /**
+     * Index of the first threshold greater than the value.
+     */
+    private static int firstAbove(int[] thresholds, int value) {
+        int low = 0;
+        int high = thresholds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (thresholds[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Adds the goals a parsed chat event counts toward.
+     */
+    void collectChat(ChatEvent event, List<EventHit> result) {
+        switch (event.getTrigger()) {
+            case KILL_COUNT:
+                Collections.addAll(result, killCounts.getOrDefault(event.getName(), NO_HITS));
+                break;
+            case COLLECTION_LOG:
+                Collections.addAll(result, collectionLog.getOrDefault(event.getName(), NO_HITS));
+                Collections.addAll(result, anyCollectionLog);
+                break;
+            case PET:
+                Collections.addAll(result, pets);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * An event goal node with the tile it belongs to.
+     */
+    static final class EventHit {
+        final int tileOrdinal;
+        final GoalTreeNode goal;
+        final int leaf; // Leaf number in the tile's GoalTreeEvaluator
+
+        EventHit(int tileOrdinal, GoalTreeNode goal, int leaf) {
+            this.tileOrdinal = tileOrdinal;
+            this.goal = goal;
+            this.leaf = leaf;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.bingoscape.services;
+
+import org.bingoscape.models.EventGoal;
+
+/**
+ * The in-game events an {@link EventGoal} can be completed by.
+ */
+public enum EventTrigger {
+    XP,
+    LEVEL,
+    KILL_COUNT,
+    COLLECTION_LOG,
+    PET;
+
+    /**
+     * Bit for this trigger in a mask of enabled triggers.
+     */
+    int bit() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Resolves the trigger of an event goal, or null if it is missing or unknown.
+     */
+    static EventTrigger of(EventGoal eventGoal) {
+        if (eventGoal == null || eventGoal.getTrigger() == null) {
+            return null;
+        }
+        switch (eventGoal.getTrigger().toLowerCase()) {
+            case "xp":
+                return XP;
+            case "level":
+                return LEVEL;
+            case "kill_count":
+            case "killcount":
+            case "kc":
+                return KILL_COUNT;
+            case "collection_log":
+                return COLLECTION_LOG;
+            case "pet":
+                return PET;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.bingoscape.services;
+
+import org.bingoscape.BingoScapeConfig;
+import org.bingoscape.EvidenceFormat;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes a submission screenshot in one of the {@link EvidenceFormat}s.
+ */
+interface EvidenceEncoder {
+    EvidenceFormat getFormat();
+
+    void write(BufferedImage image, OutputStream out) throws IOException;
+
+    /**
+     * Creates the encoder for the configured format and its quality setting.
+     */
+    static EvidenceEncoder fromConfig(BingoScapeConfig config) {
+        EvidenceFormat format = config.evidenceFormat();
+        switch (format) {
+            case JPEG:
+                return new ImageIoEvidenceEncoder(format, config.jpegQuality() / 100f);
+            case FAST_PNG:
+                // The PNG writer maps quality q to deflate level 9 - round(9q)
+                int level = Math.max(0, Math.min(9, config.fastPngLevel()));
+                return new ImageIoEvidenceEncoder(format, (9 - level) / 9f);
+            default:
+                return new ImageIoEvidenceEncoder(format, null);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.bingoscape.services;
+
+import net.runelite.api.Client;
+import net.runelite.api.Player;
+import net.runelite.api.widgets.ComponentID;
+import net.runelite.api.widgets.Widget;
+import org.bingoscape.EvidenceCrop;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.awt.Dimension;
+import java.awt.Polygon;
+import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
+
+/**
+ * Works out which part of the client a screenshot is cropped to. The result is a
+ * fraction of the game area, so it applies to frames of any size: stretched,
+ * downscaled or buffered.
+ */
+@Singleton
+public class EvidenceRegion {
+    // Margin around the player's tile kept for the loot on the ground
+    private static final int LOOT_MARGIN = 160;
+
+    private final Client client;
+
+    @Inject
+    public EvidenceRegion(Client client) {
+        this.client = client;
+    }
+
+    /**
+     * Resolves the crop to fractions of the game area. Must be called on the client
+     * thread, since it reads the viewport, widgets and player position.
+     *
+     * @return The crop, or null to keep the whole frame
+     */
+    public Rectangle2D resolve(EvidenceCrop crop) {
+        if (crop == EvidenceCrop.FULL) {
+            return null;
+        }
+
+        Dimension size = client.isStretchedEnabled()
+                ? client.getRealDimensions()
+                : new Dimension(client.getCanvasWidth(), client.getCanvasHeight());
+        if (size == null || size.width <= 0 || size.height <= 0) {
+            return null;
+        }
+
+        Rectangle bounds;
+        if (crop == EvidenceCrop.CHATBOX_AND_LOOT) {
+            bounds = chatboxAndLootBounds();
+        } else {
+            bounds = viewportBounds();
+        }
+        if (bounds == null) {
+            return null;
+        }
+
+        bounds = bounds.intersection(new Rectangle(size));
+        if (bounds.isEmpty()) {
+            return null;
+        }
+        return new Rectangle2D.Double(
+                bounds.x / (double) size.width,
+                bounds.y / (double) size.height,
+                bounds.width / (double) size.width,
+                bounds.height / (double) size.height);
+    }
+
+    private Rectangle viewportBounds() {
+        if (client.getViewportWidth() <= 0 || client.getViewportHeight() <= 0) {
+            return null;
+        }
+        return new Rectangle(client.getViewportXOffset(), client.getViewportYOffset(),
+                client.getViewportWidth(), client.getViewportHeight());
+    }
+
+    private Rectangle chatboxAndLootBounds() {
+        Rectangle bounds = null;
+
+        Player player = client.getLocalPlayer();
+        Polygon tile = player != null ? player.getCanvasTilePoly() : null;
+        if (tile != null) {
+            bounds = tile.getBounds();
+            bounds.grow(LOOT_MARGIN, LOOT_MARGIN);
+        }
+
+        Widget chatbox = client.getWidget(ComponentID.CHATBOX_PARENT);
+        if (chatbox != null && !chatbox.isHidden()) {
+            Rectangle chatBounds = chatbox.getBounds();
+            bounds = bounds == null ? chatBounds : bounds.union(chatBounds);
+        }
+
+        // Without either, the viewport is the closest useful crop
+        return bounds != null ? bounds : viewportBounds();
+    }
+}
@@ -0,0 +1,265 @@
+package org.bingoscape.services;
+
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Client;
+import net.runelite.client.ui.DrawManager;
+import org.bingoscape.BingoScapeConfig;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the last few rendered frames, downscaled, so auto-submissions can use the frame
+ * of the tick the drop happened on rather than whatever is on screen once the
+ * submission is sent.
+ * <p>
+ * A frame is requested on every N-th game tick while the buffer is enabled and a board
+ * has trackable tiles. The render thread only hands the frame over; scaling into one of
+ * the preallocated slots happens on the executor. The number of slots follows from the
+ * memory budget and the frame size, and the slots are dropped when capture stops.
+ * <p>
+ * A drop is served the frame from its own tick or the one or two before it, which is
+ * already buffered when the drop is seen. Only without such a frame does a request wait
+ * for the next capture, and it gives up after a few ticks if no frame arrives (for
+ * example while the client is minimized), so callers can fall back to a live screenshot.
+ */
+@Slf4j
+@Singleton
+public class FrameRingBuffer {
+    // Frames are stored at this fraction of the canvas size
+    private static final double SCALE = 0.5;
+    private static final int BYTES_PER_PIXEL = 4;
+    private static final int MIN_FRAMES = 2;
+    // How many ticks before the drop a buffered frame may be from and still be served
+    private static final int MAX_FRAME_LAG_TICKS = 2;
+    // A requested frame that hasn't arrived after this many ticks is given up on
+    private static final int CAPTURE_TIMEOUT_TICKS = 3;
+    // A request still unserved after this many ticks gets null
+    private static final int WAIT_TIMEOUT_TICKS = 5;
+
+    @Inject
+    private BingoScapeConfig config;
+
+    @Inject
+    private MultiBoardMatcher boardMatcher;
+
+    @Inject
+    private DrawManager drawManager;
+
+    @Inject
+    private Client client;
+
+    @Inject
+    private ScheduledExecutorService executor;
+
+    // Ring state (guarded by this)
+    private BufferedImage[] slots;
+    private int[] slotTicks;
+    private int next;
+    private int size;
+    private boolean captureInFlight;
+    private int captureTick;
+    private int lastCaptureTick = Integer.MIN_VALUE;
+    private final List<FrameRequest> waiting = new ArrayList<>();
+
+    /**
+     * Whether frames are being captured, so {@link #frameAt} can serve a request.
+     */
+    public boolean isActive() {
+        return config.enableFrameBuffer() && boardMatcher.hasTrackableTiles();
+    }
+
+    /**
+     * Requests a frame when the capture interval has passed or a caller waits for one.
+     * Must be called on the client thread.
+     */
+    public void onGameTick() {
+        if (!isActive()) {
+            release();
+            return;
+        }
+
+        int tick = client.getTickCount();
+        List<FrameRequest> expired = new ArrayList<>();
+        boolean capture;
+        synchronized (this) {
+            for (FrameRequest request : waiting) {
+                if (tick - request.tick >= WAIT_TIMEOUT_TICKS) {
+                    expired.add(request);
+                }
+            }
+            waiting.removeAll(expired);
+
+            if (captureInFlight && tick - captureTick >= CAPTURE_TIMEOUT_TICKS) {
+                // No frame was rendered for the request; a late one is still stored but no longer waited on
+                log.debug("Frame requested on tick {} never arrived", captureTick);
+                captureInFlight = false;
+            }
+            boolean due = tick - lastCaptureTick >= config.frameCaptureTicks();
+            capture = !captureInFlight && (due || !waiting.isEmpty());
+            if (capture) {
+                captureInFlight = true;
+                captureTick = tick;
+                lastCaptureTick = tick;
+            }
+        }
+
+        for (FrameRequest request : expired) {
+            request.callback.accept(null);
+        }
+        if (capture) {
+            drawManager.requestNextFrameListener(image -> executor.execute(() -> store(image, tick)));
+        }
+    }
+
+    /**
+     * Hands the callback the latest frame captured on {@code tick} or up to
+     * {@value #MAX_FRAME_LAG_TICKS} ticks before it, or else the earliest one after it.
+     * If neither exists yet, the callback waits for the next capture. It receives null
+     * when the buffer is inactive or no frame arrives within {@value #WAIT_TIMEOUT_TICKS}
+     * ticks, so callers can fall back to a live screenshot. The image is a copy and may
+     * be kept.
+     */
+    public void frameAt(int tick, Consumer<BufferedImage> callback) {
+        BufferedImage frame;
+        synchronized (this) {
+            int slot = nearestSlot(tick);
+            if (slot < 0 && isActive()) {
+                waiting.add(new FrameRequest(tick, callback));
+                return;
+            }
+            frame = slot >= 0 ? copy(slots[slot]) : null;
+        }
+        callback.accept(frame);
+    }
+
+    /**
+     * Gets statistics about the frame buffer for debugging.
+     */
+    public synchronized String getStats() {
+        long bytes = 0;
+        if (slots != null && slots[0] != null) {
+            bytes = (long) slots.length * slots[0].getWidth() * slots[0].getHeight() * BYTES_PER_PIXEL;
+        }
+        return String.format("Frame buffer: active=%s, frames=%d/%d, memory=%d KB, waiting=%d",
+                isActive(), size, slots != null ? slots.length : 0, bytes / 1024, waiting.size());
+    }
+
+    private void store(Image image, int tick) {
+        List<FrameRequest> served = new ArrayList<>();
+        List<BufferedImage> frames = new ArrayList<>();
+        synchronized (this) {
+            if (captureInFlight && tick == captureTick) {
+                captureInFlight = false;
+            }
+            int width = Math.max(1, (int) (image.getWidth(null) * SCALE));
+            int height = Math.max(1, (int) (image.getHeight(null) * SCALE));
+            ensureSlots(width, height);
+
+            BufferedImage slot = slots[next];
+            Graphics2D graphics = slot.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, width, height, null);
+            graphics.dispose();
+            slotTicks[next] = tick;
+            next = (next + 1) % slots.length;
+            size = Math.min(size + 1, slots.length);
+
+            // Requests only wait when nothing near their tick was stored, so this frame is the nearest
+            for (FrameRequest request : waiting) {
+                if (tick >= request.tick - MAX_FRAME_LAG_TICKS) {
+                    served.add(request);
+                    frames.add(copy(slot));
+                }
+            }
+            waiting.removeAll(served);
+        }
+
+        for (int i = 0; i < served.size(); i++) {
+            served.get(i).callback.accept(frames.get(i));
+        }
+    }
+
+    private void ensureSlots(int width, int height) {
+        if (slots != null && slots[0].getWidth() == width && slots[0].getHeight() == height) {
+            return;
+        }
+
+        // Resizing the window invalidates every stored frame
+        long frameBytes = (long) width * height * BYTES_PER_PIXEL;
+        long budget = config.frameBufferMemory() * 1024L * 1024L;
+        int count = (int) Math.max(MIN_FRAMES, budget / frameBytes);
+        slots = new BufferedImage[count];
+        for (int i = 0; i < count; i++) {
+            slots[i] = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        }
+        slotTicks = new int[count];
+        next = 0;
+        size = 0;
+        log.debug("Frame buffer holds {} frames of {}x{}", count, width, height);
+    }
+
+    /**
+     * Finds the latest stored frame from the tick or the few before it, otherwise the
+     * earliest one after it. Returns -1 if there is neither.
+     */
+    private int nearestSlot(int tick) {
+        int before = -1;
+        int after = -1;
+        for (int i = 0; i < size; i++) {
+            int slot = (next - 1 - i + slots.length) % slots.length;
+            int frameTick = slotTicks[slot];
+            if (frameTick <= tick) {
+                if (frameTick >= tick - MAX_FRAME_LAG_TICKS && (before < 0 || frameTick > slotTicks[before])) {
+                    before = slot;
+                }
+            } else if (after < 0 || frameTick < slotTicks[after]) {
+                after = slot;
+            }
+        }
+        return before >= 0 ? before : after;
+    }
+
+    private static BufferedImage copy(BufferedImage frame) {
+        BufferedImage copy = new BufferedImage(frame.getWidth(), frame.getHeight(), BufferedImage.TYPE_INT_RGB);
+        frame.copyData(copy.getRaster());
+        return copy;
+    }
+
+    private void release() {
+        List<FrameRequest> dropped;
+        synchronized (this) {
+            if (slots == null && waiting.isEmpty()) {
+                return;
+            }
+            slots = null;
+            slotTicks = null;
+            captureInFlight = false;
+            size = 0;
+            next = 0;
+            dropped = new ArrayList<>(waiting);
+            waiting.clear();
+        }
+        for (FrameRequest request : dropped) {
+            request.callback.accept(null);
+        }
+    }
+
+    private static final class FrameRequest {
+        private final int tick;
+        private final Consumer<BufferedImage> callback;
+
+        private FrameRequest(int tick, Consumer<BufferedImage> callback) {
+            this.tick = tick;
+            this.callback = callback;
+        }
+    }
+}
@@ -0,0 +1,479 @@
+package org.bingoscape.services;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Client;
+import net.runelite.client.RuneLite;
+import org.bingoscape.AutoSubmitTrigger;
+import org.bingoscape.BingoScapeConfig;
+import org.bingoscape.BingoScapePlugin;
+import org.bingoscape.EvidenceFormat;
+import org.bingoscape.models.AutoSubmissionMetadata;
+import org.bingoscape.models.Bingo;
+import org.bingoscape.models.GoalAccumulation;
+import org.bingoscape.models.GoalTreeNode;
+import org.bingoscape.models.Tile;
+import org.bingoscape.models.TileSubmission;
+import org.bingoscape.models.TileSubmissionType;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adds up drops toward count-based item goals ("obtain 500 Zulrah scales") and submits
+ * them in batches instead of once per drop.
+ * <p>
+ * Each goal keeps the count the server last reported, what was already submitted and
+ * what was collected locally since. A batch is submitted when the collected count
+ * reaches the goal's target, or when the flush interval passes for the first drop of
+ * the batch. The first drop's screenshot is kept as evidence for interval flushes; a
+ * batch that reaches the target is submitted with a fresh screenshot of the final drop.
+ * Until the server confirms or rejects that batch, later drops for the goal are only
+ * added up, without screenshots or submissions.
+ * State is written to disk after every change, so a restart does not lose drops.
+ */
+@Slf4j
+@Singleton
+public class GoalAccumulator {
+    private static final File STATE_DIR = new File(new File(RuneLite.RUNELITE_DIR, "bingoscape"), "goals");
+    private static final String STATE_FILE = "accumulated.json";
+    // Extension of evidence from accumulations that don't record one
+    private static final String LEGACY_EVIDENCE_EXTENSION = "png";
+
+    private static final long FLUSH_CHECK_INTERVAL_MS = 60_000;
+    // How far the server's review time may lag our clock and still count as a review of the batch
+    private static final long REVIEW_CLOCK_SKEW_MS = 5 * 60_000;
+
+    private static final Type STATE_TYPE = new TypeToken<List<GoalAccumulation>>() {
+    }.getType();
+
+    @Inject
+    private BingoScapePlugin plugin;
+
+    @Inject
+    private BingoScapeConfig config;
+
+    @Inject
+    private Gson gson;
+
+    @Inject
+    private Client client;
+
+    @Inject
+    private ScheduledExecutorService executor;
+
+    // Accumulations by goal node ID (guarded by this)
+    private final Map<String, GoalAccumulation> goals = new LinkedHashMap<>();
+
+    private ScheduledFuture<?> flushTask;
+
+    /**
+     * Restores saved progress and starts the interval flush check.
+     */
+    public void startUp() {
+        executor.execute(this::load);
+        flushTask = executor.scheduleWithFixedDelay(this::flushExpired, FLUSH_CHECK_INTERVAL_MS,
+                FLUSH_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the flush check. Collected progress stays on disk for the next start.
+     */
+    public void shutDown() {
+        if (flushTask != null) {
+            flushTask.cancel(false);
+            flushTask = null;
+        }
+    }
+
+    /**
+     * Whether a matched tile should be accumulated rather than submitted per drop:
+     * every matched goal needs more than one of the item and can be addressed by ID.
+     */
+    public boolean accepts(BoardTile match) {
+        if (!match.isCountBased()) {
+            return false;
+        }
+        for (GoalTreeNode goal : match.getGoals()) {
+            if (goal.getId() == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds a drop to the matched goals. Must be called on the client thread, since it
+     * may take a screenshot.
+     *
+     * @param match    A tile for which {@link #accepts} returned true
+     * @param quantity How many of the item dropped
+     * @param metadata The drop's metadata
+     * @return true if a goal reached its target and a batch was submitted
+     */
+    public boolean record(BoardTile match, int quantity, AutoSubmissionMetadata metadata) {
+        boolean captureEvidence = false;
+        List<GoalAccumulation> reached = new ArrayList<>();
+        synchronized (this) {
+            for (GoalTreeNode goal : match.getGoals()) {
+                GoalAccumulation accumulation = goals.computeIfAbsent(goal.getId(), id -> create(match, goal));
+                boolean firstOfBatch = accumulation.getPending() == 0;
+                if (firstOfBatch) {
+                    accumulation.setFirstDropAt(System.currentTimeMillis());
+                }
+                accumulation.setPending(accumulation.getPending() + quantity);
+                accumulation.setDropCount(accumulation.getDropCount() + 1);
+                accumulation.setLastDrop(metadata);
+
+                if (accumulation.isAwaitingServer()) {
+                    log.debug("Goal {} on tile {} awaits the server, holding {} pending", accumulation.getGoalId(),
+                            match.getTileId(), accumulation.getPending());
+                    continue;
+                }
+
+                log.debug("Goal {} on tile {}: {}/{} ({} pending)", accumulation.getGoalId(), match.getTileId(),
+                        accumulation.getProjectedCount(), accumulation.getTargetValue(), accumulation.getPending());
+                if (accumulation.getProjectedCount() >= accumulation.getTargetValue()) {
+                    // Set before the screenshot starts, so a drop on the next tick can't start a second one
+                    accumulation.setAwaitingServer(true);
+                    accumulation.setReachedAt(System.currentTimeMillis());
+                    reached.add(accumulation);
+                } else if (firstOfBatch) {
+                    captureEvidence = true;
+                }
+            }
+        }
+
+        if (!reached.isEmpty()) {
+            // The final drop is on screen now, so it makes better evidence than the first
+            plugin.takeDropScreenshot(client.getTickCount(), match.getTileId(), screenshotBytes -> {
+                for (GoalAccumulation accumulation : reached) {
+                    submitBatch(accumulation, screenshotBytes);
+                }
+            });
+        } else if (captureEvidence) {
+            plugin.takeDropScreenshot(client.getTickCount(), match.getTileId(),
+                    screenshotBytes -> storeEvidence(match, screenshotBytes));
+        }
+
+        executor.execute(this::save);
+        return !reached.isEmpty();
+    }
+
+    private static GoalAccumulation create(BoardTile match, GoalTreeNode goal) {
+        GoalAccumulation accumulation = new GoalAccumulation();
+        accumulation.setGoalId(goal.getId());
+        accumulation.setBingoId(match.getBingoId());
+        accumulation.setTileId(match.getTileId());
+        accumulation.setItemId(goal.getItemGoal() != null ? goal.getItemGoal().getItemId() : null);
+        accumulation.setTargetValue(goal.getTargetValue());
+        accumulation.setServerCount(goal.getProgress() != null ? goal.getProgress().getCompletedCount() : 0);
+        return accumulation;
+    }
+
+    private void storeEvidence(BoardTile match, byte[] screenshotBytes) {
+        if (screenshotBytes == null) {
+            return;
+        }
+
+        UUID evidenceId = UUID.randomUUID();
+        String extension = EvidenceFormat.detect(screenshotBytes).getExtension();
+        try {
+            Files.createDirectories(STATE_DIR.toPath());
+            Files.write(evidencePath(evidenceId, extension), screenshotBytes);
+        } catch (IOException e) {
+            log.warn("Failed to store evidence for tile {}", match.getTileId(), e);
+            return;
+        }
+
+        synchronized (this) {
+            for (GoalTreeNode goal : match.getGoals()) {
+                GoalAccumulation accumulation = goals.get(goal.getId());
+                if (accumulation != null && accumulation.getPending() > 0 && accumulation.getEvidenceId() == null) {
+                    accumulation.setEvidenceId(evidenceId);
+                    accumulation.setEvidenceExtension(extension);
+                }
+            }
+        }
+        save();
+    }
+
+    /**
+     * Submits the pending count of a goal as one auto-submission and moves it to submitted.
+     */
+    private void submitBatch(GoalAccumulation accumulation, byte[] screenshotBytes) {
+        if (screenshotBytes == null) {
+            log.error("Failed to capture screenshot for batch on tile {}", accumulation.getTileId());
+            synchronized (this) {
+                // Nothing was sent, so the next drop may try again
+                clearAwaitingServer(accumulation);
+            }
+            return;
+        }
+
+        AutoSubmissionMetadata metadata;
+        UUID evidenceId;
+        String evidenceExtension;
+        synchronized (this) {
+            if (accumulation.getPending() == 0) {
+                clearAwaitingServer(accumulation);
+                return;
+            }
+            metadata = accumulation.getLastDrop().toBuilder()
+                    .itemId(accumulation.getItemId())
+                    .quantity(accumulation.getPending())
+                    .dropCount(accumulation.getDropCount())
+                    .build();
+            evidenceId = accumulation.getEvidenceId();
+            evidenceExtension = accumulation.getEvidenceExtension();
+
+            accumulation.setSubmitted(accumulation.getSubmitted() + accumulation.getPending());
+            accumulation.setPending(0);
+            accumulation.setDropCount(0);
+            accumulation.setEvidenceId(null);
+            accumulation.setEvidenceExtension(null);
+        }
+
+        log.info("Submitting {} x item {} from {} drop(s) for tile {}", metadata.getQuantity(), metadata.getItemId(),
+                metadata.getDropCount(), accumulation.getTileId());
+        plugin.submitTileAutomaticWithMetadata(accumulation.getTileId(), screenshotBytes, metadata);
+
+        deleteEvidence(evidenceId, evidenceExtension);
+        save();
+    }
+
+    /**
+     * Submits batches whose first drop is older than the flush interval, using the
+     * stored screenshot of that drop.
+     */
+    private void flushExpired() {
+        int flushMinutes = config.batchFlushMinutes();
+        // Partial batches only advance a tile, so they wait for the target in complete-only mode
+        if (flushMinutes <= 0 || config.autoSubmitTrigger() == AutoSubmitTrigger.COMPLETES_TILE) {
+            return;
+        }
+
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(flushMinutes);
+        List<GoalAccumulation> expired = new ArrayList<>();
+        synchronized (this) {
+            for (GoalAccumulation accumulation : goals.values()) {
+                if (accumulation.getPending() > 0 && accumulation.getEvidenceId() != null
+                        && !accumulation.isAwaitingServer() && accumulation.getFirstDropAt() <= cutoff) {
+                    expired.add(accumulation);
+                }
+            }
+        }
+
+        for (GoalAccumulation accumulation : expired) {
+            try {
+                submitBatch(accumulation, Files.readAllBytes(
+                        evidencePath(accumulation.getEvidenceId(), accumulation.getEvidenceExtension())));
+            } catch (IOException e) {
+                log.warn("Evidence for goal {} is unreadable, waiting for the target instead", accumulation.getGoalId(), e);
+                synchronized (this) {
+                    accumulation.setEvidenceId(null);
+                    accumulation.setEvidenceExtension(null);
+                }
+            }
+        }
+    }
+
+    /**
+     * Brings local counts in line with the server's progress for a board. Whatever the
+     * server now counts on top of its last report is taken off the submitted count;
+     * goals the server reports complete, or that are gone from the board, are dropped.
+     * A goal awaiting the server after reaching its target is released once the server
+     * credits progress or reviews the tile; a declined batch no longer counts as submitted.
+     */
+    public void reconcile(Bingo bingo) {
+        if (bingo == null || bingo.getTiles() == null) {
+            return;
+        }
+
+        List<GoalAccumulation> staleEvidence = new ArrayList<>();
+        boolean changed = false;
+        synchronized (this) {
+            if (goals.isEmpty()) {
+                return;
+            }
+
+            Map<String, GoalTreeNode> nodesById = new HashMap<>();
+            Map<String, Tile> tilesByGoalId = new HashMap<>();
+            for (Tile tile : bingo.getTiles()) {
+                collectGoals(tile.getGoalTree(), tile, nodesById, tilesByGoalId);
+            }
+
+            for (Iterator<GoalAccumulation> it = goals.values().iterator(); it.hasNext(); ) {
+                GoalAccumulation accumulation = it.next();
+                if (!bingo.getId().equals(accumulation.getBingoId())) {
+                    continue;
+                }
+
+                GoalTreeNode goal = nodesById.get(accumulation.getGoalId());
+                if (goal == null || (goal.getProgress() != null && goal.getProgress().isComplete())) {
+                    it.remove();
+                    staleEvidence.add(accumulation);
+                    changed = true;
+                    continue;
+                }
+
+                int serverCount = goal.getProgress() != null ? goal.getProgress().getCompletedCount() : 0;
+                int credited = Math.max(0, serverCount - accumulation.getServerCount());
+                if (serverCount != accumulation.getServerCount()) {
+                    accumulation.setSubmitted(Math.max(0, accumulation.getSubmitted() - credited));
+                    accumulation.setServerCount(serverCount);
+                    changed = true;
+                }
+                if (accumulation.isAwaitingServer()) {
+                    TileSubmissionType review = reviewSince(tilesByGoalId.get(accumulation.getGoalId()),
+                            accumulation.getReachedAt());
+                    if (review == TileSubmissionType.DECLINED) {
+                        log.debug("Batch for goal {} was declined", accumulation.getGoalId());
+                        accumulation.setSubmitted(0);
+                        clearAwaitingServer(accumulation);
+                        changed = true;
+                    } else if (credited > 0 || review == TileSubmissionType.ACCEPTED) {
+                        clearAwaitingServer(accumulation);
+                        changed = true;
+                    }
+                }
+                if (goal.getTargetValue() != null && goal.getTargetValue() != accumulation.getTargetValue()) {
+                    accumulation.setTargetValue(goal.getTargetValue());
+                    changed = true;
+                }
+            }
+        }
+
+        if (changed) {
+            for (GoalAccumulation accumulation : staleEvidence) {
+                deleteEvidence(accumulation.getEvidenceId(), accumulation.getEvidenceExtension());
+            }
+            executor.execute(this::save);
+        }
+    }
+
+    /**
+     * The tile's submission status if the server changed it after the given time, allowing
+     * for some clock difference, otherwise null.
+     */
+    private static TileSubmissionType reviewSince(Tile tile, long since) {
+        TileSubmission submission = tile != null ? tile.getSubmission() : null;
+        if (submission == null || submission.getLastUpdated() == null
+                || submission.getLastUpdated().getTime() < since - REVIEW_CLOCK_SKEW_MS) {
+            return null;
+        }
+        return submission.getStatus();
+    }
+
+    private static void clearAwaitingServer(GoalAccumulation accumulation) {
+        accumulation.setAwaitingServer(false);
+        accumulation.setReachedAt(0);
+    }
+
+    private static void collectGoals(List<GoalTreeNode> nodes, Tile tile, Map<String, GoalTreeNode> nodesById,
+                                     Map<String, Tile> tilesByGoalId) {
+        if (nodes == null) {
+            return;
+        }
+        for (GoalTreeNode node : nodes) {
+            if (node.isGoal() && node.getId() != null) {
+                nodesById.put(node.getId(), node);
+                tilesByGoalId.put(node.getId(), tile);
+            }
+            collectGoals(node.getChildren(), tile, nodesById, tilesByGoalId);
+        }
+    }
+
+    private synchronized void load() {
+        goals.clear();
+        Path state = statePath();
+        if (!Files.exists(state)) {
+            return;
+        }
+
+        try (Reader reader = Files.newBufferedReader(state, StandardCharsets.UTF_8)) {
+            List<GoalAccumulation> saved = gson.fromJson(reader, STATE_TYPE);
+            if (saved != null) {
+                for (GoalAccumulation accumulation : saved) {
+                    goals.put(accumulation.getGoalId(), accumulation);
+                }
+            }
+            log.debug("Restored {} accumulated goal(s)", goals.size());
+        } catch (IOException | JsonParseException e) {
+            log.error("Failed to read accumulated goal progress", e);
+        }
+    }
+
+    /**
+     * Writes all accumulations to a temporary file and swaps it in atomically.
+     */
+    private synchronized void save() {
+        try {
+            Files.createDirectories(STATE_DIR.toPath());
+            Path temp = new File(STATE_DIR, STATE_FILE + ".tmp").toPath();
+            String content = gson.toJson(new ArrayList<>(goals.values()), STATE_TYPE);
+            Files.write(temp, content.getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.DSYNC);
+            Files.move(temp, statePath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("Failed to save accumulated goal progress", e);
+        }
+    }
+
+    private void deleteEvidence(UUID evidenceId, String extension) {
+        if (evidenceId == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(evidencePath(evidenceId, extension));
+        } catch (IOException e) {
+            log.warn("Failed to delete evidence {}", evidenceId, e);
+        }
+    }
+
+    private Path statePath() {
+        return new File(STATE_DIR, STATE_FILE).toPath();
+    }
+
+    private Path evidencePath(UUID evidenceId, String extension) {
+        return new File(STATE_DIR, evidenceId + "." + (extension != null ? extension : LEGACY_EVIDENCE_EXTENSION))
+                .toPath();
+    }
+
+    /**
+     * Gets statistics about accumulated goals for debugging.
+     */
+    public synchronized String getStats() {
+        int pendingGoals = 0;
+        long pendingCount = 0;
+        for (GoalAccumulation accumulation : goals.values()) {
+            if (accumulation.getPending() > 0) {
+                pendingGoals++;
+                pendingCount += accumulation.getPending();
+            }
+        }
+        return String.format("Accumulator: %d goals tracked, %d with %d item(s) pending", goals.size(), pendingGoals,
+                pendingCount);
+    }
+}
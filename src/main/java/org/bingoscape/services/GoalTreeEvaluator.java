@@ -0,0 +1,205 @@
+package org.bingoscape.services;
+
+import org.bingoscape.models.GoalTreeNode;
+import org.bingoscape.models.GoalTreeProgress;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A tile's goal tree flattened into arrays, for predicting what a drop would do to it.
+ * <p>
+ * Leaves are numbered in tree order and groups in post-order, so every group comes
+ * after its children and one forward pass settles the whole tree. Leaf completion is a
+ * bitset and each group keeps a counter of satisfied children, compared against the
+ * children it needs: all of them for AND groups, {@code minRequiredGoals} (default one)
+ * for OR groups. The top level of the tree is an implicit AND group.
+ * <p>
+ * Only the shape of the tree is compiled. Progress is read from the leaf nodes on every
+ * call, so an evaluator stays valid while progress updates are applied to its tree.
+ */
+final class GoalTreeEvaluator {
+    private static final int NO_PARENT = -1;
+
+    private final GoalTreeNode[] leaves;
+    private final int[] leafParent;
+    private final int[] groupParent;
+    private final int[] groupRequired;
+    private final int rootGroup;
+
+    private GoalTreeEvaluator(GoalTreeNode[] leaves, int[] leafParent, int[] groupParent, int[] groupRequired) {
+        this.leaves = leaves;
+        this.leafParent = leafParent;
+        this.groupParent = groupParent;
+        this.groupRequired = groupRequired;
+        this.rootGroup = groupRequired.length - 1;
+    }
+
+    /**
+     * Compiles a goal tree.
+     *
+     * @param goalTree    The tile's top-level nodes
+     * @param leafNumbers Receives the leaf number of every goal node, keyed by identity
+     */
+    static GoalTreeEvaluator compile(List<GoalTreeNode> goalTree, Map<GoalTreeNode, Integer> leafNumbers) {
+        Compiler compiler = new Compiler(leafNumbers);
+        compiler.group(goalTree, true, null);
+        return new GoalTreeEvaluator(compiler.leaves.toArray(new GoalTreeNode[0]), toArray(compiler.leafParent),
+                toArray(compiler.groupParent), toArray(compiler.groupRequired));
+    }
+
+    int getLeafCount() {
+        return leaves.length;
+    }
+
+    /**
+     * Predicts what a drop would do to the tile.
+     *
+     * @param droppedLeaves Bitset of the leaves the dropped item counts toward
+     * @param quantity      How many of the item dropped
+     */
+    TileOutcome predict(long[] droppedLeaves, int quantity) {
+        long[] done = new long[droppedLeaves.length];
+        long[] after = new long[droppedLeaves.length];
+        for (int leaf = 0; leaf < leaves.length; leaf++) {
+            if (isComplete(leaves[leaf])) {
+                done[leaf >>> 6] |= 1L << leaf;
+            }
+        }
+        System.arraycopy(done, 0, after, 0, done.length);
+
+        boolean progresses = false;
+        for (int word = 0; word < droppedLeaves.length; word++) {
+            long open = droppedLeaves[word] & ~done[word];
+            while (open != 0) {
+                int leaf = (word << 6) + Long.numberOfTrailingZeros(open);
+                open &= open - 1;
+                progresses = true;
+                if (quantity >= remaining(leaves[leaf])) {
+                    after[word] |= 1L << leaf;
+                }
+            }
+        }
+        if (!progresses) {
+            return TileOutcome.NONE;
+        }
+
+        int[] satisfied = new int[groupRequired.length];
+        boolean[] groupDone = settle(done, satisfied);
+        if (groupDone[rootGroup]) {
+            return TileOutcome.NONE;
+        }
+        if (settle(after, new int[groupRequired.length])[rootGroup]) {
+            return TileOutcome.COMPLETE;
+        }
+
+        // The drop only advances the tile if some leaf it helps sits under groups still in need
+        for (int word = 0; word < droppedLeaves.length; word++) {
+            long open = droppedLeaves[word] & ~done[word];
+            while (open != 0) {
+                int leaf = (word << 6) + Long.numberOfTrailingZeros(open);
+                open &= open - 1;
+                if (isOnOpenPath(leafParent[leaf], groupDone)) {
+                    return TileOutcome.ADVANCE;
+                }
+            }
+        }
+        return TileOutcome.NONE;
+    }
+
+    /**
+     * Counts satisfied children bottom-up and returns which groups are satisfied.
+     */
+    private boolean[] settle(long[] leafDone, int[] satisfied) {
+        for (int leaf = 0; leaf < leaves.length; leaf++) {
+            if ((leafDone[leaf >>> 6] & (1L << leaf)) != 0) {
+                satisfied[leafParent[leaf]]++;
+            }
+        }
+        boolean[] groupDone = new boolean[groupRequired.length];
+        for (int group = 0; group < groupRequired.length; group++) {
+            groupDone[group] = satisfied[group] >= groupRequired[group];
+            if (groupDone[group] && groupParent[group] != NO_PARENT) {
+                satisfied[groupParent[group]]++;
+            }
+        }
+        return groupDone;
+    }
+
+    private boolean isOnOpenPath(int group, boolean[] groupDone) {
+        for (int g = group; g != NO_PARENT; g = groupParent[g]) {
+            if (groupDone[g]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isComplete(GoalTreeNode leaf) {
+        GoalTreeProgress progress = leaf.getProgress();
+        return progress != null && progress.isComplete();
+    }
+
+    /**
+     * How much of the goal is still missing, at least one.
+     */
+    private static int remaining(GoalTreeNode leaf) {
+        int target = leaf.getTargetValue() != null ? leaf.getTargetValue() : 1;
+        int current = leaf.getProgress() != null ? leaf.getProgress().getCompletedCount() : 0;
+        return Math.max(1, target - current);
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static final class Compiler {
+        private final Map<GoalTreeNode, Integer> leafNumbers;
+        private final List<GoalTreeNode> leaves = new ArrayList<>();
+        private final List<Integer> leafParent = new ArrayList<>();
+        private final List<Integer> groupParent = new ArrayList<>();
+        private final List<Integer> groupRequired = new ArrayList<>();
+
+        private Compiler(Map<GoalTreeNode, Integer> leafNumbers) {
+            this.leafNumbers = leafNumbers;
+        }
+
+        /**
+         * Compiles a group after its children and returns its number. Children point at
+         * their parent before its number is known, so their slots are patched at the end.
+         */
+        private int group(List<GoalTreeNode> children, boolean and, Integer minRequired) {
+            List<Integer> childLeaves = new ArrayList<>();
+            List<Integer> childGroups = new ArrayList<>();
+            int childCount = 0;
+            if (children != null) {
+                for (GoalTreeNode child : children) {
+                    if (child.isGroup()) {
+                        childGroups.add(group(child.getChildren(), !child.isOrGroup(), child.getMinRequiredGoals()));
+                        childCount++;
+                    } else if (child.isGoal()) {
+                        int leaf = leaves.size();
+                        leaves.add(child);
+                        leafParent.add(NO_PARENT);
+                        leafNumbers.put(child, leaf);
+                        childLeaves.add(leaf);
+                        childCount++;
+                    }
+                }
+            }
+
+            int group = groupRequired.size();
+            int required = and ? childCount : Math.min(childCount, minRequired != null ? minRequired : 1);
+            groupRequired.add(Math.max(0, required));
+            groupParent.add(NO_PARENT);
+            for (int leaf : childLeaves) {
+                leafParent.set(leaf, group);
+            }
+            for (int childGroup : childGroups) {
+                groupParent.set(childGroup, group);
+            }
+            return group;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package org.bingoscape.services;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.imageio.ImageIO;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Shared cache of decoded tile header images, keyed by URL.
+ * <p>
+ * Board windows read through it so images warmed by {@link BoardPrefetcher} are not
+ * downloaded again. Entries are evicted least-recently-used once the decoded pixel
+ * count exceeds a fixed budget. Downloads go through the {@link RequestScheduler} at
+ * image priority, so they are the first traffic delayed or shed under pressure.
+ */
+@Slf4j
+@Singleton
+public class HeaderImageCache {
+    private static final int WARM_THREADS = 2;
+    private static final long MAX_CACHED_PIXELS = 8L * 1024 * 1024; // ~32 MB as ARGB
+
+    // Access-ordered so iteration starts at the least recently used image (guarded by this)
+    private final Map<String, BufferedImage> images = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedPixels;
+
+    private final RequestScheduler requestScheduler;
+    private final Set<String> warming = ConcurrentHashMap.newKeySet();
+    private ExecutorService warmExecutor;
+
+    @Inject
+    public HeaderImageCache(RequestScheduler requestScheduler) {
+        this.requestScheduler = requestScheduler;
+    }
+
+    public void startUp() {
+        warmExecutor = Executors.newFixedThreadPool(WARM_THREADS);
+    }
+
+    public void shutDown() {
+        if (warmExecutor != null) {
+            warmExecutor.shutdownNow();
+            warmExecutor = null;
+        }
+        synchronized (this) {
+            images.clear();
+            cachedPixels = 0;
+        }
+    }
+
+    /**
+     * Returns the cached image, or null if it has not been loaded yet.
+     */
+    public synchronized BufferedImage getIfPresent(String url) {
+        return images.get(url);
+    }
+
+    /**
+     * Returns the image from the cache, downloading and caching it on a miss.
+     * Blocks on network I/O, so call it from a background thread.
+     *
+     * @return The decoded image, or null if the URL does not point at a readable image
+     */
+    public BufferedImage load(String url) throws IOException {
+        BufferedImage image = getIfPresent(url);
+        if (image != null) {
+            return image;
+        }
+
+        URL imageUrl = new URL(url);
+        awaitPermit(imageUrl.getHost());
+        image = ImageIO.read(imageUrl);
+        if (image != null) {
+            put(url, image);
+        }
+        return image;
+    }
+
+    private void awaitPermit(String host) throws IOException {
+        try {
+            requestScheduler.acquire(host, RequestPriority.IMAGE).get();
+        } catch (ExecutionException e) {
+            throw new IOException("Image request not sent: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting to load image", e);
+        }
+    }
+
+    /**
+     * Downloads the image in the background if it is not cached or already loading.
+     */
+    public void warm(String url) {
+        ExecutorService executor = warmExecutor;
+        if (url == null || url.isEmpty() || executor == null || getIfPresent(url) != null || !warming.add(url)) {
+            return;
+        }
+
+        executor.execute(() -> {
+            try {
+                load(url);
+            } catch (IOException e) {
+                log.debug("Failed to warm header image {}", url, e);
+            } finally {
+                warming.remove(url);
+            }
+        });
+    }
+
+    private synchronized void put(String url, BufferedImage image) {
+        BufferedImage previous = images.put(url, image);
+        if (previous != null) {
+            cachedPixels -= pixels(previous);
+        }
+        cachedPixels += pixels(image);
+
+        Iterator<Map.Entry<String, BufferedImage>> iterator = images.entrySet().iterator();
+        while (cachedPixels > MAX_CACHED_PIXELS && iterator.hasNext()) {
+            Map.Entry<String, BufferedImage> eldest = iterator.next();
+            if (eldest.getKey().equals(url)) {
+                continue; // Keep the image that was just added
+            }
+            cachedPixels -= pixels(eldest.getValue());
+            iterator.remove();
+        }
+    }
+
+    private static long pixels(BufferedImage image) {
+        return (long) image.getWidth() * image.getHeight();
+    }
+
+    /**
+     * Gets cache statistics for debugging.
+     */
+    public synchronized String getStats() {
+        return String.format("Header images: %d cached (%.1f MP), %d warming",
+                images.size(), cachedPixels / 1_000_000.0, warming.size());
+    }
+}
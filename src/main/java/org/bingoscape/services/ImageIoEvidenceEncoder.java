@@ -0,0 +1,56 @@
+package org.bingoscape.services;
+
+import org.bingoscape.EvidenceFormat;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+
+/**
+ * {@link EvidenceEncoder} backed by the JDK's ImageIO writers.
+ */
+class ImageIoEvidenceEncoder implements EvidenceEncoder {
+    private final EvidenceFormat format;
+    // Explicit compression quality from 0 to 1, or null for the writer's default
+    private final Float compressionQuality;
+
+    ImageIoEvidenceEncoder(EvidenceFormat format, Float compressionQuality) {
+        this.format = format;
+        this.compressionQuality = compressionQuality;
+    }
+
+    @Override
+    public EvidenceFormat getFormat() {
+        return format;
+    }
+
+    @Override
+    public void write(BufferedImage image, OutputStream out) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format.getFormatName());
+        if (!writers.hasNext()) {
+            throw new IOException("No " + format.getFormatName() + " writer available");
+        }
+        ImageWriter writer = writers.next();
+
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        if (compressionQuality != null && param.canWriteCompressed()) {
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(compressionQuality);
+        }
+
+        // Memory-cached stream, so ImageIO does not spill to a temp file
+        try (ImageOutputStream stream = new MemoryCacheImageOutputStream(out)) {
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.bingoscape.services;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable open-addressing map from a primitive key to an int[] of ordinals.
+ * <p>
+ * Keys are longs so an item ID can be combined with a source qualifier (see
+ * {@link MatcherSnapshot}); a plain item ID is its own key. Lookups probe primitive
+ * arrays and return the stored array itself, so they neither box the key nor allocate.
+ * Callers must not modify the returned arrays.
+ */
+final class ItemIndex {
+    static final int[] NO_ORDINALS = new int[0];
+    static final ItemIndex EMPTY = new Builder().build();
+
+    private final long[] keys;
+    private final int[][] values;
+    private final int mask;
+    private final int size;
+
+    private ItemIndex(long[] keys, int[][] values, int size) {
+        this.keys = keys;
+        this.values = values;
+        this.mask = keys.length - 1;
+        this.size = size;
+    }
+
+    /**
+     * Returns the ordinals stored for a key, or an empty array if there are none.
+     */
+    int[] get(long key) {
+        if (size == 0) {
+            return NO_ORDINALS;
+        }
+
+        int slot = mix(key) & mask;
+        while (true) {
+            int[] value = values[slot];
+            if (value == null) {
+                return NO_ORDINALS;
+            }
+            if (keys[slot] == key) {
+                return value;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    boolean containsKey(long key) {
+        return get(key).length > 0;
+    }
+
+    /**
+     * Number of distinct keys.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the keys in no particular order.
+     */
+    long[] keys() {
+        long[] result = new long[size];
+        int count = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (values[slot] != null) {
+                result[count++] = keys[slot];
+            }
+        }
+        return result;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Collects key/ordinal pairs. Adding the same ordinal twice in a row for a key is a
+     * no-op, so callers that add ordinals in ascending order get distinct values.
+     */
+    static final class Builder {
+        private final Map<Long, int[]> entries = new LinkedHashMap<>();
+        private final Map<Long, Integer> counts = new LinkedHashMap<>();
+
+        Builder add(long key, int ordinal) {
+            int[] current = entries.get(key);
+            int count = counts.getOrDefault(key, 0);
+            if (current == null) {
+                current = new int[4];
+            } else if (current[count - 1] == ordinal) {
+                return this;
+            } else if (count == current.length) {
+                current = Arrays.copyOf(current, count * 2);
+            }
+            current[count] = ordinal;
+            entries.put(key, current);
+            counts.put(key, count + 1);
+            return this;
+        }
+
+        ItemIndex build() {
+            int size = entries.size();
+            // Keep the load factor at or below one half so probe chains stay short
+            int capacity = Integer.highestOneBit(Math.max(2, size * 2 - 1)) << 1;
+            long[] keys = new long[capacity];
+            int[][] values = new int[capacity][];
+            int mask = capacity - 1;
+
+            for (Map.Entry<Long, int[]> entry : entries.entrySet()) {
+                long key = entry.getKey();
+                int[] ordinals = Arrays.copyOf(entry.getValue(), counts.get(key));
+                int slot = mix(key) & mask;
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = ordinals;
+            }
+
+            return new ItemIndex(keys, values, size);
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package org.bingoscape.services;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+import org.bingoscape.BingoScapeConfig;
+import org.bingoscape.models.Tile;
+import org.bingoscape.models.TileDelta;
+import org.bingoscape.models.adapters.BingoTypeAdapterFactory;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Optional push channel for live board updates.
+ * <p>
+ * Follows a single bingo over Server-Sent Events using the injected OkHttp client.
+ * The server sends a {@code tile} event with the updated tile whenever one of the
+ * board's tiles changes, or a {@code tile-delta} event carrying only the changed
+ * submission and goal progress, and a {@code refresh} event when the client should
+ * reload the whole board (for example when it can't resume from the last event ID).
+ * Dropped connections are re-established with backoff and resume from the last
+ * event ID seen for that bingo. Stopping interrupts the stream task, so a pending
+ * backoff ends at once rather than holding up the next stream.
+ */
+@Slf4j
+@Singleton
+public class LiveBoardUpdates {
+    private static final String EVENT_TILE = "tile";
+    private static final String EVENT_TILE_DELTA = "tile-delta";
+    private static final String EVENT_REFRESH = "refresh";
+    private static final int HTTP_NOT_FOUND = 404;
+
+    // The server sends a heartbeat comment well within this window
+    private static final long READ_TIMEOUT_SECONDS = 90;
+    private static final long INITIAL_RECONNECT_MS = 1_000;
+    private static final long MAX_RECONNECT_MS = 60_000;
+
+    private final OkHttpClient streamClient;
+    private final Gson gson;
+    private final BingoScapeConfig config;
+
+    // Last event ID per bingo, sent as Last-Event-ID when reconnecting
+    private final Map<UUID, String> lastEventIds = new ConcurrentHashMap<>();
+
+    private ExecutorService streamExecutor;
+    private BiConsumer<UUID, Tile> onTileChanged = (bingoId, tile) -> {};
+    private BiConsumer<UUID, TileDelta> onTileDelta = (bingoId, delta) -> {};
+    private Consumer<UUID> onRefreshRequested = bingoId -> {};
+
+    // Bumped on every follow/stop so a superseded stream loop exits
+    private volatile long generation;
+    private volatile UUID followedBingoId;
+    private volatile Call activeCall;
+    private Future<?> streamTask;
+
+    @Inject
+    public LiveBoardUpdates(OkHttpClient httpClient, Gson gson, BingoScapeConfig config) {
+        this.streamClient = httpClient.newBuilder()
+                .readTimeout(READ_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .build();
+        this.gson = gson.newBuilder()
+                .registerTypeAdapterFactory(new BingoTypeAdapterFactory())
+                .create();
+        this.config = config;
+    }
+
+    /**
+     * Registers the listeners and prepares the stream thread.
+     *
+     * @param onTileChanged      Called with the bingo ID and updated tile for each tile event
+     * @param onTileDelta        Called with the bingo ID and delta for each tile-delta event
+     * @param onRefreshRequested Called when the server asks for a full board reload
+     */
+    public void startUp(BiConsumer<UUID, Tile> onTileChanged, BiConsumer<UUID, TileDelta> onTileDelta,
+                        Consumer<UUID> onRefreshRequested) {
+        this.onTileChanged = onTileChanged;
+        this.onTileDelta = onTileDelta;
+        this.onRefreshRequested = onRefreshRequested;
+        this.streamExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "bingoscape-live-updates");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Closes the current stream and stops the stream thread.
+     */
+    public void shutDown() {
+        stop();
+        if (streamExecutor != null) {
+            streamExecutor.shutdownNow();
+            streamExecutor = null;
+        }
+    }
+
+    /**
+     * Starts following the given bingo, replacing any stream for another bingo.
+     * Does nothing if that bingo is already followed.
+     */
+    public synchronized void follow(UUID bingoId) {
+        if (bingoId == null || streamExecutor == null) {
+            return;
+        }
+        if (bingoId.equals(followedBingoId)) {
+            return;
+        }
+
+        stop();
+        followedBingoId = bingoId;
+        long streamGeneration = generation;
+        streamTask = streamExecutor.submit(() -> runStream(bingoId, streamGeneration));
+    }
+
+    /**
+     * Closes the current stream, if any.
+     */
+    public synchronized void stop() {
+        generation++;
+        followedBingoId = null;
+        Call call = activeCall;
+        if (call != null) {
+            // Unblocks the read on the stream thread
+            call.cancel();
+        }
+        if (streamTask != null) {
+            // Interrupts a reconnect backoff; a stream not yet started never runs
+            streamTask.cancel(true);
+            streamTask = null;
+        }
+    }
+
+    public boolean isFollowing(UUID bingoId) {
+        return bingoId != null && bingoId.equals(followedBingoId);
+    }
+
+    private boolean isCurrent(long streamGeneration) {
+        return generation == streamGeneration;
+    }
+
+    private void runStream(UUID bingoId, long streamGeneration) {
+        long reconnectDelay = INITIAL_RECONNECT_MS;
+
+        while (isCurrent(streamGeneration) && hasApiKey()) {
+            Request.Builder requestBuilder = new Request.Builder()
+                    .url(config.apiBaseUrl() + "/api/runelite/bingos/" + bingoId + "/stream")
+                    .header("Authorization", "Bearer " + config.apiKey())
+                    .header("Accept", "text/event-stream");
+
+            String lastEventId = lastEventIds.get(bingoId);
+            if (lastEventId != null) {
+                requestBuilder.header("Last-Event-ID", lastEventId);
+            }
+
+            Call call = streamClient.newCall(requestBuilder.build());
+            activeCall = call;
+            if (!isCurrent(streamGeneration)) {
+                // stop() ran between the loop check and publishing the call
+                call.cancel();
+                break;
+            }
+
+            try (Response response = call.execute()) {
+                ResponseBody body = response.body();
+                if (response.code() == HTTP_NOT_FOUND) {
+                    log.info("Live board updates are not available from this server");
+                    break;
+                }
+
+                if (!response.isSuccessful() || body == null) {
+                    log.warn("Live update stream for bingo {} refused: {}", bingoId, response);
+                } else {
+                    log.debug("Live update stream for bingo {} connected", bingoId);
+                    reconnectDelay = INITIAL_RECONNECT_MS;
+                    reconnectDelay = readEvents(bingoId, streamGeneration, body.source(), reconnectDelay);
+                }
+            } catch (IOException e) {
+                if (isCurrent(streamGeneration)) {
+                    log.debug("Live update stream for bingo {} dropped", bingoId, e);
+                }
+            } finally {
+                activeCall = null;
+            }
+
+            if (!isCurrent(streamGeneration)) {
+                break;
+            }
+
+            try {
+                long jitter = ThreadLocalRandom.current().nextLong(reconnectDelay / 2 + 1);
+                Thread.sleep(reconnectDelay + jitter);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            reconnectDelay = Math.min(reconnectDelay * 2, MAX_RECONNECT_MS);
+        }
+
+        log.debug("Live update stream for bingo {} closed", bingoId);
+    }
+
+    /**
+     * Reads events until the stream ends. Returns the reconnect delay to use,
+     * which the server can override with a {@code retry:} field.
+     */
+    private long readEvents(UUID bingoId, long streamGeneration, BufferedSource source, long reconnectDelay)
+            throws IOException {
+        String eventType = null;
+        String eventId = null;
+        StringBuilder data = new StringBuilder();
+
+        String line;
+        while (isCurrent(streamGeneration) && (line = source.readUtf8Line()) != null) {
+            if (line.isEmpty()) {
+                // Blank line terminates an event
+                if (data.length() > 0) {
+                    dispatch(bingoId, eventType, data.toString());
+                }
+                if (eventId != null) {
+                    lastEventIds.put(bingoId, eventId);
+                }
+                eventType = null;
+                eventId = null;
+                data.setLength(0);
+                continue;
+            }
+
+            if (line.startsWith(":")) {
+                continue; // Heartbeat comment
+            }
+
+            int colon = line.indexOf(':');
+            String field = colon >= 0 ? line.substring(0, colon) : line;
+            String value = colon >= 0 ? line.substring(colon + 1) : "";
+            if (value.startsWith(" ")) {
+                value = value.substring(1);
+            }
+
+            switch (field) {
+                case "event":
+                    eventType = value;
+                    break;
+                case "data":
+                    if (data.length() > 0) {
+                        data.append('\n');
+                    }
+                    data.append(value);
+                    break;
+                case "id":
+                    eventId = value;
+                    break;
+                case "retry":
+                    try {
+                        // Kept within our own bounds: 0 would spin on reconnects, a huge value never retries
+                        reconnectDelay = Math.max(INITIAL_RECONNECT_MS,
+                                Math.min(Long.parseLong(value), MAX_RECONNECT_MS));
+                    } catch (NumberFormatException e) {
+                        log.debug("Ignoring invalid retry value {}", value);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        return reconnectDelay;
+    }
+
+    private void dispatch(UUID bingoId, String eventType, String data) {
+        try {
+            if (EVENT_REFRESH.equals(eventType)) {
+                onRefreshRequested.accept(bingoId);
+            } else if (EVENT_TILE_DELTA.equals(eventType)) {
+                TileDelta delta = gson.fromJson(data, TileDelta.class);
+                if (delta != null && delta.getTileId() != null) {
+                    onTileDelta.accept(bingoId, delta);
+                }
+            } else if (eventType == null || EVENT_TILE.equals(eventType)) {
+                Tile tile = gson.fromJson(data, Tile.class);
+                if (tile != null && tile.getId() != null) {
+                    onTileChanged.accept(bingoId, tile);
+                }
+            } else {
+                log.debug("Ignoring unknown live update event type {}", eventType);
+            }
+        } catch (JsonParseException e) {
+            log.warn("Ignoring malformed live update for bingo {}", bingoId, e);
+        } catch (RuntimeException e) {
+            // Keep the stream alive if a listener fails
+            log.error("Failed to apply live update for bingo {}", bingoId, e);
+        }
+    }
+
+    private boolean hasApiKey() {
+        return config.apiKey() != null && !config.apiKey().isEmpty();
+    }
+}
@@ -0,0 +1,26 @@
+package org.bingoscape.services;
+
+import lombok.Value;
+import net.runelite.http.api.loottracker.LootRecordType;
+
+/**
+ * Where a drop came from, used to check source-restricted item goals.
+ */
+@Value
+public class LootSource {
+    /**
+     * Region ID used when the player's location is unknown.
+     */
+    public static final int UNKNOWN_REGION = -1;
+
+    Integer npcId; // null if the loot did not come from an NPC
+    LootRecordType type; // null if unknown
+    int regionId;
+
+    /**
+     * A source that only carries an NPC ID, for callers without loot type or location.
+     */
+    public static LootSource ofNpc(Integer npcId) {
+        return new LootSource(npcId, npcId != null ? LootRecordType.NPC : null, UNKNOWN_REGION);
+    }
+}
@@ -0,0 +1,688 @@
+package org.bingoscape.services;
+
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.http.api.loottracker.LootRecordType;
+import org.bingoscape.models.Bingo;
+import org.bingoscape.models.GoalTreeNode;
+import org.bingoscape.models.ItemGoal;
+import org.bingoscape.models.Tile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A bingo compiled for item matching.
+ * <p>
+ * Holds the board's tiles in an array, a tile ID to ordinal map, and one
+ * {@link TileMatch} per (tile, item, source restriction) listing the goal nodes of that
+ * tile that require the item. Item lookups walk arrays only; goal trees are traversed
+ * once, when the snapshot is built.
+ * <p>
+ * Matches are indexed under composite primitive keys: the plain item ID for goals that
+ * accept any source, (item, NPC) for NPC-restricted goals and (item, region) for
+ * region-restricted ones. A lookup probes at most three keys whatever the restrictions,
+ * and only loot type (a bitmask) and secondary region restrictions are checked per match.
+ * <p>
+ * Snapshots are immutable once built and record which bingo (and which version of it)
+ * they were compiled from, plus a build sequence used to order concurrent rebuilds. The
+ * tiles and goal nodes they reference are never modified either: board updates publish
+ * patched copies (see {@link org.bingoscape.utils.TileDeltaApplier}).
+ */
+@Slf4j
+final class MatcherSnapshot {
+    // Top two bits tell composite keys apart; item and qualifier take 31 bits each
+    private static final long NPC_KEY_TAG = 1L << 62;
+    private static final long REGION_KEY_TAG = 2L << 62;
+
+    static final MatcherSnapshot EMPTY = empty(0);
+
+    private final UUID bingoId;
+    private final Date version;
+    private final long sequence;
+    private final Tile[] tiles;
+    private final Map<UUID, Integer> ordinalsById;
+    private final ItemIndex itemToMatches;
+    private final TileMatch[] matches;
+    private final int trackedItems;
+    // Bit per item ID any match is indexed for, to reject irrelevant loot before a lookup
+    private final long[] itemBits;
+    private final int trackableTiles;
+
+    // Goal tree each tile was indexed from (null if skipped) and its range in matches
+    private final List<?>[] indexedTrees;
+    private final int[] firstMatch;
+    private final int[] matchCount;
+    // Per tile ordinal, null for tiles without item or event goals
+    private final GoalTreeEvaluator[] evaluators;
+    private final EventGoalIndex.EventHit[][] eventGoals;
+    private final EventGoalIndex eventIndex;
+
+    private MatcherSnapshot(UUID bingoId, Date version, long sequence, Tile[] tiles,
+                            Map<UUID, Integer> ordinalsById, ItemIndex itemToMatches,
+                            TileMatch[] matches, int trackedItems, long[] itemBits, int trackableTiles,
+                            List<?>[] indexedTrees, int[] firstMatch, int[] matchCount,
+                            GoalTreeEvaluator[] evaluators, EventGoalIndex.EventHit[][] eventGoals,
+                            EventGoalIndex eventIndex) {
+        this.bingoId = bingoId;
+        this.version = version;
+        this.sequence = sequence;
+        this.tiles = tiles;
+        this.ordinalsById = ordinalsById;
+        this.itemToMatches = itemToMatches;
+        this.matches = matches;
+        this.trackedItems = trackedItems;
+        this.itemBits = itemBits;
+        this.trackableTiles = trackableTiles;
+        this.indexedTrees = indexedTrees;
+        this.firstMatch = firstMatch;
+        this.matchCount = matchCount;
+        this.evaluators = evaluators;
+        this.eventGoals = eventGoals;
+        this.eventIndex = eventIndex;
+    }
+
+    /**
+     * A snapshot that matches nothing.
+     */
+    static MatcherSnapshot empty(long sequence) {
+        return new MatcherSnapshot(null, null, sequence, new Tile[0], Collections.emptyMap(),
+                ItemIndex.EMPTY, new TileMatch[0], 0, new long[0], 0, new List<?>[0], new int[0], new int[0],
+                new GoalTreeEvaluator[0], new EventGoalIndex.EventHit[0][], EventGoalIndex.EMPTY);
+    }
+
+    /**
+     * Compiles a bingo. Approved tiles are skipped.
+     *
+     * @param sequence Build order; a snapshot only replaces one with a lower sequence
+     */
+    static MatcherSnapshot build(Bingo bingo, long sequence) {
+        if (bingo == null || bingo.getTiles() == null) {
+            return empty(sequence);
+        }
+
+        Tile[] tiles = bingo.getTiles().toArray(new Tile[0]);
+        Map<UUID, Integer> ordinalsById = new HashMap<>(tiles.length * 2);
+        for (int ordinal = 0; ordinal < tiles.length; ordinal++) {
+            ordinalsById.put(tiles[ordinal].getId(), ordinal);
+        }
+
+        return compile(bingo, sequence, tiles, Collections.unmodifiableMap(ordinalsById), null, null);
+    }
+
+    /**
+     * Derives a snapshot for a newer state of the same board after some tiles were
+     * replaced by patched copies. Only replaced or changed tiles are looked at: tiles that
+     * became approved are dropped and the rest are indexed again. Every other tile keeps
+     * its existing matches.
+     *
+     * @return The updated snapshot, or null if the board changed in a way that needs a
+     *         full rebuild (different bingo, or tiles added, removed or reordered)
+     */
+    MatcherSnapshot withChangedTiles(Bingo bingo, Set<UUID> changedTileIds, long sequence) {
+        if (bingo == null || bingo.getTiles() == null || !bingo.getId().equals(bingoId)
+                || bingo.getTiles().size() != tiles.length) {
+            return null;
+        }
+
+        Tile[] updatedTiles = bingo.getTiles().toArray(new Tile[0]);
+        boolean[] reindex = new boolean[updatedTiles.length];
+        for (int ordinal = 0; ordinal < updatedTiles.length; ordinal++) {
+            if (!updatedTiles[ordinal].getId().equals(tiles[ordinal].getId())) {
+                return null;
+            }
+            // A replaced tile object is treated as changed even if nobody said so
+            reindex[ordinal] = updatedTiles[ordinal] != tiles[ordinal];
+        }
+        for (UUID tileId : changedTileIds) {
+            Integer ordinal = ordinalsById.get(tileId);
+            if (ordinal == null) {
+                return null;
+            }
+            Tile tile = updatedTiles[ordinal];
+            boolean approved = TileRequirementMatcher.isTileApproved(tile);
+            boolean wasIndexed = indexedTrees[ordinal] != null;
+            reindex[ordinal] |= approved ? wasIndexed : (!wasIndexed || indexedTrees[ordinal] != tile.getGoalTree());
+        }
+
+        return compile(bingo, sequence, updatedTiles, ordinalsById, this, reindex);
+    }
+
+    /**
+     * Builds the match arrays and item index. With a previous snapshot, tiles not flagged
+     * in {@code reindex} reuse their previous matches instead of walking their goal tree.
+     */
+    private static MatcherSnapshot compile(Bingo bingo, long sequence, Tile[] tiles, Map<UUID, Integer> ordinalsById,
+                                           MatcherSnapshot previous, boolean[] reindex) {
+        List<TileMatch> matches = new ArrayList<>();
+        Set<Integer> items = new HashSet<>();
+        ItemIndex.Builder itemToMatches = new ItemIndex.Builder();
+        List<?>[] indexedTrees = new List<?>[tiles.length];
+        int[] firstMatch = new int[tiles.length];
+        int[] matchCount = new int[tiles.length];
+        GoalTreeEvaluator[] evaluators = new GoalTreeEvaluator[tiles.length];
+        EventGoalIndex.EventHit[][] eventGoals = new EventGoalIndex.EventHit[tiles.length][];
+        List<EventGoalIndex.EventHit> allEventGoals = new ArrayList<>();
+        int trackable = 0;
+
+        for (int ordinal = 0; ordinal < tiles.length; ordinal++) {
+            Tile tile = tiles[ordinal];
+            firstMatch[ordinal] = matches.size();
+
+            if (previous != null && !reindex[ordinal]) {
+                indexedTrees[ordinal] = previous.indexedTrees[ordinal];
+                evaluators[ordinal] = previous.evaluators[ordinal];
+                eventGoals[ordinal] = previous.eventGoals[ordinal];
+                int start = previous.firstMatch[ordinal];
+                for (int i = start; i < start + previous.matchCount[ordinal]; i++) {
+                    addMatch(previous.matches[i], matches, items, itemToMatches);
+                }
+            } else if (!TileRequirementMatcher.isTileApproved(tile)) {
+                indexedTrees[ordinal] = tile.getGoalTree();
+                Map<GoalSource, List<GoalTreeNode>> itemGoals = collectItemGoals(tile);
+                List<GoalTreeNode> tileEventGoals = new ArrayList<>();
+                collectEventGoals(tile.getGoalTree(), tileEventGoals);
+                Map<GoalTreeNode, Integer> leafNumbers = new IdentityHashMap<>();
+                if (!itemGoals.isEmpty() || !tileEventGoals.isEmpty()) {
+                    evaluators[ordinal] = GoalTreeEvaluator.compile(tile.getGoalTree(), leafNumbers);
+                }
+                if (!tileEventGoals.isEmpty()) {
+                    eventGoals[ordinal] = new EventGoalIndex.EventHit[tileEventGoals.size()];
+                    for (int i = 0; i < tileEventGoals.size(); i++) {
+                        GoalTreeNode goal = tileEventGoals.get(i);
+                        eventGoals[ordinal][i] = new EventGoalIndex.EventHit(ordinal, goal, leafNumbers.get(goal));
+                    }
+                }
+                for (Map.Entry<GoalSource, List<GoalTreeNode>> entry : itemGoals.entrySet()) {
+                    TileMatch match = TileMatch.create(ordinal, tile, entry.getKey(),
+                            entry.getValue().toArray(new GoalTreeNode[0]), leafNumbers);
+                    addMatch(match, matches, items, itemToMatches);
+                }
+            }
+
+            matchCount[ordinal] = matches.size() - firstMatch[ordinal];
+            if (eventGoals[ordinal] != null) {
+                Collections.addAll(allEventGoals, eventGoals[ordinal]);
+            }
+            if (matchCount[ordinal] > 0 || eventGoals[ordinal] != null) {
+                trackable++;
+            }
+        }
+
+        return new MatcherSnapshot(bingo.getId(), bingo.getUpdatedAt(), sequence, tiles, ordinalsById,
+                itemToMatches.build(), matches.toArray(new TileMatch[0]), items.size(), toBitSet(items), trackable,
+                indexedTrees, firstMatch, matchCount, evaluators, eventGoals, EventGoalIndex.build(allEventGoals));
+    }
+
+    private static long[] toBitSet(Set<Integer> items) {
+        int max = -1;
+        for (int itemId : items) {
+            max = Math.max(max, itemId);
+        }
+        long[] bits = new long[(max >>> 6) + 1];
+        for (int itemId : items) {
+            if (itemId >= 0) {
+                bits[itemId >>> 6] |= 1L << itemId;
+            }
+        }
+        return bits;
+    }
+
+    private static void addMatch(TileMatch match, List<TileMatch> matches, Set<Integer> items,
+                                 ItemIndex.Builder itemToMatches) {
+        for (long key : match.keys) {
+            itemToMatches.add(key, matches.size());
+        }
+        items.add(match.itemId);
+        matches.add(match);
+    }
+
+    /**
+     * Index key for goals that accept the item from any source.
+     */
+    static long itemKey(int itemId) {
+        return itemId & 0x7FFFFFFFL;
+    }
+
+    /**
+     * Index key for goals that only accept the item from one NPC.
+     */
+    static long npcKey(int itemId, int npcId) {
+        return NPC_KEY_TAG | ((npcId & 0x7FFFFFFFL) << 31) | itemKey(itemId);
+    }
+
+    /**
+     * Index key for goals that only accept the item inside one region.
+     */
+    static long regionKey(int itemId, int regionId) {
+        return REGION_KEY_TAG | ((regionId & 0x7FFFFFFFL) << 31) | itemKey(itemId);
+    }
+    /**
+     * Groups a tile's item goal nodes by item and source restrictions, in tree order.
+     */
+    static Map<GoalSource, List<GoalTreeNode>> collectItemGoals(Tile tile) {
+        Map<GoalSource, List<GoalTreeNode>> goalsBySource = new LinkedHashMap<>();
+        if (tile.getGoalTree() != null) {
+            collectItemGoals(tile.getGoalTree(), goalsBySource);
+        }
+        return goalsBySource;
+    }
+
+    private static void collectItemGoals(List<GoalTreeNode> nodes, Map<GoalSource, List<GoalTreeNode>> goalsBySource) {
+        for (GoalTreeNode node : nodes) {
+            if (node.isItemGoal() && node.getItemGoal() != null && node.getItemGoal().getItemId() != null) {
+                goalsBySource.computeIfAbsent(new GoalSource(node.getItemGoal()), k -> new ArrayList<>()).add(node);
+            } else if (node.isGroup() && node.getChildren() != null) {
+                collectItemGoals(node.getChildren(), goalsBySource);
+            }
+        }
+    }
+
+    private static void collectEventGoals(List<GoalTreeNode> nodes, List<GoalTreeNode> eventGoals) {
+        if (nodes == null) {
+            return;
+        }
+        for (GoalTreeNode node : nodes) {
+            if (node.isEventGoal()) {
+                eventGoals.add(node);
+            } else if (node.isGroup()) {
+                collectEventGoals(node.getChildren(), eventGoals);
+            }
+        }
+    }
+
+    /**
+     * Returns the ordinals of the {@link TileMatch}es indexed under a key. Does not allocate.
+     *
+     * @see #itemKey
+     * @see #npcKey
+     * @see #regionKey
+     */
+    int[] matchesFor(long key) {
+        return itemToMatches.get(key);
+    }
+
+    TileMatch match(int ordinal) {
+        return matches[ordinal];
+    }
+
+    /**
+     * Whether any match is indexed for the item, whatever its source. False means the
+     * item is irrelevant to this board; true still needs a lookup.
+     */
+    boolean mayRequire(int itemId) {
+        int word = itemId >>> 6;
+        return word < itemBits.length && (itemBits[word] & (1L << itemId)) != 0;
+    }
+
+    /**
+     * Ors the item bits of this snapshot into another bitset, growing it as needed.
+     */
+    long[] orItemBits(long[] into) {
+        long[] result = into.length >= itemBits.length ? into : Arrays.copyOf(into, itemBits.length);
+        for (int i = 0; i < itemBits.length; i++) {
+            result[i] |= itemBits[i];
+        }
+        return result;
+    }
+
+    /**
+     * Checks if any unapproved tile has an incomplete goal for the item that accepts the
+     * source. Probes the plain item key, then the NPC and region keys the source has,
+     * without allocating.
+     */
+    boolean hasOpenMatch(int itemId, LootSource source) {
+        if (hasOpenMatch(itemKey(itemId), source)) {
+            return true;
+        }
+        Integer npcId = source.getNpcId();
+        if (npcId != null && hasOpenMatch(npcKey(itemId, npcId), source)) {
+            return true;
+        }
+        int regionId = source.getRegionId();
+        return regionId != LootSource.UNKNOWN_REGION && hasOpenMatch(regionKey(itemId, regionId), source);
+    }
+
+    private boolean hasOpenMatch(long key, LootSource source) {
+        for (int ordinal : itemToMatches.get(key)) {
+            TileMatch match = matches[ordinal];
+            if (!TileRequirementMatcher.isTileApproved(match.tile) && !match.isComplete() && match.accepts(source)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds every unapproved tile with an incomplete goal for the item that accepts the
+     * source, each tile once, with what the drop is predicted to do to it.
+     *
+     * @param quantity How many of the item dropped
+     */
+    void collectOpenTiles(int itemId, LootSource source, int quantity, List<BoardTile> result) {
+        List<TileMatch> open = new ArrayList<>();
+        collectOpenMatches(itemKey(itemId), source, open);
+        Integer npcId = source.getNpcId();
+        if (npcId != null) {
+            collectOpenMatches(npcKey(itemId, npcId), source, open);
+        }
+        int regionId = source.getRegionId();
+        if (regionId != LootSource.UNKNOWN_REGION) {
+            collectOpenMatches(regionKey(itemId, regionId), source, open);
+        }
+
+        // A tile can have goals for the item under more than one key; predict them together
+        for (int i = 0; i < open.size(); i++) {
+            TileMatch first = open.get(i);
+            boolean seen = false;
+            for (int j = 0; j < i && !seen; j++) {
+                seen = open.get(j).tileOrdinal == first.tileOrdinal;
+            }
+            if (!seen) {
+                result.add(toBoardTile(first.tileOrdinal, open, i, quantity));
+            }
+        }
+    }
+
+    private void collectOpenMatches(long key, LootSource source, List<TileMatch> open) {
+        for (int ordinal : itemToMatches.get(key)) {
+            TileMatch match = matches[ordinal];
+            Tile tile = match.tile;
+            if (TileRequirementMatcher.isTileApproved(tile) || !match.accepts(source)) {
+                continue;
+            }
+
+            // CRITICAL: Check if the specific goal for this item is already complete
+            // This prevents re-submitting screenshots for goals that are already done
+            if (match.isComplete()) {
+                log.debug("Skipping tile {} for item {} - goal already complete", tile.getId(), match.itemId);
+                continue;
+            }
+            open.add(match);
+        }
+    }
+
+    private BoardTile toBoardTile(int tileOrdinal, List<TileMatch> open, int from, int quantity) {
+        GoalTreeEvaluator evaluator = evaluators[tileOrdinal];
+        long[] droppedLeaves = new long[(evaluator.getLeafCount() + 63) >>> 6];
+        List<GoalTreeNode> goals = new ArrayList<>();
+        for (int i = from; i < open.size(); i++) {
+            TileMatch match = open.get(i);
+            if (match.tileOrdinal == tileOrdinal) {
+                for (int leaf : match.leaves) {
+                    droppedLeaves[leaf >>> 6] |= 1L << leaf;
+                }
+                Collections.addAll(goals, match.goals);
+            }
+        }
+        return new BoardTile(bingoId, tiles[tileOrdinal].getId(), evaluator.predict(droppedLeaves, quantity),
+                Collections.unmodifiableList(goals));
+    }
+
+    /**
+     * Adds every unapproved tile with an incomplete goal among the event hits, each tile
+     * once, with what the event is predicted to do to it.
+     *
+     * @param quantity How much the event counts toward each goal
+     */
+    void collectEventTiles(List<EventGoalIndex.EventHit> hits, int quantity, List<BoardTile> result) {
+        for (int i = 0; i < hits.size(); i++) {
+            EventGoalIndex.EventHit first = hits.get(i);
+            Tile tile = tiles[first.tileOrdinal];
+            if (TileRequirementMatcher.isTileApproved(tile)) {
+                continue;
+            }
+
+            boolean seen = false;
+            for (int j = 0; j < i && !seen; j++) {
+                seen = hits.get(j).tileOrdinal == first.tileOrdinal;
+            }
+            if (seen) {
+                continue;
+            }
+
+            GoalTreeEvaluator evaluator = evaluators[first.tileOrdinal];
+            long[] eventLeaves = new long[(evaluator.getLeafCount() + 63) >>> 6];
+            List<GoalTreeNode> goals = new ArrayList<>();
+            for (int j = i; j < hits.size(); j++) {
+                EventGoalIndex.EventHit hit = hits.get(j);
+                if (hit.tileOrdinal == first.tileOrdinal && !isGoalComplete(hit.goal)) {
+                    eventLeaves[hit.leaf >>> 6] |= 1L << hit.leaf;
+                    goals.add(hit.goal);
+                }
+            }
+            if (!goals.isEmpty()) {
+                result.add(new BoardTile(bingoId, tile.getId(), evaluator.predict(eventLeaves, quantity),
+                        Collections.unmodifiableList(goals)));
+            }
+        }
+    }
+
+    private static boolean isGoalComplete(GoalTreeNode goal) {
+        return goal.getProgress() != null && goal.getProgress().isComplete();
+    }
+
+    /**
+     * The board's event goals.
+     */
+    EventGoalIndex getEventIndex() {
+        return eventIndex;
+    }
+
+    /**
+     * Resolves a tile ID in constant time, or returns null if the tile is not on the board.
+     */
+    Tile getTile(UUID tileId) {
+        Integer ordinal = ordinalsById.get(tileId);
+        return ordinal != null ? tiles[ordinal] : null;
+    }
+
+    /**
+     * The bingo this snapshot was compiled from, or null for an empty snapshot.
+     */
+    UUID getBingoId() {
+        return bingoId;
+    }
+
+    /**
+     * The bingo's updatedAt when the snapshot was compiled.
+     */
+    Date getVersion() {
+        return version;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    int getTrackedItemCount() {
+        return trackedItems;
+    }
+
+    int getTrackableTileCount() {
+        return trackableTiles;
+    }
+
+    int getTileCount() {
+        return tiles.length;
+    }
+
+    /**
+     * Number of (tile, item, source) matches, a rough measure of the snapshot's size.
+     */
+    int getMatchCount() {
+        return matches.length;
+    }
+
+    /**
+     * The goal nodes of one tile that require one item.
+     */
+    static final class TileMatch {
+        private final int tileOrdinal;
+        private final Tile tile;
+        private final int itemId;
+        private final GoalTreeNode[] goals;
+        private final long[] keys;
+        // Bit per LootRecordType ordinal, 0 if any type is accepted
+        private final int lootTypeMask;
+        // Sorted regions still to check when the match is keyed by NPC, null if none
+        private final int[] requiredRegions;
+        // Leaf numbers of the goals in the tile's GoalTreeEvaluator
+        private final int[] leaves;
+
+        private TileMatch(int tileOrdinal, Tile tile, int itemId, GoalTreeNode[] goals, long[] keys,
+                          int lootTypeMask, int[] requiredRegions, int[] leaves) {
+            this.tileOrdinal = tileOrdinal;
+            this.tile = tile;
+            this.itemId = itemId;
+            this.goals = goals;
+            this.keys = keys;
+            this.lootTypeMask = lootTypeMask;
+            this.requiredRegions = requiredRegions;
+            this.leaves = leaves;
+        }
+
+        private static TileMatch create(int tileOrdinal, Tile tile, GoalSource source, GoalTreeNode[] goals,
+                                        Map<GoalTreeNode, Integer> leafNumbers) {
+            int itemId = source.itemId;
+            int[] npcIds = toSortedArray(source.npcIds);
+            int[] regionIds = toSortedArray(source.regionIds);
+
+            long[] keys;
+            int[] requiredRegions = null;
+            if (npcIds != null) {
+                keys = new long[npcIds.length];
+                for (int i = 0; i < npcIds.length; i++) {
+                    keys[i] = npcKey(itemId, npcIds[i]);
+                }
+                requiredRegions = regionIds;
+            } else if (regionIds != null) {
+                keys = new long[regionIds.length];
+                for (int i = 0; i < regionIds.length; i++) {
+                    keys[i] = regionKey(itemId, regionIds[i]);
+                }
+            } else {
+                keys = new long[]{itemKey(itemId)};
+            }
+
+            int[] leaves = new int[goals.length];
+            for (int i = 0; i < goals.length; i++) {
+                leaves[i] = leafNumbers.get(goals[i]);
+            }
+
+            return new TileMatch(tileOrdinal, tile, itemId, goals, keys, lootTypeMask(source.lootTypes),
+                    requiredRegions, leaves);
+        }
+
+        private static int[] toSortedArray(List<Integer> values) {
+            if (values == null || values.isEmpty()) {
+                return null;
+            }
+            int[] result = values.stream().filter(Objects::nonNull).mapToInt(Integer::intValue)
+                    .sorted().distinct().toArray();
+            return result.length > 0 ? result : null;
+        }
+
+        private static int lootTypeMask(List<String> lootTypes) {
+            if (lootTypes == null || lootTypes.isEmpty()) {
+                return 0;
+            }
+            // Keep an impossible bit so a list of only unknown types matches nothing
+            int mask = 1 << 31;
+            for (String name : lootTypes) {
+                try {
+                    mask |= 1 << LootRecordType.valueOf(name).ordinal();
+                } catch (IllegalArgumentException | NullPointerException e) {
+                    log.debug("Ignoring unknown loot type restriction: {}", name);
+                }
+            }
+            return mask;
+        }
+
+        /**
+         * Checks the restrictions not already covered by the key the match was found under.
+         */
+        boolean accepts(LootSource source) {
+            if (lootTypeMask != 0 && (source.getType() == null
+                    || (lootTypeMask & (1 << source.getType().ordinal())) == 0)) {
+                return false;
+            }
+            return requiredRegions == null || Arrays.binarySearch(requiredRegions, source.getRegionId()) >= 0;
+        }
+
+        int getTileOrdinal() {
+            return tileOrdinal;
+        }
+
+        Tile getTile() {
+            return tile;
+        }
+
+        int getItemId() {
+            return itemId;
+        }
+
+        GoalTreeNode[] getGoals() {
+            return goals;
+        }
+
+        /**
+         * True if every goal for the item is complete, so another drop won't help.
+         */
+        boolean isComplete() {
+            for (GoalTreeNode goal : goals) {
+                if (goal.getProgress() == null || !goal.getProgress().isComplete()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * An item together with the source restrictions of the goals that want it.
+     */
+    static final class GoalSource {
+        private final int itemId;
+        private final List<Integer> npcIds;
+        private final List<String> lootTypes;
+        private final List<Integer> regionIds;
+
+        private GoalSource(ItemGoal itemGoal) {
+            this.itemId = itemGoal.getItemId();
+            this.npcIds = itemGoal.getNpcIds();
+            this.lootTypes = itemGoal.getLootTypes();
+            this.regionIds = itemGoal.getRegionIds();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof GoalSource)) {
+                return false;
+            }
+            GoalSource other = (GoalSource) o;
+            return itemId == other.itemId
+                    && Objects.equals(npcIds, other.npcIds)
+                    && Objects.equals(lootTypes, other.lootTypes)
+                    && Objects.equals(regionIds, other.regionIds);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(itemId, npcIds, lootTypes, regionIds);
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package org.bingoscape.services;
+
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Skill;
+import org.bingoscape.BingoScapeConfig;
+import org.bingoscape.models.Bingo;
+import org.bingoscape.models.EventData;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Matches loot against every unlocked bingo of the active events, not only the
+ * selected one, so a drop that counts on a board the user isn't looking at still
+ * gets submitted.
+ * <p>
+ * Each board is compiled into its own {@link MatcherSnapshot}. The selected board is
+ * served by {@link TileRequirementMatcher}, which keeps its snapshot current through
+ * incremental updates; every other board uses the prefetched copy if there is one. The
+ * rest are only fetched once loot first reaches the pre-filter, in the background and
+ * one board at a time, and nothing is tracked while auto-submission is off. Boards are indexed in
+ * event order until the combined index holds {@value #MAX_INDEXED_MATCHES} matches;
+ * boards past the cap are left out rather than evicting higher-priority events.
+ */
+@Slf4j
+@Singleton
+public class MultiBoardMatcher {
+    private static final int MAX_INDEXED_MATCHES = 20_000;
+    private static final Duration FETCH_TIMEOUT = Duration.ofSeconds(20);
+
+    private final TileRequirementMatcher requirementMatcher;
+    private final BoardPrefetcher boardPrefetcher;
+    private final BingoScapeApiService apiService;
+    private final BingoScapeConfig config;
+
+    // Unlocked bingos of the active events, in event priority order (guarded by this)
+    private final Set<UUID> trackedBingos = new LinkedHashSet<>();
+    private final Map<UUID, MatcherSnapshot> compiled = new LinkedHashMap<>();
+    private final Deque<UUID> pendingLoads = new ArrayDeque<>();
+    private UUID loading;
+    // Set while tracked boards are neither cached nor fetched yet, see #requestLoads
+    private volatile boolean loadsWanted;
+
+    // Snapshots lookups iterate, replaced as a whole whenever the index changes
+    private volatile List<MatcherSnapshot> indexed = Collections.emptyList();
+    private volatile int skippedBoards;
+    // Event triggers the indexed boards have goals for, see EventTrigger#bit
+    private volatile int indexedTriggerMask;
+    // Union of the indexed boards' item bits, see MatcherSnapshot#mayRequire
+    private volatile long[] indexedItemBits = new long[0];
+
+    private final AtomicLong buildSequence = new AtomicLong();
+
+    @Inject
+    public MultiBoardMatcher(TileRequirementMatcher requirementMatcher, BoardPrefetcher boardPrefetcher,
+                             BingoScapeApiService apiService, BingoScapeConfig config) {
+        this.requirementMatcher = requirementMatcher;
+        this.boardPrefetcher = boardPrefetcher;
+        this.apiService = apiService;
+        this.config = config;
+    }
+
+    public void shutDown() {
+        clear();
+    }
+
+    /**
+     * Drops every tracked board and the combined index, e.g. when auto-submission is
+     * turned off. A load that is still running finishes but is no longer indexed.
+     */
+    public synchronized void clear() {
+        trackedBingos.clear();
+        compiled.clear();
+        pendingLoads.clear();
+        loading = null;
+        loadsWanted = false;
+        publishIndex();
+    }
+
+    /**
+     * Tracks the unlocked bingos of the given events while auto-submission is enabled.
+     * Boards that are already cached are indexed right away; the rest are left for
+     * {@link #requestLoads} to fetch once there is loot to match.
+     */
+    public synchronized void setActiveEvents(List<EventData> events) {
+        if (!config.enableAutoSubmission()) {
+            clear();
+            return;
+        }
+
+        trackedBingos.clear();
+        pendingLoads.clear();
+        boolean missing = false;
+        for (EventData event : events) {
+            if (event.getBingos() == null) {
+                continue;
+            }
+            for (Bingo bingo : event.getBingos()) {
+                if (!bingo.isLocked()) {
+                    trackedBingos.add(bingo.getId());
+                }
+            }
+        }
+        compiled.keySet().retainAll(trackedBingos);
+
+        for (UUID bingoId : trackedBingos) {
+            if (compiled.containsKey(bingoId)) {
+                continue;
+            }
+            Bingo cached = boardPrefetcher.getCached(bingoId);
+            if (cached != null) {
+                compiled.put(bingoId, MatcherSnapshot.build(cached, buildSequence.incrementAndGet()));
+            } else if (!bingoId.equals(loading)) {
+                missing = true;
+            }
+        }
+        loadsWanted = missing;
+        publishIndex();
+    }
+
+    /**
+     * Queues a background load for every tracked board that isn't indexed yet. Called
+     * the first time loot reaches the pre-filter after the events changed, so boards
+     * are only fetched once there is something to match against them. A board that
+     * fails to load is not retried until the events are set again.
+     */
+    private void requestLoads() {
+        synchronized (this) {
+            if (!loadsWanted) {
+                return;
+            }
+            loadsWanted = false;
+            for (UUID bingoId : trackedBingos) {
+                if (!compiled.containsKey(bingoId) && !bingoId.equals(loading)
+                        && !pendingLoads.contains(bingoId)) {
+                    pendingLoads.add(bingoId);
+                }
+            }
+        }
+
+        loadNext();
+    }
+
+    /**
+     * Re-indexes a board after a newer copy of it was fetched or patched.
+     */
+    public void onBoardUpdated(Bingo bingo) {
+        if (bingo == null) {
+            return;
+        }
+        synchronized (this) {
+            if (!trackedBingos.contains(bingo.getId())) {
+                return;
+            }
+            compiled.put(bingo.getId(), MatcherSnapshot.build(bingo, buildSequence.incrementAndGet()));
+            publishIndex();
+        }
+    }
+
+    /**
+     * Loads the next board nobody has viewed yet, one at a time so the background
+     * loads stay out of the way of the boards the user is looking at.
+     */
+    private void loadNext() {
+        UUID bingoId;
+        synchronized (this) {
+            if (loading != null || pendingLoads.isEmpty()) {
+                return;
+            }
+            bingoId = pendingLoads.poll();
+            loading = bingoId;
+        }
+
+        apiService.refreshBingoBoard(bingoId, FETCH_TIMEOUT).whenComplete((bingo, error) -> {
+            synchronized (this) {
+                if (bingoId.equals(loading)) {
+                    loading = null;
+                }
+            }
+
+            if (error != null) {
+                log.debug("Failed to load bingo {} for matching: {}", bingoId, error.getMessage());
+            } else {
+                boardPrefetcher.put(bingo);
+                onBoardUpdated(bingo);
+            }
+
+            loadNext();
+        });
+    }
+
+    /**
+     * Rebuilds the list lookups iterate, in event order and within the match cap.
+     * Must be called while holding the lock.
+     */
+    private void publishIndex() {
+        List<MatcherSnapshot> snapshots = new ArrayList<>();
+        int total = 0;
+        int skipped = 0;
+        int triggerMask = 0;
+        long[] itemBits = new long[0];
+        for (UUID bingoId : trackedBingos) {
+            MatcherSnapshot snapshot = compiled.get(bingoId);
+            if (snapshot == null || snapshot.getTrackableTileCount() == 0) {
+                continue;
+            }
+            if (total + snapshot.getMatchCount() > MAX_INDEXED_MATCHES) {
+                skipped++;
+                continue;
+            }
+            total += snapshot.getMatchCount();
+            triggerMask |= snapshot.getEventIndex().getTriggerMask();
+            itemBits = snapshot.orItemBits(itemBits);
+            snapshots.add(snapshot);
+        }
+
+        if (skipped > 0) {
+            log.warn("Leaving {} bingo(s) out of auto-submission matching, index is full ({} matches)",
+                    skipped, total);
+        }
+        indexed = Collections.unmodifiableList(snapshots);
+        skippedBoards = skipped;
+        indexedTriggerMask = triggerMask;
+        indexedItemBits = itemBits;
+    }
+
+    /**
+     * Membership pre-check: false if no tracked board has a goal for the item from any
+     * source. Reads two bitsets and never allocates.
+     */
+    public boolean mayBeRequired(int itemId) {
+        if (loadsWanted) {
+            requestLoads();
+        }
+        long[] bits = indexedItemBits;
+        int word = itemId >>> 6;
+        if (word < bits.length && (bits[word] & (1L << itemId)) != 0) {
+            return true;
+        }
+        return requirementMatcher.currentSnapshot().mayRequire(itemId);
+    }
+
+    /**
+     * Checks if an item drop from the given source is required by any tracked board.
+     */
+    public boolean isRequiredItem(int itemId, LootSource source) {
+        MatcherSnapshot selected = requirementMatcher.currentSnapshot();
+        if (selected.hasOpenMatch(itemId, source)) {
+            return true;
+        }
+        for (MatcherSnapshot snapshot : indexed) {
+            if (!isSelected(snapshot, selected) && snapshot.hasOpenMatch(itemId, source)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the tiles on every tracked board that an item drop from the given source
+     * counts toward, selected board first, with what the drop would do to each.
+     *
+     * @param itemId   The OSRS item ID
+     * @param source   Where the item came from
+     * @param quantity How many of the item dropped
+     * @return The matching tiles with the bingo each belongs to
+     */
+    public List<BoardTile> getTilesForItem(int itemId, LootSource source, int quantity) {
+        List<BoardTile> result = new ArrayList<>();
+
+        MatcherSnapshot selected = requirementMatcher.currentSnapshot();
+        selected.collectOpenTiles(itemId, source, quantity, result);
+        for (MatcherSnapshot snapshot : indexed) {
+            if (!isSelected(snapshot, selected)) {
+                snapshot.collectOpenTiles(itemId, source, quantity, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Bits of the {@link EventTrigger}s any tracked board has goals for. Callers check
+     * this before doing any work for an event.
+     */
+    public int getTriggerMask() {
+        return indexedTriggerMask | requirementMatcher.currentSnapshot().getEventIndex().getTriggerMask();
+    }
+
+    /**
+     * Gets the tiles whose XP or level goals a stat change crossed.
+     */
+    public List<BoardTile> getTilesForSkill(Skill skill, int oldXp, int newXp, int oldLevel, int newLevel) {
+        // Crossing a threshold completes the goal outright
+        return collectEventTiles(Integer.MAX_VALUE,
+                (index, hits) -> index.collectCrossed(skill, oldXp, newXp, oldLevel, newLevel, hits));
+    }
+
+    /**
+     * Gets the tiles a kill count, collection log or pet message counts toward.
+     */
+    public List<BoardTile> getTilesForChat(ChatEvent event) {
+        return collectEventTiles(1, (index, hits) -> index.collectChat(event, hits));
+    }
+
+    private List<BoardTile> collectEventTiles(int quantity,
+                                              BiConsumer<EventGoalIndex, List<EventGoalIndex.EventHit>> lookup) {
+        List<BoardTile> result = new ArrayList<>();
+        List<EventGoalIndex.EventHit> hits = new ArrayList<>();
+
+        MatcherSnapshot selected = requirementMatcher.currentSnapshot();
+        lookup.accept(selected.getEventIndex(), hits);
+        selected.collectEventTiles(hits, quantity, result);
+        for (MatcherSnapshot snapshot : indexed) {
+            if (!isSelected(snapshot, selected)) {
+                hits.clear();
+                lookup.accept(snapshot.getEventIndex(), hits);
+                snapshot.collectEventTiles(hits, quantity, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The selected board is matched against the requirement matcher's snapshot, which
+     * is kept more current than the copy held here.
+     */
+    private static boolean isSelected(MatcherSnapshot snapshot, MatcherSnapshot selected) {
+        return selected.getBingoId() != null && selected.getBingoId().equals(snapshot.getBingoId());
+    }
+
+    /**
+     * Returns true if any tracked board, including the selected one, has trackable tiles.
+     */
+    public boolean hasTrackableTiles() {
+        return requirementMatcher.hasTrackableTiles() || !indexed.isEmpty();
+    }
+
+    /**
+     * Gets statistics about the combined index for debugging.
+     */
+    public String getStats() {
+        List<MatcherSnapshot> snapshots = indexed;
+        int matches = 0;
+        for (MatcherSnapshot snapshot : snapshots) {
+            matches += snapshot.getMatchCount();
+        }
+        int tracked;
+        int pending;
+        synchronized (this) {
+            tracked = trackedBingos.size();
+            pending = pendingLoads.size() + (loading != null ? 1 : 0);
+        }
+        return String.format("Multi-board: %d/%d boards indexed (%d matches, %d skipped, %d loading). %s",
+                snapshots.size(), tracked, matches, skippedBoards, pending, requirementMatcher.getStats());
+    }
+}
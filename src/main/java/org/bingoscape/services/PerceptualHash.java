@@ -0,0 +1,56 @@
+package org.bingoscape.services;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Difference hash (dHash) of an image: the image is reduced to a 9x8 grayscale grid
+ * and each bit records whether a cell is brighter than its right neighbour. Small
+ * changes such as compression noise or a moved mouse cursor flip few bits, so the
+ * Hamming distance between two hashes measures how alike the images look.
+ */
+final class PerceptualHash {
+    private static final int GRID_WIDTH = 9;
+    private static final int GRID_HEIGHT = 8;
+    // Pixels sampled per cell along each axis, enough to average out single-pixel detail
+    private static final int SAMPLES = 6;
+
+    private PerceptualHash() {
+    }
+
+    static long dHash(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] luma = new int[GRID_WIDTH * GRID_HEIGHT];
+
+        for (int cellY = 0; cellY < GRID_HEIGHT; cellY++) {
+            for (int cellX = 0; cellX < GRID_WIDTH; cellX++) {
+                int sum = 0;
+                for (int sy = 0; sy < SAMPLES; sy++) {
+                    int y = (int) (((cellY * SAMPLES + sy) * 2L + 1) * height / (2L * GRID_HEIGHT * SAMPLES));
+                    for (int sx = 0; sx < SAMPLES; sx++) {
+                        int x = (int) (((cellX * SAMPLES + sx) * 2L + 1) * width / (2L * GRID_WIDTH * SAMPLES));
+                        int rgb = image.getRGB(x, y);
+                        // Integer Rec. 601 luma
+                        sum += (299 * ((rgb >> 16) & 0xFF) + 587 * ((rgb >> 8) & 0xFF) + 114 * (rgb & 0xFF)) / 1000;
+                    }
+                }
+                luma[cellY * GRID_WIDTH + cellX] = sum;
+            }
+        }
+
+        long hash = 0;
+        for (int row = 0; row < GRID_HEIGHT; row++) {
+            for (int col = 0; col < GRID_WIDTH - 1; col++) {
+                hash <<= 1;
+                if (luma[row * GRID_WIDTH + col] > luma[row * GRID_WIDTH + col + 1]) {
+                    hash |= 1;
+                }
+            }
+        }
+        return hash;
+    }
+
+    static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+}
@@ -0,0 +1,26 @@
+package org.bingoscape.services;
+
+/**
+ * Priority classes for outgoing requests, most important first.
+ * When a host is under pressure, lower classes wait behind higher ones, and a
+ * request is shed outright if the host queue already holds its shed threshold.
+ */
+public enum RequestPriority {
+    SUBMISSION(Integer.MAX_VALUE),
+    BOARD_REFRESH(48),
+    EVENTS(16),
+    IMAGE(8);
+
+    private final int shedThreshold;
+
+    RequestPriority(int shedThreshold) {
+        this.shedThreshold = shedThreshold;
+    }
+
+    /**
+     * Queue depth at which new requests of this class are rejected instead of queued.
+     */
+    public int getShedThreshold() {
+        return shedThreshold;
+    }
+}
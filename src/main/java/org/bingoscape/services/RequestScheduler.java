@@ -0,0 +1,213 @@
+package org.bingoscape.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bingoscape.services.metrics.LatencyHistogram;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Client-side token bucket per host that orders outgoing requests by {@link RequestPriority}.
+ * <p>
+ * Callers {@link #acquire} a permit before sending. Permits are granted immediately while
+ * the host has tokens and nothing is waiting; otherwise the request waits in a priority
+ * queue, so submissions go out before board refreshes, event lists and images. When the
+ * server answers 429 the host is paused for the Retry-After period.
+ */
+@Slf4j
+@Singleton
+public class RequestScheduler {
+    private static final double TOKENS_PER_SECOND = 5.0;
+    private static final double BURST = 10.0;
+    private static final long WAIT_WINDOW_MS = TimeUnit.MINUTES.toMillis(10);
+
+    private static final Comparator<Waiter> WAITER_ORDER = Comparator
+            .comparing((Waiter w) -> w.priority)
+            .thenComparingLong(w -> w.sequence);
+
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, HostBucket> hosts = new ConcurrentHashMap<>();
+
+    private final Map<RequestPriority, LatencyHistogram> waitTimes = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, LongAdder> shedCounts = new EnumMap<>(RequestPriority.class);
+
+    @Inject
+    public RequestScheduler(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+        for (RequestPriority priority : RequestPriority.values()) {
+            waitTimes.put(priority, new LatencyHistogram(WAIT_WINDOW_MS));
+            shedCounts.put(priority, new LongAdder());
+        }
+    }
+
+    /**
+     * Requests permission to send a request to the given host.
+     *
+     * @return A future completed when the request may be sent, or completed exceptionally
+     *         with a {@link RejectedExecutionException} if it was shed
+     */
+    public CompletableFuture<Void> acquire(String host, RequestPriority priority) {
+        HostBucket bucket = hosts.computeIfAbsent(host, h -> new HostBucket());
+        Waiter waiter = new Waiter(priority, System.nanoTime());
+
+        synchronized (bucket) {
+            bucket.refill(waiter.enqueuedAt);
+            if (bucket.queue.isEmpty() && bucket.canSend(waiter.enqueuedAt)) {
+                bucket.tokens -= 1;
+                waitTimes.get(priority).record(0);
+                waiter.permit.complete(null);
+                return waiter.permit;
+            }
+
+            if (bucket.queue.size() >= priority.getShedThreshold()) {
+                shedCounts.get(priority).increment();
+                log.debug("Shedding {} request to {}, {} already queued", priority, host, bucket.queue.size());
+                waiter.permit.completeExceptionally(new RejectedExecutionException(
+                        "Too many queued requests to " + host));
+                return waiter.permit;
+            }
+
+            waiter.sequence = bucket.nextSequence++;
+            bucket.queue.add(waiter);
+            scheduleDrain(bucket, waiter.enqueuedAt);
+        }
+        return waiter.permit;
+    }
+
+    /**
+     * Pauses a host after it answered 429 Too Many Requests.
+     */
+    public void onRateLimited(String host, long retryAfterMillis) {
+        HostBucket bucket = hosts.computeIfAbsent(host, h -> new HostBucket());
+        long now = System.nanoTime();
+        synchronized (bucket) {
+            long until = now + TimeUnit.MILLISECONDS.toNanos(retryAfterMillis);
+            if (until - bucket.pausedUntil > 0) {
+                bucket.pausedUntil = until;
+            }
+            bucket.tokens = 0;
+        }
+        log.warn("Rate limited by {}, pausing requests for {} ms", host, retryAfterMillis);
+    }
+
+    private void drain(HostBucket bucket) {
+        List<Waiter> ready = new ArrayList<>();
+        long now = System.nanoTime();
+        synchronized (bucket) {
+            bucket.drainScheduled = false;
+            bucket.refill(now);
+            while (!bucket.queue.isEmpty() && bucket.canSend(now)) {
+                bucket.tokens -= 1;
+                ready.add(bucket.queue.poll());
+            }
+            scheduleDrain(bucket, now);
+        }
+
+        for (Waiter waiter : ready) {
+            waitTimes.get(waiter.priority).record(now - waiter.enqueuedAt);
+            waiter.permit.complete(null);
+        }
+    }
+
+    /**
+     * Schedules the next drain for when a token becomes available (guarded by bucket).
+     */
+    private void scheduleDrain(HostBucket bucket, long now) {
+        if (bucket.drainScheduled || bucket.queue.isEmpty()) {
+            return;
+        }
+
+        long tokenDelay = bucket.tokens >= 1 ? 0 : (long) ((1 - bucket.tokens) / TOKENS_PER_SECOND * 1_000_000_000L);
+        long delayNanos = Math.max(tokenDelay, bucket.pausedUntil - now);
+        bucket.drainScheduled = true;
+        scheduler.schedule(() -> drain(bucket), Math.max(0, delayNanos), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Number of requests currently waiting for a permit, across all hosts.
+     */
+    public int getQueueDepth() {
+        int depth = 0;
+        for (HostBucket bucket : hosts.values()) {
+            synchronized (bucket) {
+                depth += bucket.queue.size();
+            }
+        }
+        return depth;
+    }
+
+    /**
+     * Number of requests of one class currently waiting for a permit.
+     */
+    public int getQueueDepth(RequestPriority priority) {
+        int depth = 0;
+        for (HostBucket bucket : hosts.values()) {
+            synchronized (bucket) {
+                for (Waiter waiter : bucket.queue) {
+                    if (waiter.priority == priority) {
+                        depth++;
+                    }
+                }
+            }
+        }
+        return depth;
+    }
+
+    /**
+     * Time requests of one class spent waiting for a permit.
+     */
+    public LatencyHistogram getWaitTime(RequestPriority priority) {
+        return waitTimes.get(priority);
+    }
+
+    /**
+     * Number of requests of one class that were shed.
+     */
+    public long getShedCount(RequestPriority priority) {
+        return shedCounts.get(priority).sum();
+    }
+
+    private static final class HostBucket {
+        private final PriorityQueue<Waiter> queue = new PriorityQueue<>(WAITER_ORDER);
+        private double tokens = BURST;
+        private long lastRefill = System.nanoTime();
+        // nanoTime values can be negative, so "not paused" starts at creation time
+        private long pausedUntil = lastRefill;
+        private long nextSequence;
+        private boolean drainScheduled;
+
+        private void refill(long now) {
+            double elapsedSeconds = (now - lastRefill) / 1_000_000_000.0;
+            tokens = Math.min(BURST, tokens + elapsedSeconds * TOKENS_PER_SECOND);
+            lastRefill = now;
+        }
+
+        private boolean canSend(long now) {
+            return tokens >= 1 && now - pausedUntil >= 0;
+        }
+    }
+
+    private static final class Waiter {
+        private final RequestPriority priority;
+        private final long enqueuedAt;
+        private final CompletableFuture<Void> permit = new CompletableFuture<>();
+        private long sequence;
+
+        private Waiter(RequestPriority priority, long enqueuedAt) {
+            this.priority = priority;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package org.bingoscape.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bingoscape.BingoScapeConfig;
+import org.bingoscape.DuplicateScreenshotAction;
+
+import javax.imageio.ImageIO;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Catches manual submissions whose screenshot looks the same as one delivered for the
+ * same tile moments ago, such as the same picture submitted twice.
+ * <p>
+ * Screenshots are compared by perceptual hash ({@link PerceptualHash}), so re-encoding
+ * or a moved cursor still counts as the same picture. Each tile keeps the hashes of
+ * its last few delivered submissions within a short window. A hash is only recorded
+ * once the server accepted the submission, so a failed upload never blocks its retry.
+ * Auto-submissions are recorded but not checked: separate drops of the same item can
+ * look alike and are each legitimate.
+ */
+@Slf4j
+@Singleton
+public class ScreenshotDeduplicator {
+    private static final int HISTORY_PER_TILE = 5;
+    private static final int MAX_TILES = 256;
+    private static final long HISTORY_WINDOW_MS = TimeUnit.MINUTES.toMillis(2);
+
+    /**
+     * Result of {@link #check}.
+     */
+    public enum Verdict {
+        SUBMIT,
+        WARN,
+        SKIP
+    }
+
+    private final BingoScapeConfig config;
+    private final ScreenshotPipeline screenshotPipeline;
+
+    // Recent submissions per tile, least recently used tile first (guarded by this)
+    private final Map<UUID, ArrayDeque<Entry>> history = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LongAdder duplicatesWarned = new LongAdder();
+    private final LongAdder duplicatesSkipped = new LongAdder();
+
+    @Inject
+    public ScreenshotDeduplicator(BingoScapeConfig config, ScreenshotPipeline screenshotPipeline) {
+        this.config = config;
+        this.screenshotPipeline = screenshotPipeline;
+    }
+
+    /**
+     * Hashes a screenshot for {@link #check} and {@link #recordDelivered}.
+     *
+     * @return The hash, or null if duplicate detection is off or the screenshot can't be decoded
+     */
+    public Long hash(byte[] screenshotBytes) {
+        if (config.duplicateScreenshots() == DuplicateScreenshotAction.OFF || screenshotBytes == null) {
+            return null;
+        }
+        return hashOf(screenshotBytes);
+    }
+
+    /**
+     * Compares a manual submission's screenshot with the submissions recently delivered
+     * for the tile. Nothing is recorded. Screenshots without a hash are always submitted.
+     */
+    public Verdict check(UUID tileId, Long hash) {
+        DuplicateScreenshotAction action = config.duplicateScreenshots();
+        if (action == DuplicateScreenshotAction.OFF || tileId == null || hash == null) {
+            return Verdict.SUBMIT;
+        }
+
+        int closest;
+        synchronized (this) {
+            ArrayDeque<Entry> entries = history.get(tileId);
+            closest = entries != null ? closestDistance(entries, hash, System.currentTimeMillis()) : -1;
+        }
+        if (closest < 0 || closest > config.duplicateThreshold()) {
+            return Verdict.SUBMIT;
+        }
+        if (action == DuplicateScreenshotAction.SKIP) {
+            duplicatesSkipped.increment();
+            log.debug("Skipping screenshot for tile {}, {} bits from a recent one", tileId, closest);
+            return Verdict.SKIP;
+        }
+        duplicatesWarned.increment();
+        log.debug("Screenshot for tile {} is {} bits from a recent one", tileId, closest);
+        return Verdict.WARN;
+    }
+
+    /**
+     * Records the screenshot of a submission the server accepted, manual or automatic.
+     */
+    public void recordDelivered(UUID tileId, Long hash) {
+        if (tileId == null || hash == null) {
+            return;
+        }
+
+        synchronized (this) {
+            ArrayDeque<Entry> entries = history.computeIfAbsent(tileId, id -> new ArrayDeque<>());
+            entries.addLast(new Entry(hash, System.currentTimeMillis()));
+            if (entries.size() > HISTORY_PER_TILE) {
+                entries.removeFirst();
+            }
+            trimTiles();
+        }
+    }
+
+    /**
+     * Gets statistics about duplicate detection for debugging.
+     */
+    public synchronized String getStats() {
+        return String.format("Screenshot duplicates: tiles=%d, warned=%d, skipped=%d",
+                history.size(), duplicatesWarned.sum(), duplicatesSkipped.sum());
+    }
+
+    private Long hashOf(byte[] screenshotBytes) {
+        Long hash = screenshotPipeline.getHash(screenshotBytes);
+        if (hash != null) {
+            return hash;
+        }
+
+        // Bytes from elsewhere, e.g. restored from disk: decode them once to hash
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(screenshotBytes));
+            return image != null ? PerceptualHash.dHash(image) : null;
+        } catch (IOException e) {
+            log.debug("Could not decode screenshot for duplicate check", e);
+            return null;
+        }
+    }
+
+    /**
+     * Hamming distance to the nearest entry still inside the window, or -1 if there is none.
+     * Drops expired entries on the way.
+     */
+    private static int closestDistance(ArrayDeque<Entry> entries, long hash, long now) {
+        int closest = -1;
+        Iterator<Entry> iterator = entries.iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (now - entry.submittedAt > HISTORY_WINDOW_MS) {
+                iterator.remove();
+                continue;
+            }
+            int distance = PerceptualHash.distance(entry.hash, hash);
+            if (closest < 0 || distance < closest) {
+                closest = distance;
+            }
+        }
+        return closest;
+    }
+
+    private void trimTiles() {
+        Iterator<ArrayDeque<Entry>> iterator = history.values().iterator();
+        while (history.size() > MAX_TILES && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static final class Entry {
+        private final long hash;
+        private final long submittedAt;
+
+        private Entry(long hash, long submittedAt) {
+            this.hash = hash;
+            this.submittedAt = submittedAt;
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package org.bingoscape.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bingoscape.BingoScapeConfig;
+import org.bingoscape.services.metrics.ScreenshotMetrics;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Converts captured frames to image bytes for submission without allocating a full-size
+ * image per screenshot.
+ * <p>
+ * Frames are copied pixel by pixel into pooled {@code TYPE_INT_RGB} rasters keyed by
+ * size, cropped and scaled down as configured, and written by the configured
+ * {@link EvidenceEncoder} into an output buffer that keeps its capacity between screenshots.
+ * Encoding runs on one dedicated thread with a short queue; screenshots beyond that
+ * are rejected rather than piling up full-size frames in memory.
+ */
+@Slf4j
+@Singleton
+public class ScreenshotPipeline {
+    private static final int QUEUE_CAPACITY = 4;
+    private static final int MAX_POOLED_PER_SIZE = 2;
+    private static final long MAX_POOLED_PIXELS = 16L * 1024 * 1024; // ~64 MB as RGB
+    // Starting output capacity per pixel, about what PNG gives for game frames
+    private static final double INITIAL_BYTES_PER_PIXEL = 0.75;
+
+    private final ScreenshotMetrics screenshotMetrics;
+    private final BingoScapeConfig config;
+
+    // Idle rasters by size key (guarded by this)
+    private final Map<Long, ArrayDeque<BufferedImage>> pool = new HashMap<>();
+    private long pooledPixels;
+
+    // Only touched by the encode thread; reset() keeps the capacity of the largest screenshot so far
+    private ByteArrayOutputStream output;
+
+    private ThreadPoolExecutor encodeExecutor;
+
+    // Perceptual hash of each encoded screenshot, dropped once the bytes are no longer referenced.
+    // byte[] keys compare by identity, so lookups only match the array handed to the callback.
+    private final Map<byte[], Long> hashes = Collections.synchronizedMap(new WeakHashMap<>());
+
+    @Inject
+    public ScreenshotPipeline(ScreenshotMetrics screenshotMetrics, BingoScapeConfig config) {
+        this.screenshotMetrics = screenshotMetrics;
+        this.config = config;
+    }
+
+    public void startUp() {
+        encodeExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), runnable -> {
+                    Thread thread = new Thread(runnable, "bingoscape-screenshot");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public void shutDown() {
+        if (encodeExecutor != null) {
+            encodeExecutor.shutdownNow();
+            encodeExecutor = null;
+        }
+        synchronized (this) {
+            pool.clear();
+            pooledPixels = 0;
+        }
+        output = null;
+    }
+
+    /**
+     * Encodes the image in the configured evidence format on the encode thread. The
+     * callback runs on that thread and receives null if the screenshot could not be
+     * encoded, for any reason including running out of memory, or was rejected
+     * because the queue is full.
+     *
+     * @param crop Part of the image to keep as fractions of its size, or null for all of it
+     */
+    public void encode(Image image, Rectangle2D crop, Consumer<byte[]> callback) {
+        ThreadPoolExecutor executor = encodeExecutor;
+        if (executor == null) {
+            callback.accept(null);
+            return;
+        }
+        // Settings are read when the screenshot is taken, not when it reaches the queue head
+        EvidenceEncoder encoder = EvidenceEncoder.fromConfig(config);
+        int maxDimension = config.maxScreenshotDimension();
+        try {
+            executor.execute(() -> callback.accept(encodeNow(image, crop, encoder, maxDimension)));
+        } catch (RejectedExecutionException e) {
+            log.warn("Screenshot encode queue is full, dropping screenshot");
+            callback.accept(null);
+        }
+    }
+
+    private byte[] encodeNow(Image image, Rectangle2D crop, EvidenceEncoder encoder, int maxDimension) {
+        long allocatedBefore = allocatedBytes();
+        long encodeStart = System.nanoTime();
+        BufferedImage raster = null;
+        BufferedImage scaled = null;
+        try {
+            raster = acquire(image.getWidth(null), image.getHeight(null));
+            copyPixels(image, raster);
+            BufferedImage evidence = cropTo(raster, crop);
+            int width = evidence.getWidth();
+            int height = evidence.getHeight();
+            if (maxDimension > 0 && Math.max(width, height) > maxDimension) {
+                double scale = maxDimension / (double) Math.max(width, height);
+                scaled = acquire(Math.max(1, (int) Math.round(width * scale)),
+                        Math.max(1, (int) Math.round(height * scale)));
+                scaleInto(evidence, scaled);
+                evidence = scaled;
+            }
+
+            byte[] bytes = write(evidence, encoder);
+            hashes.put(bytes, PerceptualHash.dHash(evidence));
+            long encodeNanos = System.nanoTime() - encodeStart;
+            screenshotMetrics.recordEncode(encodeNanos);
+            screenshotMetrics.recordScreenshot(encoder.getFormat(), evidence.getWidth(), evidence.getHeight(),
+                    bytes.length, encodeNanos);
+            long allocatedAfter = allocatedBytes();
+            if (allocatedBefore >= 0 && allocatedAfter >= 0) {
+                screenshotMetrics.recordAllocation(allocatedAfter - allocatedBefore);
+            }
+            log.debug("Encoded {} screenshot {}x{}: {} bytes in {} ms", encoder.getFormat(),
+                    evidence.getWidth(), evidence.getHeight(), bytes.length,
+                    TimeUnit.NANOSECONDS.toMillis(encodeNanos));
+            return bytes;
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to process screenshot", e);
+            return null;
+        } catch (Error e) {
+            // Usually out of memory on a huge frame; free what the pipeline holds so the next one can work
+            log.error("Failed to process screenshot", e);
+            raster = null;
+            scaled = null;
+            discardBuffers();
+            return null;
+        } finally {
+            if (raster != null) {
+                release(raster);
+            }
+            if (scaled != null) {
+                release(scaled);
+            }
+        }
+    }
+
+    /**
+     * Drops the pooled rasters and the output buffer. Only called on the encode thread.
+     */
+    private void discardBuffers() {
+        output = null;
+        synchronized (this) {
+            pool.clear();
+            pooledPixels = 0;
+        }
+    }
+
+    /**
+     * Returns a view of the cropped part of the raster; no pixels are copied.
+     */
+    private static BufferedImage cropTo(BufferedImage raster, Rectangle2D crop) {
+        if (crop == null) {
+            return raster;
+        }
+        int width = raster.getWidth();
+        int height = raster.getHeight();
+        int x = clamp((int) Math.floor(crop.getX() * width), 0, width - 1);
+        int y = clamp((int) Math.floor(crop.getY() * height), 0, height - 1);
+        int right = clamp((int) Math.ceil(crop.getMaxX() * width), x + 1, width);
+        int bottom = clamp((int) Math.ceil(crop.getMaxY() * height), y + 1, height);
+        return raster.getSubimage(x, y, right - x, bottom - y);
+    }
+
+    private static void scaleInto(BufferedImage source, BufferedImage target) {
+        Graphics2D graphics = target.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(source, 0, 0, target.getWidth(), target.getHeight(), null);
+        graphics.dispose();
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /**
+     * Returns the perceptual hash computed while encoding these bytes, or null if they
+     * did not come from this pipeline.
+     */
+    public Long getHash(byte[] bytes) {
+        return hashes.get(bytes);
+    }
+
+    /**
+     * Copies the frame into the raster. Int-backed frames are copied directly from
+     * their data buffer; anything else goes through getRGB or, for non-buffered
+     * images, a draw.
+     */
+    private static void copyPixels(Image image, BufferedImage raster) {
+        int width = raster.getWidth();
+        int height = raster.getHeight();
+        int[] target = ((DataBufferInt) raster.getRaster().getDataBuffer()).getData();
+
+        if (image instanceof BufferedImage) {
+            BufferedImage source = (BufferedImage) image;
+            int type = source.getType();
+            if ((type == BufferedImage.TYPE_INT_RGB || type == BufferedImage.TYPE_INT_ARGB)
+                    && source.getRaster().getDataBuffer() instanceof DataBufferInt
+                    && source.getSampleModel() instanceof SinglePixelPackedSampleModel
+                    && ((SinglePixelPackedSampleModel) source.getSampleModel()).getScanlineStride() == width
+                    && source.getRaster().getSampleModelTranslateX() == 0
+                    && source.getRaster().getSampleModelTranslateY() == 0) {
+                int[] pixels = ((DataBufferInt) source.getRaster().getDataBuffer()).getData();
+                System.arraycopy(pixels, 0, target, 0, width * height);
+                return;
+            }
+            source.getRGB(0, 0, width, height, target, 0, width);
+            return;
+        }
+
+        Graphics graphics = raster.getGraphics();
+        graphics.drawImage(image, 0, 0, null);
+        graphics.dispose();
+    }
+
+    private byte[] write(BufferedImage image, EvidenceEncoder encoder) throws IOException {
+        if (output == null) {
+            long pixels = (long) image.getWidth() * image.getHeight();
+            int capacity = (int) Math.min(Integer.MAX_VALUE - 8, pixels * INITIAL_BYTES_PER_PIXEL);
+            output = new ByteArrayOutputStream(capacity);
+        }
+        output.reset();
+        encoder.write(image, output);
+        return output.toByteArray();
+    }
+
+    private synchronized BufferedImage acquire(int width, int height) {
+        ArrayDeque<BufferedImage> idle = pool.get(sizeKey(width, height));
+        if (idle != null && !idle.isEmpty()) {
+            pooledPixels -= (long) width * height;
+            return idle.pop();
+        }
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+
+    private synchronized void release(BufferedImage raster) {
+        long pixels = (long) raster.getWidth() * raster.getHeight();
+        ArrayDeque<BufferedImage> idle = pool.computeIfAbsent(sizeKey(raster.getWidth(), raster.getHeight()),
+                key -> new ArrayDeque<>());
+        if (idle.size() >= MAX_POOLED_PER_SIZE) {
+            return;
+        }
+        // A resized client leaves rasters of the old size behind; drop them first
+        if (pooledPixels + pixels > MAX_POOLED_PIXELS) {
+            pool.entrySet().removeIf(entry -> entry.getValue() != idle);
+            pooledPixels = 0;
+            for (BufferedImage image : idle) {
+                pooledPixels += (long) image.getWidth() * image.getHeight();
+            }
+            if (pooledPixels + pixels > MAX_POOLED_PIXELS) {
+                return;
+            }
+        }
+        idle.push(raster);
+        pooledPixels += pixels;
+    }
+
+    private static long sizeKey(int width, int height) {
+        return ((long) width << 32) | (height & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Bytes allocated by the current thread so far, or -1 if the JVM does not report it.
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+}
@@ -0,0 +1,18 @@
+package org.bingoscape.services;
+
+/**
+ * Callback for failed tile submissions.
+ *
+ * Distinguishes transient failures (network errors, 5xx, 429) that are worth
+ * retrying from rejections the server will keep returning.
+ */
+@FunctionalInterface
+public interface SubmissionErrorCallback {
+    /**
+     * Called when a submission could not be delivered.
+     *
+     * @param error     The error message to show or log
+     * @param retryable true if sending the same submission again may succeed
+     */
+    void onError(String error, boolean retryable);
+}
@@ -0,0 +1,533 @@
+package org.bingoscape.services;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.RuneLite;
+import org.bingoscape.EvidenceFormat;
+import org.bingoscape.models.AutoSubmissionMetadata;
+import org.bingoscape.models.Bingo;
+import org.bingoscape.models.OutboxEntry;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Durable outbox for tile submissions.
+ * <p>
+ * Every submission is written to disk before it is sent: the screenshot as a blob
+ * file and the submission itself as an ADD record in an append-only journal. A
+ * background worker drains the queue in order, retrying transient failures with
+ * exponential backoff and jitter, and appends a DONE record once the server has
+ * accepted or permanently rejected the entry. Pending entries are replayed from
+ * the journal on startup, so nothing is lost across client restarts.
+ */
+@Slf4j
+@Singleton
+public class SubmissionOutbox {
+    private static final File OUTBOX_DIR = new File(new File(RuneLite.RUNELITE_DIR, "bingoscape"), "outbox");
+    private static final String JOURNAL_FILE = "journal.log";
+    // Extension of blobs from entries that don't record one
+    private static final String LEGACY_BLOB_EXTENSION = "png";
+
+    private static final String OP_ADD = "ADD";
+    private static final String OP_DONE = "DONE";
+
+    private static final long DRAIN_INTERVAL_MS = 1_000;
+    private static final long BASE_BACKOFF_MS = 2_000;
+    private static final long MAX_BACKOFF_MS = 5 * 60_000;
+    // Longer than any request timeout; a send still unanswered by then lost its callback
+    private static final long SEND_STALL_MS = 3 * 60_000;
+
+    // Rewrite the journal once this many DONE records have piled up
+    private static final int COMPACT_THRESHOLD = 50;
+
+    @Inject
+    private BingoScapeApiService apiService;
+
+    @Inject
+    private Gson gson;
+
+    @Inject
+    private ScheduledExecutorService executor;
+
+    // Pending entries in submission order (guarded by this)
+    private final Map<UUID, OutboxEntry> pending = new LinkedHashMap<>();
+    // Entries whose blob is being written but whose ADD record isn't appended yet (guarded by this)
+    private final Set<UUID> persisting = new HashSet<>();
+    private int doneSinceCompaction;
+    private boolean sending;
+    private long sendingSince;
+    // Bumped for every send, so answers to a send the queue gave up on are ignored
+    private long sendAttempt;
+
+    private ScheduledFuture<?> drainTask;
+    private BiConsumer<OutboxEntry, Bingo> onSubmitted = (entry, bingo) -> {};
+    private BiConsumer<OutboxEntry, String> onRejected = (entry, error) -> {};
+
+    /**
+     * Replays the journal and starts the background worker.
+     *
+     * @param onSubmitted Called when the server accepted an entry
+     * @param onRejected  Called when the server permanently rejected an entry
+     */
+    public void startUp(BiConsumer<OutboxEntry, Bingo> onSubmitted, BiConsumer<OutboxEntry, String> onRejected) {
+        this.onSubmitted = onSubmitted;
+        this.onRejected = onRejected;
+
+        executor.execute(() -> {
+            loadJournal();
+            int depth = getQueueDepth();
+            if (depth > 0) {
+                log.info("Restored {} pending submission(s) from outbox. {}", depth, getStats());
+            }
+        });
+        drainTask = executor.scheduleWithFixedDelay(this::drain, DRAIN_INTERVAL_MS, DRAIN_INTERVAL_MS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the background worker. Pending entries stay on disk for the next start.
+     */
+    public void shutDown() {
+        if (drainTask != null) {
+            drainTask.cancel(false);
+            drainTask = null;
+        }
+    }
+
+    /**
+     * Queues a manual tile submission.
+     *
+     * @param screenshotHash Perceptual hash of the screenshot, or null
+     */
+    public void enqueue(UUID tileId, byte[] screenshotBytes, Long screenshotHash) {
+        enqueue(tileId, screenshotBytes, screenshotHash, false, null);
+    }
+
+    /**
+     * Queues an automatic tile submission with its metadata.
+     *
+     * @param screenshotHash Perceptual hash of the screenshot, or null
+     */
+    public void enqueueAutomatic(UUID tileId, byte[] screenshotBytes, Long screenshotHash,
+                                 AutoSubmissionMetadata metadata) {
+        enqueue(tileId, screenshotBytes, screenshotHash, true, metadata);
+    }
+
+    private void enqueue(UUID tileId, byte[] screenshotBytes, Long screenshotHash, boolean automatic,
+                         AutoSubmissionMetadata metadata) {
+        OutboxEntry entry = new OutboxEntry();
+        entry.setId(UUID.randomUUID());
+        entry.setTileId(tileId);
+        entry.setAutomatic(automatic);
+        entry.setMetadata(metadata);
+        entry.setScreenshotHash(screenshotHash);
+        entry.setBlobExtension(EvidenceFormat.detect(screenshotBytes).getExtension());
+        entry.setCreatedAt(System.currentTimeMillis());
+
+        // Disk I/O stays off the caller's thread (often the EDT or client thread)
+        executor.execute(() -> {
+            try {
+                persist(entry, screenshotBytes);
+            } catch (IOException e) {
+                // Can't make it durable, but still try to deliver it once
+                log.error("Failed to write submission {} to outbox, sending directly", entry.getId(), e);
+                sendDirect(entry, screenshotBytes);
+                return;
+            }
+            drain();
+        });
+    }
+
+    private void persist(OutboxEntry entry, byte[] screenshotBytes) throws IOException {
+        Files.createDirectories(OUTBOX_DIR.toPath());
+
+        // Blob first: a crash before the ADD record leaves an orphan that loadJournal removes.
+        // Until the record is written, loadJournal must not mistake the blob for one.
+        synchronized (this) {
+            persisting.add(entry.getId());
+        }
+        try {
+            Files.write(blobPath(entry), screenshotBytes);
+            synchronized (this) {
+                appendRecord(JournalRecord.add(entry));
+                pending.put(entry.getId(), entry);
+            }
+        } finally {
+            synchronized (this) {
+                persisting.remove(entry.getId());
+            }
+        }
+        log.debug("Queued submission {} for tile {}. {}", entry.getId(), entry.getTileId(), getStats());
+    }
+
+    /**
+     * Sends the oldest entry that is due, if no other send is in progress.
+     */
+    private void drain() {
+        OutboxEntry next = null;
+        long attempt;
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            if (sending) {
+                if (now - sendingSince < SEND_STALL_MS) {
+                    return;
+                }
+                log.warn("No answer to a queued submission after {} ms, resuming the queue", now - sendingSince);
+            }
+
+            for (OutboxEntry entry : pending.values()) {
+                if (entry.getNextAttemptAt() <= now) {
+                    next = entry;
+                    break;
+                }
+            }
+
+            if (next == null) {
+                sending = false;
+                return;
+            }
+            sending = true;
+            sendingSince = now;
+            attempt = ++sendAttempt;
+        }
+
+        byte[] screenshotBytes;
+        try {
+            screenshotBytes = Files.readAllBytes(blobPath(next));
+        } catch (IOException e) {
+            log.error("Screenshot for queued submission {} is unreadable, dropping it", next.getId(), e);
+            complete(next);
+            onRejected.accept(next, "Queued screenshot could not be read");
+            return;
+        }
+
+        boolean sent = false;
+        try {
+            send(next, screenshotBytes, attempt);
+            sent = true;
+        } catch (RuntimeException e) {
+            log.error("Failed to send queued submission {}", next.getId(), e);
+        } finally {
+            if (!sent) {
+                scheduleRetry(next, "Failed to send");
+            }
+        }
+    }
+
+    private void send(OutboxEntry entry, byte[] screenshotBytes, long attempt) {
+        SubmissionErrorCallback onError = (error, retryable) -> {
+            if (!isCurrentAttempt(entry, attempt)) {
+                return;
+            }
+            if (retryable) {
+                scheduleRetry(entry, error);
+            } else {
+                complete(entry);
+                onRejected.accept(entry, error);
+            }
+        };
+
+        if (entry.isAutomatic()) {
+            apiService.submitTileAutomatic(entry.getTileId(), screenshotBytes, entry.getMetadata(), entry.getId(),
+                    bingo -> onSent(entry, bingo, attempt), onError);
+        } else {
+            apiService.submitTileCompletion(entry.getTileId(), screenshotBytes, entry.getId(),
+                    bingo -> onSent(entry, bingo, attempt), onError);
+        }
+    }
+
+    /**
+     * Whether an answer belongs to the send in progress. A send that went unanswered
+     * past {@link #SEND_STALL_MS} is superseded once the queue resumes; if its answer
+     * still arrives, the entry is pending again and its current send will deliver the
+     * outcome, so the late answer must neither release the worker nor record DONE.
+     */
+    private synchronized boolean isCurrentAttempt(OutboxEntry entry, long attempt) {
+        if (sending && attempt == sendAttempt) {
+            return true;
+        }
+        log.debug("Ignoring late answer to superseded send of submission {}", entry.getId());
+        return false;
+    }
+
+    private void sendDirect(OutboxEntry entry, byte[] screenshotBytes) {
+        SubmissionErrorCallback onError = (error, retryable) -> onRejected.accept(entry, error);
+        if (entry.isAutomatic()) {
+            apiService.submitTileAutomatic(entry.getTileId(), screenshotBytes, entry.getMetadata(), entry.getId(),
+                    bingo -> onSubmitted.accept(entry, bingo), onError);
+        } else {
+            apiService.submitTileCompletion(entry.getTileId(), screenshotBytes, entry.getId(),
+                    bingo -> onSubmitted.accept(entry, bingo), onError);
+        }
+    }
+
+    private void onSent(OutboxEntry entry, Bingo bingo, long attempt) {
+        if (!isCurrentAttempt(entry, attempt)) {
+            return;
+        }
+        complete(entry);
+        onSubmitted.accept(entry, bingo);
+    }
+
+    private void scheduleRetry(OutboxEntry entry, String error) {
+        synchronized (this) {
+            entry.setAttempts(entry.getAttempts() + 1);
+            long delay = backoffDelay(entry.getAttempts());
+            entry.setNextAttemptAt(System.currentTimeMillis() + delay);
+            sending = false;
+            log.warn("Submission {} for tile {} failed (attempt {}), retrying in {} ms: {}",
+                    entry.getId(), entry.getTileId(), entry.getAttempts(), delay, error);
+        }
+    }
+
+    /**
+     * Exponential backoff capped at {@link #MAX_BACKOFF_MS}, with jitter over the
+     * upper half so clients that failed together don't retry together.
+     */
+    private long backoffDelay(int attempts) {
+        long delay = BASE_BACKOFF_MS << Math.min(attempts - 1, 20);
+        delay = Math.min(delay, MAX_BACKOFF_MS);
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    /**
+     * Marks an entry as finished: appends DONE, deletes its blob and releases the worker.
+     */
+    private void complete(OutboxEntry entry) {
+        synchronized (this) {
+            sending = false;
+            if (pending.remove(entry.getId()) == null) {
+                // Already finished; a second DONE would only bloat the journal
+                return;
+            }
+            try {
+                appendRecord(JournalRecord.done(entry.getId()));
+                doneSinceCompaction++;
+                if (pending.isEmpty() || doneSinceCompaction >= COMPACT_THRESHOLD) {
+                    compactJournal();
+                }
+            } catch (IOException e) {
+                log.error("Failed to record completion of submission {}", entry.getId(), e);
+            }
+        }
+
+        try {
+            Files.deleteIfExists(blobPath(entry));
+        } catch (IOException e) {
+            log.warn("Failed to delete screenshot for submission {}", entry.getId(), e);
+        }
+
+        // Keep draining without waiting for the next scheduled tick
+        executor.execute(this::drain);
+    }
+
+    /**
+     * Rebuilds the pending queue from the journal, then compacts it and removes
+     * screenshot blobs that no pending entry refers to. Blobs of entries still being
+     * persisted are kept, since their ADD record may not be in the journal yet.
+     */
+    private synchronized void loadJournal() {
+        pending.clear();
+        Path journal = journalPath();
+        if (Files.exists(journal)) {
+            try (BufferedReader reader = Files.newBufferedReader(journal, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    replay(line);
+                }
+            } catch (IOException e) {
+                log.error("Failed to read submission outbox journal", e);
+            }
+        }
+
+        try {
+            compactJournal();
+            removeOrphanBlobs();
+        } catch (IOException e) {
+            log.error("Failed to compact submission outbox", e);
+        }
+    }
+
+    private void replay(String line) {
+        if (line.isEmpty()) {
+            return;
+        }
+
+        JournalRecord record;
+        try {
+            record = gson.fromJson(line, JournalRecord.class);
+        } catch (JsonParseException e) {
+            // A torn write from a crash mid-append; skip it
+            log.warn("Skipping corrupt outbox journal record");
+            return;
+        }
+
+        if (record == null || record.op == null) {
+            return;
+        }
+        if (OP_ADD.equals(record.op) && record.entry != null && record.entry.getId() != null) {
+            pending.put(record.entry.getId(), record.entry);
+        } else if (OP_DONE.equals(record.op) && record.id != null) {
+            pending.remove(record.id);
+        }
+    }
+
+    private void appendRecord(JournalRecord record) throws IOException {
+        Files.createDirectories(OUTBOX_DIR.toPath());
+        String line = gson.toJson(record) + "\n";
+        Files.write(journalPath(), line.getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+    }
+
+    /**
+     * Rewrites the journal with only the pending ADD records and swaps it in atomically.
+     */
+    private void compactJournal() throws IOException {
+        Files.createDirectories(OUTBOX_DIR.toPath());
+        Path temp = new File(OUTBOX_DIR, JOURNAL_FILE + ".tmp").toPath();
+
+        StringBuilder content = new StringBuilder();
+        for (OutboxEntry entry : pending.values()) {
+            content.append(gson.toJson(JournalRecord.add(entry))).append('\n');
+        }
+
+        Files.write(temp, content.toString().getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.DSYNC);
+        Files.move(temp, journalPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        doneSinceCompaction = 0;
+    }
+
+    private void removeOrphanBlobs() {
+        File[] blobs = OUTBOX_DIR.listFiles((dir, name) -> isBlobName(name));
+        if (blobs == null) {
+            return;
+        }
+
+        for (File blob : blobs) {
+            String name = blob.getName();
+            try {
+                UUID id = UUID.fromString(name.substring(0, name.lastIndexOf('.')));
+                if (persisting.contains(id)) {
+                    continue;
+                }
+                OutboxEntry entry = pending.get(id);
+                if (entry != null && blob.toPath().equals(blobPath(entry))) {
+                    continue;
+                }
+            } catch (IllegalArgumentException e) {
+                // Not one of ours by name; remove it all the same
+            }
+
+            if (!blob.delete()) {
+                log.warn("Failed to delete orphaned outbox file {}", name);
+            }
+        }
+    }
+
+    private Path journalPath() {
+        return new File(OUTBOX_DIR, JOURNAL_FILE).toPath();
+    }
+
+    private static boolean isBlobName(String name) {
+        int dot = name.lastIndexOf('.');
+        if (dot <= 0) {
+            return false;
+        }
+        String extension = name.substring(dot + 1);
+        for (EvidenceFormat format : EvidenceFormat.values()) {
+            if (format.getExtension().equals(extension)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Path blobPath(OutboxEntry entry) {
+        String extension = entry.getBlobExtension() != null ? entry.getBlobExtension() : LEGACY_BLOB_EXTENSION;
+        return new File(OUTBOX_DIR, entry.getId() + "." + extension).toPath();
+    }
+
+    /**
+     * Number of submissions waiting to be delivered.
+     */
+    public synchronized int getQueueDepth() {
+        return pending.size();
+    }
+
+    /**
+     * The oldest submission still waiting to be delivered, if any.
+     */
+    public synchronized Optional<OutboxEntry> getOldestPending() {
+        return pending.values().stream().findFirst();
+    }
+
+    /**
+     * Snapshot of all pending submissions in queue order.
+     */
+    public synchronized List<OutboxEntry> getPendingEntries() {
+        return new ArrayList<>(pending.values());
+    }
+
+    /**
+     * Gets statistics about the outbox for debugging.
+     */
+    public String getStats() {
+        int depth;
+        long oldestAgeSeconds;
+        synchronized (this) {
+            depth = pending.size();
+            oldestAgeSeconds = pending.values().stream()
+                    .findFirst()
+                    .map(entry -> (System.currentTimeMillis() - entry.getCreatedAt()) / 1000)
+                    .orElse(0L);
+        }
+
+        return String.format("Outbox: %d pending, oldest %ds", depth, oldestAgeSeconds);
+    }
+
+    /**
+     * One line of the journal: either an ADD carrying the entry or a DONE carrying its ID.
+     */
+    private static final class JournalRecord {
+        private String op;
+        private OutboxEntry entry;
+        private UUID id;
+
+        private static JournalRecord add(OutboxEntry entry) {
+            JournalRecord record = new JournalRecord();
+            record.op = OP_ADD;
+            record.entry = entry;
+            return record;
+        }
+
+        private static JournalRecord done(UUID id) {
+            JournalRecord record = new JournalRecord();
+            record.op = OP_DONE;
+            record.id = id;
+            return record;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.bingoscape.services;
+
+/**
+ * What a drop would do to a tile, as predicted from the tile's goal tree.
+ */
+public enum TileOutcome {
+    /**
+     * The drop satisfies the tile's whole goal tree.
+     */
+    COMPLETE,
+    /**
+     * The drop completes or progresses a goal the tile still needs, but not the whole tile.
+     */
+    ADVANCE,
+    /**
+     * The drop only counts toward goals the tile no longer needs.
+     */
+    NONE
+}
@@ -3,30 +3,30 @@ package org.bingoscape.services;
 import lombok.extern.slf4j.Slf4j;
 import org.bingoscape.BingoScapePlugin;
 import org.bingoscape.models.Bingo;
-import org.bingoscape.models.Goal;
-import org.bingoscape.models.GoalTreeNode;
 import org.bingoscape.models.Tile;
+import org.bingoscape.models.TileSubmissionType;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Matches game events (item drops, skill levels, etc.) to tile requirements
  * to determine when tiles can be auto-submitted.
  *
- * This service queries the current bingo state from the plugin on-demand,
- * ensuring it's always in sync without requiring manual updates.
+ * The current bingo is compiled into a {@link MatcherSnapshot} whenever
+ * {@link #rebuildLookupMaps()} is called, so lookups never walk goal trees.
+ * Snapshots are built off to the side and published with a single atomic swap;
+ * a lookup reads one snapshot and never sees a half-built index.
  */
 @Slf4j
 @Singleton
 public class TileRequirementMatcher {
-    // Maps itemId to list of tiles that require that item
-    private final Map<Integer, List<UUID>> itemToTilesMap = new ConcurrentHashMap<>();
-
-    // Maps itemId to the goal tree nodes that contain it (for checking restrictions)
-    private final Map<Integer, List<GoalTreeNode>> itemToGoalMap = new ConcurrentHashMap<>();
+    // Compiled form of the current bingo
+    private final AtomicReference<MatcherSnapshot> snapshot = new AtomicReference<>(MatcherSnapshot.EMPTY);
+    private final AtomicLong buildSequence = new AtomicLong();
 
     // Plugin reference to query current bingo state
     @Inject
@@ -34,323 +34,145 @@ public class TileRequirementMatcher {
 
     /**
      * Rebuilds the lookup maps from the current bingo data.
-     * Queries the plugin for the current bingo state and parses the goalTree structure
-     * to find all item-based goals.
+     * Queries the plugin for the current bingo state and compiles its goalTree
+     * structures into a new snapshot.
      */
     public void rebuildLookupMaps() {
-        itemToTilesMap.clear();
-        itemToGoalMap.clear();
-
+        // Take the sequence before reading the bingo, so a later rebuild always saw newer state
+        long sequence = buildSequence.incrementAndGet();
         Bingo currentBingo = plugin.getCurrentBingo();
         if (currentBingo == null || currentBingo.getTiles() == null) {
             log.warn("Cannot rebuild maps: currentBingo or tiles is null");
+            publish(MatcherSnapshot.empty(sequence));
             return;
         }
 
         log.debug("Rebuilding lookup maps for {} tiles", currentBingo.getTiles().size());
-
-        for (Tile tile : currentBingo.getTiles()) {
-            // Skip tiles that are already approved
-            if (isTileApproved(tile)) {
-                log.debug("Skipping tile {} (already approved)", tile.getId());
-                continue;
-            }
-
-            // Parse goalTree if available (new API format)
-            if (tile.getGoalTree() != null && !tile.getGoalTree().isEmpty()) {
-                log.debug("Tile {} has goalTree with {} nodes", tile.getId(), tile.getGoalTree().size());
-                parseGoalTreeForItems(tile, tile.getGoalTree());
-            }
-            // Fallback to flat goals list (backwards compatibility)
-//            else if (tile.getGoals() != null && !tile.getGoals().isEmpty()) {
-//                log.debug("Tile {} has flat goals list with {} goals", tile.getId(), tile.getGoals().size());
-//                for (Goal goal : tile.getGoals()) {
-//                    if ("item".equals(goal.getGoalType()) && goal.getItemId() != null) {
-//                        itemToTilesMap.computeIfAbsent(goal.getItemId(), k -> new ArrayList<>())
-//                                .add(tile.getId());
-//                        log.debug("Added item {} -> tile {}", goal.getItemId(), tile.getId());
-//                    }
-//                }
-//            } else {
-//                log.debug("Tile {} has no goals or goalTree", tile.getId());
-//            }
+        MatcherSnapshot built = MatcherSnapshot.build(currentBingo, sequence);
+        if (publish(built)) {
+            log.debug("Built item lookup map with {} unique items across {} tiles",
+                built.getTrackedItemCount(), built.getTrackableTileCount());
         }
-
-        log.debug("Built item lookup map with {} unique items mapping to tiles: {}",
-            itemToTilesMap.size(), itemToTilesMap.keySet());
     }
 
     /**
-     * Recursively parses a goal tree to find all item goals.
+     * Updates the index after tiles of the current bingo were patched.
+     * Tiles that became approved are dropped and tiles whose goal tree was replaced are
+     * re-indexed; everything else is reused. Falls back to {@link #rebuildLookupMaps()}
+     * when the change can't be applied incrementally.
+     *
+     * @param changedTileIds IDs of the tiles that changed
      */
-    private void parseGoalTreeForItems(Tile tile, List<GoalTreeNode> nodes) {
-        if (nodes == null) {
+    public void updateTiles(Set<UUID> changedTileIds) {
+        long sequence = buildSequence.incrementAndGet();
+        Bingo currentBingo = plugin.getCurrentBingo();
+        MatcherSnapshot updated = snapshot.get().withChangedTiles(currentBingo, changedTileIds, sequence);
+        if (updated == null) {
+            log.debug("Incremental matcher update not possible, rebuilding");
+            rebuildLookupMaps();
             return;
         }
 
-        for (GoalTreeNode node : nodes) {
-            log.debug("Parsing node: type={}, isItemGoal={}, isGroup={}",
-                node.getType(), node.isItemGoal(), node.isGroup());
-
-            if (node.isItemGoal() && node.getItemGoal() != null && node.getItemGoal().getItemId() != null) {
-                // Found an item goal, add to lookup maps
-                int itemId = node.getItemGoal().getItemId();
-                itemToTilesMap.computeIfAbsent(itemId, k -> new ArrayList<>())
-                        .add(tile.getId());
-                itemToGoalMap.computeIfAbsent(itemId, k -> new ArrayList<>())
-                        .add(node);
-                log.debug("Added item {} -> tile {} from goalTree", itemId, tile.getId());
-            } else if (node.isGroup() && node.getChildren() != null) {
-                // Recursively process child nodes
-                log.debug("Recursing into group with {} children", node.getChildren().size());
-                parseGoalTreeForItems(tile, node.getChildren());
-            } else {
-                log.debug("Node skipped: type={}, goalType={}, hasItemGoal={}, hasChildren={}",
-                    node.getType(), node.getGoalType(), node.getItemGoal() != null,
-                    node.getChildren() != null);
-            }
+        if (publish(updated)) {
+            log.debug("Updated matcher for {} changed tile(s): {} items across {} tiles",
+                changedTileIds.size(), updated.getTrackedItemCount(), updated.getTrackableTileCount());
         }
     }
 
     /**
-     * Checks if an item drop matches any tile requirements.
-     *
-     * @param itemId The OSRS item ID
-     * @param npcId  The NPC ID (optional, can be null)
-     * @return true if this item is required for any incomplete tile
+     * Swaps in a snapshot unless a rebuild that started later already published one.
      */
-    public boolean isRequiredItem(int itemId, Integer npcId) {
-        Bingo currentBingo = plugin.getCurrentBingo();
-        if (currentBingo == null) {
-            return false;
-        }
-
-        // Check if this item is tracked in our goal map
-        List<GoalTreeNode> goalNodes = itemToGoalMap.get(itemId);
-        if (goalNodes == null || goalNodes.isEmpty()) {
-            return false;
-        }
-
-        // Item is tracked - check if any associated tile is not yet approved
-        List<UUID> matchingTileIds = itemToTilesMap.get(itemId);
-        if (matchingTileIds == null || matchingTileIds.isEmpty()) {
+    private boolean publish(MatcherSnapshot built) {
+        MatcherSnapshot published = snapshot.accumulateAndGet(built,
+                (current, next) -> next.getSequence() > current.getSequence() ? next : current);
+        if (published != built) {
+            log.debug("Discarding matcher snapshot {}, superseded by {}", built.getSequence(), published.getSequence());
             return false;
         }
-
-        for (UUID tileId : matchingTileIds) {
-            Tile tile = getTileById(tileId);
-            if (tile != null && !isTileApproved(tile)) {
-                // Check if the specific goal for this item is incomplete
-                // Only return true if there's at least one incomplete goal for this item
-                if (!isGoalCompleteForItem(tile, itemId)) {
-                    return true; // Found an incomplete goal that needs this item
-                }
-            }
-        }
-
-        return false;
+        return true;
     }
 
     /**
-     * Gets all tiles that match the given item and optional NPC.
-     *
-     * @param itemId The OSRS item ID
-     * @param npcId  The NPC ID (optional, can be null)
-     * @return List of tile IDs that should be auto-submitted
+     * Returns the published snapshot if it was built from the bingo that is selected now.
+     * Between a selection change and the rebuild that follows it, nothing matches rather
+     * than the previous board's tiles.
      */
-    public List<UUID> getTilesForItem(int itemId, Integer npcId) {
-        List<UUID> result = new ArrayList<>();
-
+    MatcherSnapshot currentSnapshot() {
+        MatcherSnapshot current = snapshot.get();
         Bingo currentBingo = plugin.getCurrentBingo();
-        if (currentBingo == null) {
-            return result;
-        }
-
-        List<UUID> matchingTileIds = itemToTilesMap.get(itemId);
-        if (matchingTileIds == null || matchingTileIds.isEmpty()) {
-            return result;
-        }
-
-        // Check each matching tile
-        for (UUID tileId : matchingTileIds) {
-            Tile tile = getTileById(tileId);
-            if (tile == null || isTileApproved(tile)) {
-                continue;
-            }
-
-            // CRITICAL: Check if the specific goal for this item is already complete
-            // This prevents re-submitting screenshots for goals that are already done
-            if (isGoalCompleteForItem(tile, itemId)) {
-                log.debug("Skipping tile {} for item {} - goal already complete", tileId, itemId);
-                continue;
-            }
-
-            // Check if this tile's goals are satisfied
-            if (isTileSatisfiedByItem(tile, itemId, npcId)) {
-                result.add(tileId);
-            }
-        }
-
-        return result;
-    }
-
-    /**
-     * Checks if a tile is relevant for the given item.
-     * We don't need to determine if the tile is COMPLETE - just if this item is part of its requirements.
-     * The server will validate whether the tile is actually complete after submission.
-     */
-    private boolean isTileSatisfiedByItem(Tile tile, int itemId, Integer npcId) {
-        // The tile is "satisfied" (ready for auto-submission) if:
-        // 1. The item is part of ANY goal in the tile's requirements
-        // 2. The server will determine if all requirements are met
-
-        // Try goalTree first (new format)
-        if (tile.getGoalTree() != null && !tile.getGoalTree().isEmpty()) {
-            return containsItemInTree(tile.getGoalTree(), itemId);
+        if (currentBingo == null || !currentBingo.getId().equals(current.getBingoId())) {
+            return MatcherSnapshot.EMPTY;
         }
-
-        // Fallback to flat goals list (legacy format)
-        if (tile.getGoals() == null || tile.getGoals().isEmpty()) {
-            return false;
-        }
-
-        // Check if any goal requires this item
-        for (GoalTreeNode goal : tile.getGoalTree()) {
-            if ("item".equals(goal.getGoalType()) && goal.getItemGoal().getItemId() != null && goal.getItemGoal().getItemId() == itemId) {
-                return true;
-//                // Check NPC restriction if specified
-//                if (goal.getNpcIds() == null || goal.getNpcIds().isEmpty()) {
-//                    return true; // No restriction
-//                } else if (npcId != null && goal.getNpcIds().contains(npcId)) {
-//                    return true; // NPC matches restriction
-//                }
-            }
-        }
-
-        return false;
+        return current;
     }
 
     /**
-     * Recursively checks if an item is part of any goal in the tree.
-     * Returns true if the item is relevant to this tile, regardless of AND/OR logic.
-     * The server will validate the complete logic after submission.
+     * Checks if an item drop matches any tile requirements.
+     *
+     * @param itemId The OSRS item ID
+     * @param npcId  The NPC ID (optional, can be null)
+     * @return true if this item is required for any incomplete tile
      */
-    private boolean containsItemInTree(List<GoalTreeNode> nodes, int itemId) {
-        if (nodes == null || nodes.isEmpty()) {
-            return false;
-        }
-
-        for (GoalTreeNode node : nodes) {
-            if (node.isItemGoal() &&
-                node.getItemGoal() != null &&
-                node.getItemGoal().getItemId() != null &&
-                node.getItemGoal().getItemId() == itemId) {
-                // Found the item in this goal
-                return true;
-            }
-
-            // Recursively check child nodes
-            if (node.isGroup() && node.getChildren() != null) {
-                if (containsItemInTree(node.getChildren(), itemId)) {
-                    return true;
-                }
-            }
-        }
-
-        return false;
+    public boolean isRequiredItem(int itemId, Integer npcId) {
+        return isRequiredItem(itemId, LootSource.ofNpc(npcId));
     }
 
     /**
-     * Checks if a tile has already been approved (to avoid re-submitting).
+     * Checks if an item drop from the given source matches any tile requirements,
+     * honouring NPC, loot type and region restrictions on item goals.
+     *
+     * @param itemId The OSRS item ID
+     * @param source Where the item came from
+     * @return true if this item is required for any incomplete tile
      */
-    private boolean isTileApproved(Tile tile) {
-        return tile.getSubmission() != null && "approved".equals(tile.getSubmission().getStatus());
+    public boolean isRequiredItem(int itemId, LootSource source) {
+        return currentSnapshot().hasOpenMatch(itemId, source);
     }
 
     /**
-     * Checks if a specific goal for an item is already complete.
-     * Searches the goal tree for goals matching the itemId and checks their completion status.
+     * Gets all tiles that match the given item and optional NPC.
+     * Any tile with a goal for this item is returned; the server validates
+     * whether the tile's full AND/OR logic is satisfied after submission.
      *
-     * @param tile The tile to check
-     * @param itemId The item ID to look for
-     * @return true if ALL goals matching this item are already complete
+     * @param itemId The OSRS item ID
+     * @param npcId  The NPC ID (optional, can be null)
+     * @return List of tile IDs that should be auto-submitted
      */
-    private boolean isGoalCompleteForItem(Tile tile, int itemId) {
-        if (tile.getGoalTree() == null || tile.getGoalTree().isEmpty()) {
-            return false;
-        }
-
-        // Find all goal nodes matching this item
-        List<GoalTreeNode> matchingGoals = findGoalsForItem(tile.getGoalTree(), itemId);
-
-        if (matchingGoals.isEmpty()) {
-            return false; // No goals found for this item
-        }
-
-        // Check if ALL matching goals are complete
-        // (If there are multiple goals for the same item, all must be complete to skip submission)
-        for (GoalTreeNode goal : matchingGoals) {
-            if (goal.getProgress() == null || !goal.getProgress().isComplete()) {
-                return false; // At least one goal is incomplete
-            }
-        }
-
-        log.debug("All goals for item {} in tile {} are complete", itemId, tile.getId());
-        return true; // All goals for this item are complete
+    public List<UUID> getTilesForItem(int itemId, Integer npcId) {
+        return getTilesForItem(itemId, LootSource.ofNpc(npcId));
     }
 
     /**
-     * Recursively finds all goal nodes matching the given itemId in the goal tree.
+     * Gets all tiles with a goal for the given item whose source restrictions
+     * the drop satisfies.
      *
-     * @param nodes The goal tree nodes to search
-     * @param itemId The item ID to find
-     * @return List of matching goal nodes
+     * @param itemId The OSRS item ID
+     * @param source Where the item came from
+     * @return List of tile IDs that should be auto-submitted
      */
-    private List<GoalTreeNode> findGoalsForItem(List<GoalTreeNode> nodes, int itemId) {
-        List<GoalTreeNode> result = new ArrayList<>();
-
-        if (nodes == null || nodes.isEmpty()) {
-            return result;
-        }
+    public List<UUID> getTilesForItem(int itemId, LootSource source) {
+        List<BoardTile> matches = new ArrayList<>();
+        currentSnapshot().collectOpenTiles(itemId, source, 1, matches);
 
-        for (GoalTreeNode node : nodes) {
-            if (node.isItemGoal() &&
-                node.getItemGoal() != null &&
-                node.getItemGoal().getItemId() != null &&
-                node.getItemGoal().getItemId() == itemId) {
-                // Found a matching goal
-                result.add(node);
-            }
-
-            // Recursively check child nodes
-            if (node.isGroup() && node.getChildren() != null) {
-                result.addAll(findGoalsForItem(node.getChildren(), itemId));
-            }
+        List<UUID> result = new ArrayList<>(matches.size());
+        for (BoardTile match : matches) {
+            result.add(match.getTileId());
         }
-
         return result;
     }
 
     /**
-     * Gets a tile by its ID from the current bingo.
+     * Checks if a tile has already been approved (to avoid re-submitting).
      */
-    private Tile getTileById(UUID tileId) {
-        Bingo currentBingo = plugin.getCurrentBingo();
-        if (currentBingo == null || currentBingo.getTiles() == null) {
-            return null;
-        }
-
-        return currentBingo.getTiles().stream()
-                .filter(t -> t.getId().equals(tileId))
-                .findFirst()
-                .orElse(null);
+    static boolean isTileApproved(Tile tile) {
+        return tile.getSubmission() != null && tile.getSubmission().getStatus() == TileSubmissionType.ACCEPTED;
     }
 
     /**
-     * Returns true if there are any trackable tiles (tiles with item goals).
+     * Returns true if there are any trackable tiles (tiles with item or event goals).
      */
     public boolean hasTrackableTiles() {
-        return !itemToTilesMap.isEmpty();
+        return currentSnapshot().getTrackableTileCount() > 0;
     }
 
     /**
@@ -362,13 +184,9 @@ public class TileRequirementMatcher {
             return "No bingo loaded";
         }
 
-        int totalTiles = currentBingo.getTiles() != null ? currentBingo.getTiles().size() : 0;
-        int trackableTiles = (int) itemToTilesMap.values().stream()
-                .flatMap(List::stream)
-                .distinct()
-                .count();
-
-        return String.format("Tracking %d items across %d/%d tiles",
-                itemToTilesMap.size(), trackableTiles, totalTiles);
+        MatcherSnapshot current = currentSnapshot();
+        return String.format("Tracking %d items across %d/%d tiles (snapshot %d)",
+                current.getTrackedItemCount(), current.getTrackableTileCount(), current.getTileCount(),
+                current.getSequence());
     }
 }
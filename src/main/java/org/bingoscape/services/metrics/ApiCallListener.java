@@ -0,0 +1,101 @@
+package org.bingoscape.services.metrics;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+/**
+ * Per-call OkHttp listener that records phase timings into {@link EndpointMetrics}.
+ * A new instance is created for every call, so the fields need no synchronization.
+ */
+class ApiCallListener extends EventListener {
+    private final EndpointMetrics metrics;
+
+    private long callStart;
+    private long dnsStart;
+    private long connectStart;
+    private long requestStart;
+    private long requestEnd;
+
+    ApiCallListener(EndpointMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void callStart(Call call) {
+        callStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        dnsStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        metrics.recordDns(System.nanoTime() - dnsStart);
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        connectStart = System.nanoTime();
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        metrics.recordConnect(System.nanoTime() - connectStart);
+    }
+
+    @Override
+    public void requestHeadersStart(Call call) {
+        requestStart = System.nanoTime();
+    }
+
+    @Override
+    public void requestHeadersEnd(Call call, Request request) {
+        requestEnd = System.nanoTime();
+    }
+
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+        requestEnd = System.nanoTime();
+        metrics.recordRequestBytes(byteCount);
+    }
+
+    @Override
+    public void responseHeadersStart(Call call) {
+        long now = System.nanoTime();
+        if (requestStart != 0) {
+            metrics.recordUpload(requestEnd - requestStart);
+            metrics.recordTimeToFirstByte(now - requestEnd);
+        }
+    }
+
+    @Override
+    public void responseHeadersEnd(Call call, Response response) {
+        metrics.recordStatus(response.code());
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        metrics.recordResponseBytes(byteCount);
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        metrics.recordCall(System.nanoTime() - callStart, false);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        metrics.recordCall(System.nanoTime() - callStart, true);
+    }
+}
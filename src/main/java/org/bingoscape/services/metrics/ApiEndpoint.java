@@ -0,0 +1,21 @@
+package org.bingoscape.services.metrics;
+
+/**
+ * API endpoints that are tracked separately in {@link ApiMetrics}.
+ */
+public enum ApiEndpoint {
+    BINGO("/bingos/{id}"),
+    SUBMISSIONS("/submissions"),
+    AUTO_SUBMISSIONS("/auto-submissions"),
+    EVENTS("/events");
+
+    private final String label;
+
+    ApiEndpoint(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
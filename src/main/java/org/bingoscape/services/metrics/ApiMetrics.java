@@ -0,0 +1,43 @@
+package org.bingoscape.services.metrics;
+
+import okhttp3.EventListener;
+import okhttp3.Request;
+
+import javax.inject.Singleton;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects per-endpoint latency, byte and status code metrics for API calls.
+ * <p>
+ * Requests opt in by carrying an {@link ApiEndpoint} tag; {@link #listenerFactory()}
+ * attaches an {@link ApiCallListener} to those calls and ignores everything else.
+ */
+@Singleton
+public class ApiMetrics {
+    private static final long WINDOW_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private final Map<ApiEndpoint, EndpointMetrics> endpoints = new EnumMap<>(ApiEndpoint.class);
+
+    public ApiMetrics() {
+        for (ApiEndpoint endpoint : ApiEndpoint.values()) {
+            endpoints.put(endpoint, new EndpointMetrics(WINDOW_MILLIS));
+        }
+    }
+
+    /**
+     * Listener factory to install on the API client.
+     */
+    public EventListener.Factory listenerFactory() {
+        return call -> {
+            Request request = call.request();
+            ApiEndpoint endpoint = request.tag(ApiEndpoint.class);
+            return endpoint != null ? new ApiCallListener(endpoints.get(endpoint)) : EventListener.NONE;
+        };
+    }
+
+    public EndpointMetrics get(ApiEndpoint endpoint) {
+        return endpoints.get(endpoint);
+    }
+}
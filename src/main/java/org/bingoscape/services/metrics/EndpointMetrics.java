@@ -0,0 +1,118 @@
+package org.bingoscape.services.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timings, byte counts and status codes for one API endpoint.
+ */
+public class EndpointMetrics {
+    private final LatencyHistogram dns;
+    private final LatencyHistogram connect;
+    private final LatencyHistogram upload;
+    private final LatencyHistogram timeToFirstByte;
+    private final LatencyHistogram total;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder requestBytes = new LongAdder();
+    private final LongAdder responseBytes = new LongAdder();
+    private final Map<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+
+    EndpointMetrics(long windowMillis) {
+        this.dns = new LatencyHistogram(windowMillis);
+        this.connect = new LatencyHistogram(windowMillis);
+        this.upload = new LatencyHistogram(windowMillis);
+        this.timeToFirstByte = new LatencyHistogram(windowMillis);
+        this.total = new LatencyHistogram(windowMillis);
+    }
+
+    void recordDns(long nanos) {
+        dns.record(nanos);
+    }
+
+    void recordConnect(long nanos) {
+        connect.record(nanos);
+    }
+
+    void recordUpload(long nanos) {
+        upload.record(nanos);
+    }
+
+    void recordTimeToFirstByte(long nanos) {
+        timeToFirstByte.record(nanos);
+    }
+
+    void recordCall(long nanos, boolean failed) {
+        total.record(nanos);
+        calls.increment();
+        if (failed) {
+            failures.increment();
+        }
+    }
+
+    void recordRequestBytes(long bytes) {
+        requestBytes.add(bytes);
+    }
+
+    void recordResponseBytes(long bytes) {
+        responseBytes.add(bytes);
+    }
+
+    void recordStatus(int code) {
+        statusCodes.computeIfAbsent(code, k -> new LongAdder()).increment();
+    }
+
+    public LatencyHistogram getDns() {
+        return dns;
+    }
+
+    public LatencyHistogram getConnect() {
+        return connect;
+    }
+
+    /**
+     * Time spent writing the request headers and body.
+     */
+    public LatencyHistogram getUpload() {
+        return upload;
+    }
+
+    /**
+     * Time from the request being fully sent to the first response byte.
+     */
+    public LatencyHistogram getTimeToFirstByte() {
+        return timeToFirstByte;
+    }
+
+    public LatencyHistogram getTotal() {
+        return total;
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public long getRequestBytes() {
+        return requestBytes.sum();
+    }
+
+    public long getResponseBytes() {
+        return responseBytes.sum();
+    }
+
+    /**
+     * Response count per HTTP status code, sorted by code.
+     */
+    public Map<Integer, Long> getStatusCodes() {
+        Map<Integer, Long> result = new TreeMap<>();
+        statusCodes.forEach((code, count) -> result.put(code, count.sum()));
+        return result;
+    }
+}
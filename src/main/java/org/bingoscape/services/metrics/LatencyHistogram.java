@@ -0,0 +1,131 @@
+package org.bingoscape.services.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free rolling latency histogram.
+ * <p>
+ * Latencies are counted in geometric buckets (about 25% apart, 1 ms to 2 min) and
+ * kept in a ring of time slots covering the rolling window. The first writer in a new
+ * period clears the slot it reuses; a few samples recorded concurrently with that
+ * reset may be lost, which is fine for diagnostics.
+ */
+public class LatencyHistogram {
+    private static final long[] BUCKET_UPPER_BOUNDS_MS = createBucketBounds();
+    private static final int BUCKET_COUNT = BUCKET_UPPER_BOUNDS_MS.length + 1; // last bucket is overflow
+    private static final int SLOT_COUNT = 6;
+
+    private final long slotMillis;
+    private final AtomicLongArray counts = new AtomicLongArray(SLOT_COUNT * BUCKET_COUNT);
+    private final AtomicLongArray slotEpochs = new AtomicLongArray(SLOT_COUNT);
+
+    /**
+     * @param windowMillis How far back samples are kept
+     */
+    public LatencyHistogram(long windowMillis) {
+        this.slotMillis = Math.max(1, windowMillis / SLOT_COUNT);
+    }
+
+    private static long[] createBucketBounds() {
+        long[] bounds = new long[64];
+        int count = 0;
+        double bound = 1;
+        while (bound <= TimeUnit.MINUTES.toMillis(2) && count < bounds.length) {
+            long rounded = Math.round(bound);
+            if (count == 0 || rounded > bounds[count - 1]) {
+                bounds[count++] = rounded;
+            }
+            bound *= 1.25;
+        }
+        return Arrays.copyOf(bounds, count);
+    }
+
+    /**
+     * Records one latency sample.
+     */
+    public void record(long durationNanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(Math.max(0, durationNanos));
+        int bucket = bucketFor(millis);
+
+        long epoch = System.currentTimeMillis() / slotMillis;
+        int slot = (int) (epoch % SLOT_COUNT);
+        long slotEpoch = slotEpochs.get(slot);
+        if (slotEpoch != epoch && slotEpochs.compareAndSet(slot, slotEpoch, epoch)) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                counts.set(slot * BUCKET_COUNT + i, 0);
+            }
+        }
+
+        counts.incrementAndGet(slot * BUCKET_COUNT + bucket);
+    }
+
+    private static int bucketFor(long millis) {
+        int index = Arrays.binarySearch(BUCKET_UPPER_BOUNDS_MS, millis);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Sums the slots inside the rolling window.
+     */
+    public Snapshot snapshot() {
+        long currentEpoch = System.currentTimeMillis() / slotMillis;
+        long[] buckets = new long[BUCKET_COUNT];
+        long total = 0;
+
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            if (currentEpoch - slotEpochs.get(slot) >= SLOT_COUNT) {
+                continue; // Slot is older than the window
+            }
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                long count = counts.get(slot * BUCKET_COUNT + i);
+                buckets[i] += count;
+                total += count;
+            }
+        }
+
+        return new Snapshot(buckets, total);
+    }
+
+    /**
+     * Point-in-time view of the histogram.
+     */
+    public static class Snapshot {
+        private final long[] buckets;
+        private final long count;
+
+        private Snapshot(long[] buckets, long count) {
+            this.buckets = buckets;
+            this.count = count;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Returns the upper bound in milliseconds of the bucket holding the given
+         * percentile, or -1 if there are no samples.
+         *
+         * @param percentile Between 0 and 100
+         */
+        public long percentile(double percentile) {
+            if (count == 0) {
+                return -1;
+            }
+
+            long rank = (long) Math.ceil(percentile / 100.0 * count);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    return i < BUCKET_UPPER_BOUNDS_MS.length
+                            ? BUCKET_UPPER_BOUNDS_MS[i]
+                            : BUCKET_UPPER_BOUNDS_MS[BUCKET_UPPER_BOUNDS_MS.length - 1];
+                }
+            }
+            return BUCKET_UPPER_BOUNDS_MS[BUCKET_UPPER_BOUNDS_MS.length - 1];
+        }
+    }
+}
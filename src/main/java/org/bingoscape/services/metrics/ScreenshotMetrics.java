@@ -0,0 +1,172 @@
+package org.bingoscape.services.metrics;
+
+import org.bingoscape.EvidenceFormat;
+
+import javax.inject.Singleton;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects encode time, size and allocation metrics for submission screenshots,
+ * and how many captures per-tick sharing saved. The latest screenshots are also kept
+ * one by one, so a single slow or oversized one can be seen next to the averages.
+ */
+@Singleton
+public class ScreenshotMetrics {
+    private static final long WINDOW_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    private static final int RECENT_LIMIT = 10;
+
+    private final LatencyHistogram encode = new LatencyHistogram(WINDOW_MILLIS);
+    private final LongAdder encoded = new LongAdder();
+    private final LongAdder encodedBytes = new LongAdder();
+    private volatile long lastBytes = -1;
+    private final LongAdder allocations = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+    private final LongAdder taken = new LongAdder();
+    private final LongAdder saved = new LongAdder();
+    // Newest first (guarded by itself)
+    private final Deque<Sample> recent = new ArrayDeque<>();
+
+    /**
+     * Records how long it took to capture and encode a screenshot for submission.
+     */
+    public void recordEncode(long nanos) {
+        encode.record(nanos);
+    }
+
+    public LatencyHistogram getEncode() {
+        return encode;
+    }
+
+    /**
+     * Records the encoded size of one submission screenshot.
+     */
+    public void recordSize(long bytes) {
+        encoded.increment();
+        encodedBytes.add(bytes);
+        lastBytes = bytes;
+    }
+
+    /**
+     * Average encoded screenshot size in bytes, or -1 before the first one.
+     */
+    public long getSizeAverage() {
+        long count = encoded.sum();
+        return count == 0 ? -1 : encodedBytes.sum() / count;
+    }
+
+    /**
+     * Encoded size of the latest screenshot in bytes, or -1 before the first one.
+     */
+    public long getLastSize() {
+        return lastBytes;
+    }
+
+    /**
+     * Records one encoded screenshot: its size in the totals, and the sample in the
+     * list of recent screenshots.
+     */
+    public void recordScreenshot(EvidenceFormat format, int width, int height, long bytes, long encodeNanos) {
+        recordSize(bytes);
+        Sample sample = new Sample(System.currentTimeMillis(), format, width, height, bytes, encodeNanos);
+        synchronized (recent) {
+            recent.addFirst(sample);
+            if (recent.size() > RECENT_LIMIT) {
+                recent.removeLast();
+            }
+        }
+    }
+
+    /**
+     * The latest encoded screenshots, newest first.
+     */
+    public List<Sample> getRecent() {
+        synchronized (recent) {
+            return new ArrayList<>(recent);
+        }
+    }
+
+    /**
+     * Records the heap allocated on the encode thread while converting one screenshot.
+     */
+    public void recordAllocation(long bytes) {
+        allocations.increment();
+        allocatedBytes.add(bytes);
+    }
+
+    /**
+     * Average bytes allocated per encoded screenshot, or -1 before the first one.
+     */
+    public long getAllocationAverage() {
+        long count = allocations.sum();
+        return count == 0 ? -1 : allocatedBytes.sum() / count;
+    }
+
+    /**
+     * Records one screenshot shared by {@code submissions} tile submissions from the same tick.
+     */
+    public void recordShared(int submissions) {
+        taken.increment();
+        saved.add(Math.max(0, submissions - 1));
+    }
+
+    public long getTaken() {
+        return taken.sum();
+    }
+
+    /**
+     * Screenshots that would have been captured without per-tick sharing.
+     */
+    public long getSaved() {
+        return saved.sum();
+    }
+
+    /**
+     * Size and encode time of one screenshot.
+     */
+    public static final class Sample {
+        private final long timestamp;
+        private final EvidenceFormat format;
+        private final int width;
+        private final int height;
+        private final long bytes;
+        private final long encodeNanos;
+
+        private Sample(long timestamp, EvidenceFormat format, int width, int height, long bytes, long encodeNanos) {
+            this.timestamp = timestamp;
+            this.format = format;
+            this.width = width;
+            this.height = height;
+            this.bytes = bytes;
+            this.encodeNanos = encodeNanos;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public EvidenceFormat getFormat() {
+            return format;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getEncodeNanos() {
+            return encodeNanos;
+        }
+    }
+}
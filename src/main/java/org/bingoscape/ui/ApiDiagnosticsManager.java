@@ -0,0 +1,221 @@
+package org.bingoscape.ui;
+
+import net.runelite.client.ui.ColorScheme;
+import org.bingoscape.services.RequestPriority;
+import org.bingoscape.models.OutboxEntry;
+import org.bingoscape.services.RequestScheduler;
+import org.bingoscape.services.SubmissionOutbox;
+import org.bingoscape.services.metrics.ApiEndpoint;
+import org.bingoscape.services.metrics.ApiMetrics;
+import org.bingoscape.services.metrics.EndpointMetrics;
+import org.bingoscape.services.metrics.LatencyHistogram;
+import org.bingoscape.services.metrics.ScreenshotMetrics;
+
+import javax.swing.*;
+import javax.swing.border.CompoundBorder;
+import javax.swing.border.EmptyBorder;
+import javax.swing.border.LineBorder;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Manages the collapsible API diagnostics section of the UI.
+ * Shows rolling p50/p95/p99 latencies per endpoint so slow submissions can be
+ * attributed to DNS, connecting, uploading or the server. Collapsed by default and
+ * only refreshed while expanded.
+ */
+public class ApiDiagnosticsManager {
+    private static final int REFRESH_INTERVAL_MS = 2000;
+
+    private final ApiMetrics apiMetrics;
+    private final RequestScheduler requestScheduler;
+    private final SubmissionOutbox submissionOutbox;
+    private final ScreenshotMetrics screenshotMetrics;
+    private final JPanel section;
+    private final JLabel contentLabel;
+    private final Timer refreshTimer;
+
+    /**
+     * Creates a new diagnostics manager.
+     *
+     * @param apiMetrics Metrics collected by the API client
+     * @param requestScheduler Scheduler whose queue and wait times are shown
+     * @param submissionOutbox Outbox whose pending submissions are shown
+     * @param screenshotMetrics Metrics collected while encoding screenshots
+     */
+    public ApiDiagnosticsManager(ApiMetrics apiMetrics, RequestScheduler requestScheduler,
+                                 SubmissionOutbox submissionOutbox, ScreenshotMetrics screenshotMetrics) {
+        this.apiMetrics = apiMetrics;
+        this.requestScheduler = requestScheduler;
+        this.submissionOutbox = submissionOutbox;
+        this.screenshotMetrics = screenshotMetrics;
+
+        contentLabel = new JLabel();
+        contentLabel.setForeground(Color.LIGHT_GRAY);
+        contentLabel.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 10));
+        contentLabel.setVisible(false);
+
+        refreshTimer = new Timer(REFRESH_INTERVAL_MS, e -> refresh());
+        refreshTimer.setRepeats(true);
+
+        section = createSection();
+    }
+
+    private JPanel createSection() {
+        JPanel panel = new JPanel(new BorderLayout(0, UIConstants.PINNED_SECTION_SPACING));
+        panel.setBackground(ColorScheme.DARK_GRAY_COLOR);
+        panel.setBorder(new CompoundBorder(
+            new LineBorder(ColorPalette.BORDER, 1, true),
+            new EmptyBorder(UIConstants.SECTION_SPACING, UIConstants.BORDER_SPACING,
+                          UIConstants.SECTION_SPACING, UIConstants.BORDER_SPACING)
+        ));
+        panel.setAlignmentX(Component.LEFT_ALIGNMENT);
+
+        panel.add(createHeader(), BorderLayout.NORTH);
+        panel.add(contentLabel, BorderLayout.CENTER);
+        return panel;
+    }
+
+    private JPanel createHeader() {
+        JPanel header = new JPanel(new BorderLayout());
+        header.setBackground(ColorScheme.DARK_GRAY_COLOR);
+        header.setCursor(new Cursor(Cursor.HAND_CURSOR));
+
+        JLabel titleLabel = new JLabel("Diagnostics");
+        titleLabel.setForeground(Color.WHITE);
+        titleLabel.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 12));
+
+        JLabel toggleLabel = new JLabel("▶");
+        toggleLabel.setForeground(Color.LIGHT_GRAY);
+        toggleLabel.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 10));
+
+        header.add(titleLabel, BorderLayout.WEST);
+        header.add(toggleLabel, BorderLayout.EAST);
+
+        // Toggle collapse on click; the timer only runs while expanded
+        header.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                boolean expand = !contentLabel.isVisible();
+                contentLabel.setVisible(expand);
+                toggleLabel.setText(expand ? "▼" : "▶");
+                if (expand) {
+                    refresh();
+                    refreshTimer.start();
+                } else {
+                    refreshTimer.stop();
+                }
+                section.revalidate();
+            }
+        });
+
+        return header;
+    }
+
+    /**
+     * Gets the diagnostics section panel to add to the UI.
+     */
+    public JPanel getSection() {
+        return section;
+    }
+
+    /**
+     * Stops the refresh timer.
+     */
+    public void stop() {
+        refreshTimer.stop();
+    }
+
+    private void refresh() {
+        StringBuilder html = new StringBuilder("<html>");
+        for (ApiEndpoint endpoint : ApiEndpoint.values()) {
+            EndpointMetrics metrics = apiMetrics.get(endpoint);
+            html.append("<b>").append(endpoint.getLabel()).append("</b> ")
+                    .append(metrics.getCalls()).append(" calls, ")
+                    .append(metrics.getFailures()).append(" failed<br>");
+            appendRow(html, "total", metrics.getTotal());
+            appendRow(html, "dns", metrics.getDns());
+            appendRow(html, "connect", metrics.getConnect());
+            appendRow(html, "upload", metrics.getUpload());
+            appendRow(html, "ttfb", metrics.getTimeToFirstByte());
+            html.append("&nbsp;bytes ").append(formatBytes(metrics.getRequestBytes()))
+                    .append(" up / ").append(formatBytes(metrics.getResponseBytes())).append(" down<br>");
+
+            Map<Integer, Long> statusCodes = metrics.getStatusCodes();
+            if (!statusCodes.isEmpty()) {
+                html.append("&nbsp;status");
+                statusCodes.forEach((code, count) -> html.append(' ').append(code).append('×').append(count));
+                html.append("<br>");
+            }
+            html.append("<br>");
+        }
+        html.append("<b>request queue</b> ").append(requestScheduler.getQueueDepth()).append(" waiting<br>");
+        for (RequestPriority priority : RequestPriority.values()) {
+            appendRow(html, priority.name().toLowerCase() + " wait", requestScheduler.getWaitTime(priority));
+            html.append("&nbsp;&nbsp;").append(requestScheduler.getQueueDepth(priority)).append(" queued, ")
+                    .append(requestScheduler.getShedCount(priority)).append(" shed<br>");
+        }
+        html.append("<br>");
+
+        html.append("<b>outbox</b> ").append(submissionOutbox.getQueueDepth()).append(" pending<br>");
+        Optional<OutboxEntry> oldest = submissionOutbox.getOldestPending();
+        if (oldest.isPresent()) {
+            OutboxEntry entry = oldest.get();
+            long ageSeconds = (System.currentTimeMillis() - entry.getCreatedAt()) / 1000;
+            html.append("&nbsp;oldest ").append(ageSeconds).append("s, ")
+                    .append(entry.getAttempts()).append(" failed attempts<br>");
+        }
+        html.append("<br>");
+
+        html.append("<b>screenshot encode</b><br>");
+        appendRow(html, "encode", screenshotMetrics.getEncode());
+        long averageSize = screenshotMetrics.getSizeAverage();
+        if (averageSize >= 0) {
+            html.append("&nbsp;size ").append(formatBytes(averageSize)).append(" avg, ")
+                    .append(formatBytes(screenshotMetrics.getLastSize())).append(" last<br>");
+        } else {
+            html.append("&nbsp;size -<br>");
+        }
+        long allocated = screenshotMetrics.getAllocationAverage();
+        html.append("&nbsp;alloc ").append(allocated < 0 ? "-" : formatBytes(allocated)).append(" per screenshot<br>");
+        html.append("&nbsp;").append(screenshotMetrics.getTaken()).append(" taken, ")
+                .append(screenshotMetrics.getSaved()).append(" saved by sharing<br>");
+        long now = System.currentTimeMillis();
+        for (ScreenshotMetrics.Sample sample : screenshotMetrics.getRecent()) {
+            html.append("&nbsp;&nbsp;").append((now - sample.getTimestamp()) / 1000).append("s ago: ")
+                    .append(sample.getFormat()).append(' ')
+                    .append(sample.getWidth()).append('×').append(sample.getHeight()).append(", ")
+                    .append(formatBytes(sample.getBytes())).append(" in ")
+                    .append(TimeUnit.NANOSECONDS.toMillis(sample.getEncodeNanos())).append(" ms<br>");
+        }
+        html.append("</html>");
+
+        contentLabel.setText(html.toString());
+    }
+
+    private static void appendRow(StringBuilder html, String name, LatencyHistogram histogram) {
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        html.append("&nbsp;").append(name).append(' ');
+        if (snapshot.getCount() == 0) {
+            html.append("-<br>");
+            return;
+        }
+        html.append(snapshot.percentile(50)).append('/')
+                .append(snapshot.percentile(95)).append('/')
+                .append(snapshot.percentile(99)).append(" ms<br>");
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format("%.1f KB", bytes / 1024.0);
+        }
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+}
@@ -2,6 +2,7 @@ package org.bingoscape.ui;
 
 import net.runelite.client.ui.ColorScheme;
 import org.bingoscape.BingoScapePlugin;
+import org.bingoscape.EvidenceFormat;
 import org.bingoscape.models.Tile;
 import org.bingoscape.ui.UIConstants;
 
@@ -168,17 +169,18 @@ public class ScreenshotHandler {
      * @param screenshotBytes The screenshot data to save
      */
     private void saveScreenshotToFile(byte[] screenshotBytes) {
+        String extension = EvidenceFormat.detect(screenshotBytes).getExtension();
         JFileChooser fileChooser = new JFileChooser();
-        fileChooser.setFileFilter(new FileNameExtensionFilter("PNG files", "png"));
-        fileChooser.setSelectedFile(new File("bingoscape_screenshot.png"));
+        fileChooser.setFileFilter(new FileNameExtensionFilter(extension.toUpperCase() + " files", extension));
+        fileChooser.setSelectedFile(new File("bingoscape_screenshot." + extension));
         fileChooser.setDialogTitle("Save Screenshot");
 
         if (fileChooser.showSaveDialog(parentComponent) == JFileChooser.APPROVE_OPTION) {
             File selectedFile = fileChooser.getSelectedFile();
             try {
-                // Ensure .png extension
-                if (!selectedFile.getName().toLowerCase().endsWith(".png")) {
-                    selectedFile = new File(selectedFile.getAbsolutePath() + ".png");
+                // Ensure the extension matches the image format
+                if (!selectedFile.getName().toLowerCase().endsWith("." + extension)) {
+                    selectedFile = new File(selectedFile.getAbsolutePath() + "." + extension);
                 }
 
                 java.nio.file.Files.write(selectedFile.toPath(), screenshotBytes);
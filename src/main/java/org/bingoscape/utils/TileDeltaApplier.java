@@ -0,0 +1,357 @@
+package org.bingoscape.utils;
+
+import org.bingoscape.models.Bingo;
+import org.bingoscape.models.GoalTreeNode;
+import org.bingoscape.models.GoalTreeProgress;
+import org.bingoscape.models.Tile;
+import org.bingoscape.models.TileDelta;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Computes tile-level deltas and applies them to copies of a bingo board.
+ * <p>
+ * Deltas only cover what changes during play: tile submissions and goal tree
+ * progress. Anything else (tiles added, removed or reordered, edited titles or
+ * goals, board settings) is a structural change, which {@link #diff} reports by
+ * returning null so the caller can replace the whole board instead.
+ * <p>
+ * Applying never modifies the board, tiles or goal nodes it is given: changed tiles
+ * are copied together with their goal trees, and the result is a new board sharing
+ * every unchanged tile. Matcher snapshots and other threads holding the old board
+ * keep a consistent view of it.
+ */
+public class TileDeltaApplier {
+
+    private TileDeltaApplier() {
+    }
+
+    /**
+     * Computes the deltas that turn {@code current} into {@code updated}.
+     *
+     * @param current The board the client currently holds
+     * @param updated A newer snapshot of the same board
+     * @return The deltas for the tiles that changed (empty if nothing did), or null
+     *         if the boards differ structurally and can't be patched
+     */
+    public static List<TileDelta> diff(Bingo current, Bingo updated) {
+        if (current == null || updated == null || !sameBoardStructure(current, updated)) {
+            return null;
+        }
+
+        List<Tile> currentTiles = current.getTiles();
+        List<Tile> updatedTiles = updated.getTiles();
+        List<TileDelta> deltas = new ArrayList<>();
+        for (int i = 0; i < currentTiles.size(); i++) {
+            TileDelta delta = diffTile(currentTiles.get(i), updatedTiles.get(i));
+            if (delta == null) {
+                return null;
+            }
+            if (!delta.isEmpty()) {
+                deltas.add(delta);
+            }
+        }
+        return deltas;
+    }
+
+    /**
+     * Computes the delta between two versions of the same tile.
+     *
+     * @return The delta (possibly empty), or null if the tiles differ structurally
+     */
+    public static TileDelta diffTile(Tile current, Tile updated) {
+        if (current == null || updated == null || !sameTileStructure(current, updated)) {
+            return null;
+        }
+
+        TileDelta delta = new TileDelta();
+        delta.setTileId(current.getId());
+        delta.setUpdatedAt(updated.getUpdatedAt());
+
+        if (!Objects.equals(current.getSubmission(), updated.getSubmission())) {
+            if (updated.getSubmission() == null) {
+                return null; // A cleared submission can't be expressed as a delta
+            }
+            delta.setSubmission(updated.getSubmission());
+        }
+
+        Map<String, GoalTreeProgress> goalProgress = new HashMap<>();
+        if (!diffGoalTree(current.getGoalTree(), updated.getGoalTree(), goalProgress)) {
+            return null;
+        }
+        if (!goalProgress.isEmpty()) {
+            delta.setGoalProgress(goalProgress);
+        }
+
+        return delta;
+    }
+
+    /**
+     * Applies deltas to a copy of the board. A delta older than the tile's last applied
+     * change is skipped, so a full refresh that was sent before a live update arrived
+     * can't roll the tile back.
+     *
+     * @param bingo  The board to patch; it is not modified
+     * @param deltas The deltas to apply
+     * @return The patched board (the same board if no tile was replaced) and the IDs of
+     *         the tiles that actually changed, in delta order
+     */
+    public static Patch apply(Bingo bingo, Collection<TileDelta> deltas) {
+        Set<UUID> changed = new LinkedHashSet<>();
+        if (bingo == null || bingo.getTiles() == null || deltas == null || deltas.isEmpty()) {
+            return new Patch(bingo, changed);
+        }
+
+        List<Tile> tiles = new ArrayList<>(bingo.getTiles());
+        Map<UUID, Integer> ordinalsById = new HashMap<>();
+        for (int ordinal = 0; ordinal < tiles.size(); ordinal++) {
+            ordinalsById.put(tiles.get(ordinal).getId(), ordinal);
+        }
+
+        boolean replaced = false;
+        for (TileDelta delta : deltas) {
+            Integer ordinal = ordinalsById.get(delta.getTileId());
+            if (ordinal == null || isStale(tiles.get(ordinal), delta)) {
+                continue;
+            }
+
+            Tile tile = copyTile(tiles.get(ordinal));
+            boolean tileChanged = false;
+            if (delta.getSubmission() != null && !delta.getSubmission().equals(tile.getSubmission())) {
+                tile.setSubmission(delta.getSubmission());
+                tileChanged = true;
+            }
+            if (delta.getGoalProgress() != null && !delta.getGoalProgress().isEmpty()) {
+                tileChanged |= applyGoalProgress(tile.getGoalTree(), delta.getGoalProgress());
+            }
+            boolean newer = delta.getUpdatedAt() != null && !delta.getUpdatedAt().equals(tile.getUpdatedAt());
+            if (newer) {
+                tile.setUpdatedAt(delta.getUpdatedAt());
+            }
+
+            if (tileChanged || newer) {
+                tiles.set(ordinal, tile);
+                replaced = true;
+            }
+            if (tileChanged) {
+                changed.add(tile.getId());
+            }
+        }
+
+        if (!replaced) {
+            return new Patch(bingo, changed);
+        }
+        Bingo patched = copyBoard(bingo);
+        patched.setTiles(tiles);
+        return new Patch(patched, changed);
+    }
+
+    private static boolean isStale(Tile tile, TileDelta delta) {
+        return tile.getUpdatedAt() != null && delta.getUpdatedAt() != null
+                && delta.getUpdatedAt().before(tile.getUpdatedAt());
+    }
+
+    /**
+     * Copies the board's own fields. The tile list and everything below it is shared.
+     */
+    public static Bingo copyBoard(Bingo bingo) {
+        Bingo copy = new Bingo();
+        copy.setId(bingo.getId());
+        copy.setEventId(bingo.getEventId());
+        copy.setTitle(bingo.getTitle());
+        copy.setDescription(bingo.getDescription());
+        copy.setRows(bingo.getRows());
+        copy.setColumns(bingo.getColumns());
+        copy.setCodephrase(bingo.getCodephrase());
+        copy.setCreatedAt(bingo.getCreatedAt());
+        copy.setUpdatedAt(bingo.getUpdatedAt());
+        copy.setLocked(bingo.isLocked());
+        copy.setVisible(bingo.isVisible());
+        copy.setBingoType(bingo.getBingoType());
+        copy.setTiles(bingo.getTiles());
+        copy.setProgression(bingo.getProgression());
+        return copy;
+    }
+
+    /**
+     * Copies a tile and its goal tree, the parts a delta changes. Submissions, progress
+     * and goal definitions are replaced rather than modified, so they are shared.
+     */
+    private static Tile copyTile(Tile tile) {
+        Tile copy = new Tile();
+        copy.setId(tile.getId());
+        copy.setBingoId(tile.getBingoId());
+        copy.setHeaderImage(tile.getHeaderImage());
+        copy.setTitle(tile.getTitle());
+        copy.setDescription(tile.getDescription());
+        copy.setWeight(tile.getWeight());
+        copy.setIndex(tile.getIndex());
+        copy.setTier(tile.getTier());
+        copy.setHidden(tile.isHidden());
+        copy.setCreatedAt(tile.getCreatedAt());
+        copy.setUpdatedAt(tile.getUpdatedAt());
+        copy.setSubmission(tile.getSubmission());
+        copy.setGoals(tile.getGoals());
+        copy.setGoalTree(copyNodes(tile.getGoalTree()));
+        return copy;
+    }
+
+    private static List<GoalTreeNode> copyNodes(List<GoalTreeNode> nodes) {
+        if (nodes == null) {
+            return null;
+        }
+        List<GoalTreeNode> copies = new ArrayList<>(nodes.size());
+        for (GoalTreeNode node : nodes) {
+            GoalTreeNode copy = new GoalTreeNode();
+            copy.setType(node.getType());
+            copy.setId(node.getId());
+            copy.setOrderIndex(node.getOrderIndex());
+            copy.setName(node.getName());
+            copy.setLogicalOperator(node.getLogicalOperator());
+            copy.setMinRequiredGoals(node.getMinRequiredGoals());
+            copy.setChildren(copyNodes(node.getChildren()));
+            copy.setProgress(node.getProgress());
+            copy.setDescription(node.getDescription());
+            copy.setTargetValue(node.getTargetValue());
+            copy.setGoalType(node.getGoalType());
+            copy.setItemGoal(node.getItemGoal());
+            copy.setEventGoal(node.getEventGoal());
+            copies.add(copy);
+        }
+        return copies;
+    }
+
+    private static boolean applyGoalProgress(List<GoalTreeNode> nodes, Map<String, GoalTreeProgress> goalProgress) {
+        if (nodes == null) {
+            return false;
+        }
+
+        boolean changed = false;
+        for (GoalTreeNode node : nodes) {
+            GoalTreeProgress progress = node.getId() != null ? goalProgress.get(node.getId()) : null;
+            if (progress != null && !progress.equals(node.getProgress())) {
+                node.setProgress(progress);
+                changed = true;
+            }
+            changed |= applyGoalProgress(node.getChildren(), goalProgress);
+        }
+        return changed;
+    }
+
+    private static boolean sameBoardStructure(Bingo current, Bingo updated) {
+        if (!Objects.equals(current.getId(), updated.getId())
+                || !Objects.equals(current.getTitle(), updated.getTitle())
+                || !Objects.equals(current.getDescription(), updated.getDescription())
+                || current.getRows() != updated.getRows()
+                || current.getColumns() != updated.getColumns()
+                || !Objects.equals(current.getCodephrase(), updated.getCodephrase())
+                || current.isLocked() != updated.isLocked()
+                || current.isVisible() != updated.isVisible()
+                || !Objects.equals(current.getBingoType(), updated.getBingoType())
+                || !Objects.equals(current.getProgression(), updated.getProgression())) {
+            return false;
+        }
+
+        List<Tile> currentTiles = current.getTiles();
+        List<Tile> updatedTiles = updated.getTiles();
+        if (currentTiles == null || updatedTiles == null || currentTiles.size() != updatedTiles.size()) {
+            return false;
+        }
+        for (int i = 0; i < currentTiles.size(); i++) {
+            if (!Objects.equals(currentTiles.get(i).getId(), updatedTiles.get(i).getId())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameTileStructure(Tile current, Tile updated) {
+        return Objects.equals(current.getId(), updated.getId())
+                && Objects.equals(current.getHeaderImage(), updated.getHeaderImage())
+                && Objects.equals(current.getTitle(), updated.getTitle())
+                && Objects.equals(current.getDescription(), updated.getDescription())
+                && current.getWeight() == updated.getWeight()
+                && current.getIndex() == updated.getIndex()
+                && Objects.equals(current.getTier(), updated.getTier())
+                && current.isHidden() == updated.isHidden()
+                && Objects.equals(current.getGoals(), updated.getGoals());
+    }
+
+    /**
+     * Walks both trees in parallel, collecting progress changes by node ID.
+     *
+     * @return false if the trees differ in anything other than progress
+     */
+    private static boolean diffGoalTree(List<GoalTreeNode> current, List<GoalTreeNode> updated,
+                                        Map<String, GoalTreeProgress> goalProgress) {
+        if (current == null || updated == null) {
+            return current == updated;
+        }
+        if (current.size() != updated.size()) {
+            return false;
+        }
+
+        for (int i = 0; i < current.size(); i++) {
+            GoalTreeNode currentNode = current.get(i);
+            GoalTreeNode updatedNode = updated.get(i);
+            if (!sameNodeStructure(currentNode, updatedNode)) {
+                return false;
+            }
+
+            if (!Objects.equals(currentNode.getProgress(), updatedNode.getProgress())) {
+                if (currentNode.getId() == null || updatedNode.getProgress() == null) {
+                    return false; // Can't address this node in a delta
+                }
+                goalProgress.put(currentNode.getId(), updatedNode.getProgress());
+            }
+
+            if (!diffGoalTree(currentNode.getChildren(), updatedNode.getChildren(), goalProgress)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameNodeStructure(GoalTreeNode current, GoalTreeNode updated) {
+        return Objects.equals(current.getId(), updated.getId())
+                && Objects.equals(current.getType(), updated.getType())
+                && current.getOrderIndex() == updated.getOrderIndex()
+                && Objects.equals(current.getName(), updated.getName())
+                && Objects.equals(current.getLogicalOperator(), updated.getLogicalOperator())
+                && Objects.equals(current.getMinRequiredGoals(), updated.getMinRequiredGoals())
+                && Objects.equals(current.getDescription(), updated.getDescription())
+                && Objects.equals(current.getTargetValue(), updated.getTargetValue())
+                && Objects.equals(current.getGoalType(), updated.getGoalType())
+                && Objects.equals(current.getItemGoal(), updated.getItemGoal())
+                && Objects.equals(current.getEventGoal(), updated.getEventGoal());
+    }
+
+    /**
+     * Result of {@link #apply}: the patched board and the tiles that changed.
+     */
+    public static final class Patch {
+        private final Bingo bingo;
+        private final Set<UUID> changedTileIds;
+
+        private Patch(Bingo bingo, Set<UUID> changedTileIds) {
+            this.bingo = bingo;
+            this.changedTileIds = changedTileIds;
+        }
+
+        public Bingo getBingo() {
+            return bingo;
+        }
+
+        public Set<UUID> getChangedTileIds() {
+            return changedTileIds;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.bingoscape;
+
+import org.bingoscape.models.Bingo;
+import org.bingoscape.models.GoalTreeNode;
+import org.bingoscape.models.GoalTreeProgress;
+import org.bingoscape.models.ItemGoal;
+import org.bingoscape.models.Tile;
+import org.bingoscape.models.TileSubmission;
+import org.bingoscape.models.TileSubmissionType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Builds boards for tests. Tile {@code i} is an AND group of two item goals for
+ * items {@code 1000 + i} and {@code 2000 + i}.
+ */
+public final class TestBoards {
+    // Whole seconds, so dates survive Gson's default date format
+    public static final Date CREATED_AT = new Date(1_700_000_000_000L);
+
+    private TestBoards() {
+    }
+
+    public static Bingo board(int tileCount) {
+        Bingo bingo = new Bingo();
+        bingo.setId(new UUID(1, 1));
+        bingo.setEventId(new UUID(1, 2));
+        bingo.setTitle("Test board");
+        bingo.setDescription("Board with " + tileCount + " tiles");
+        bingo.setRows((int) Math.ceil(Math.sqrt(tileCount)));
+        bingo.setColumns((int) Math.ceil(Math.sqrt(tileCount)));
+        bingo.setCodephrase("test");
+        bingo.setCreatedAt(CREATED_AT);
+        bingo.setUpdatedAt(CREATED_AT);
+        bingo.setVisible(true);
+        bingo.setBingoType("standard");
+
+        List<Tile> tiles = new ArrayList<>();
+        for (int i = 0; i < tileCount; i++) {
+            tiles.add(tile(bingo.getId(), i));
+        }
+        bingo.setTiles(tiles);
+        return bingo;
+    }
+
+    public static Tile tile(UUID bingoId, int index) {
+        Tile tile = new Tile();
+        tile.setId(new UUID(2, index));
+        tile.setBingoId(bingoId);
+        tile.setTitle("Tile " + index);
+        tile.setDescription("Obtain two items");
+        tile.setHeaderImage("https://example.com/tiles/" + index + ".png");
+        tile.setWeight(10);
+        tile.setIndex(index);
+        tile.setTier(index % 3);
+        tile.setCreatedAt(CREATED_AT);
+        tile.setUpdatedAt(CREATED_AT);
+
+        GoalTreeNode group = new GoalTreeNode();
+        group.setType("group");
+        group.setId("group-" + index);
+        group.setName("Both items");
+        group.setLogicalOperator("AND");
+        group.setChildren(new ArrayList<>(Arrays.asList(
+                itemGoal("goal-" + index + "-a", 1000 + index, 1),
+                itemGoal("goal-" + index + "-b", 2000 + index, 1))));
+        group.setProgress(progress(0, 2));
+        tile.setGoalTree(new ArrayList<>(Arrays.asList(group)));
+        return tile;
+    }
+
+    public static GoalTreeNode itemGoal(String id, int itemId, int targetValue) {
+        ItemGoal itemGoal = new ItemGoal();
+        itemGoal.setItemId(itemId);
+        itemGoal.setBaseName("Item " + itemId);
+
+        GoalTreeNode goal = new GoalTreeNode();
+        goal.setType("goal");
+        goal.setId(id);
+        goal.setDescription("Obtain item " + itemId);
+        goal.setTargetValue(targetValue);
+        goal.setGoalType("item");
+        goal.setItemGoal(itemGoal);
+        goal.setProgress(progress(0, targetValue));
+        return goal;
+    }
+
+    public static TileSubmission submission(TileSubmissionType status) {
+        TileSubmission submission = new TileSubmission();
+        submission.setId("submission");
+        submission.setStatus(status);
+        submission.setLastUpdated(CREATED_AT);
+        submission.setSubmissionCount(1);
+        return submission;
+    }
+
+    private static GoalTreeProgress progress(int completed, int total) {
+        GoalTreeProgress progress = new GoalTreeProgress();
+        progress.setCompletedCount(completed);
+        progress.setTotalCount(total);
+        progress.setComplete(completed >= total);
+        return progress;
+    }
+}
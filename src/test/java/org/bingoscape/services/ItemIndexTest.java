@@ -0,0 +1,166 @@
+package org.bingoscape.services;
+
+import org.bingoscape.TestBoards;
+import org.bingoscape.models.Bingo;
+import org.bingoscape.models.GoalTreeNode;
+import org.bingoscape.models.GoalTreeProgress;
+import org.bingoscape.models.Tile;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks {@link ItemIndex} against a HashMap, and item lookups on a compiled
+ * {@link MatcherSnapshot} against the linear goal tree walk the matcher used before
+ * the index existed. {@code ItemLookupBenchmark} in the jmh source set times both
+ * against the same boards.
+ */
+public class ItemIndexTest {
+    private static final int BOARD_TILES = 300;
+    static final int ITEM_RANGE = 80;
+
+    @Test
+    public void matchesHashMap() {
+        Random random = new Random(11);
+        Map<Long, List<Integer>> expected = new HashMap<>();
+        ItemIndex.Builder builder = new ItemIndex.Builder();
+        for (int ordinal = 0; ordinal < 5_000; ordinal++) {
+            // Few distinct keys, both plain and tagged, so keys collide and probe chains form
+            long key = random.nextInt(500) | (random.nextBoolean() ? 1L << 62 : 0);
+            builder.add(key, ordinal);
+            expected.computeIfAbsent(key, k -> new ArrayList<>()).add(ordinal);
+        }
+        ItemIndex index = builder.build();
+
+        assertEquals(expected.size(), index.size());
+        for (Map.Entry<Long, List<Integer>> entry : expected.entrySet()) {
+            int[] ordinals = entry.getValue().stream().mapToInt(Integer::intValue).toArray();
+            assertArrayEquals(ordinals, index.get(entry.getKey()));
+        }
+        assertEquals(0, index.get(123_456_789L).length);
+
+        long[] keys = index.keys();
+        Arrays.sort(keys);
+        assertArrayEquals(expected.keySet().stream().mapToLong(Long::longValue).sorted().toArray(), keys);
+    }
+
+    @Test
+    public void repeatedOrdinalIsStoredOnce() {
+        ItemIndex index = new ItemIndex.Builder().add(7, 1).add(7, 1).add(7, 2).build();
+        assertArrayEquals(new int[]{1, 2}, index.get(7));
+    }
+
+    @Test
+    public void emptyIndexReturnsNoOrdinals() {
+        assertEquals(0, ItemIndex.EMPTY.get(1).length);
+        assertEquals(0, ItemIndex.EMPTY.size());
+    }
+
+    @Test
+    public void snapshotLookupsMatchLinearMatcher() {
+        Bingo board = randomBoard(new Random(5));
+        MatcherSnapshot snapshot = MatcherSnapshot.build(board, 1);
+        LootSource source = LootSource.ofNpc(null);
+
+        for (int itemId = 0; itemId < ITEM_RANGE + 10; itemId++) {
+            List<UUID> expected = linearTilesForItem(board, itemId);
+
+            List<BoardTile> matches = new ArrayList<>();
+            snapshot.collectOpenTiles(itemId, source, 1, matches);
+            List<UUID> actual = new ArrayList<>();
+            for (BoardTile match : matches) {
+                actual.add(match.getTileId());
+            }
+
+            assertEquals("item " + itemId, expected, actual);
+            assertEquals("item " + itemId, !expected.isEmpty(),
+                    snapshot.hasOpenMatch(itemId, source));
+        }
+    }
+
+    /**
+     * The matcher before the index: walk every tile's goal tree for the item and keep
+     * tiles where some goal for it is incomplete. Tiles with several goals for the item
+     * are listed once, as the index does.
+     */
+    static List<UUID> linearTilesForItem(Bingo board, int itemId) {
+        Set<UUID> result = new LinkedHashSet<>();
+        for (Tile tile : board.getTiles()) {
+            List<GoalTreeNode> goals = new ArrayList<>();
+            findGoalsForItem(tile.getGoalTree(), itemId, goals);
+            for (GoalTreeNode goal : goals) {
+                if (goal.getProgress() == null || !goal.getProgress().isComplete()) {
+                    result.add(tile.getId());
+                    break;
+                }
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    private static void findGoalsForItem(List<GoalTreeNode> nodes, int itemId, List<GoalTreeNode> result) {
+        if (nodes == null) {
+            return;
+        }
+        for (GoalTreeNode node : nodes) {
+            if (node.isItemGoal() && node.getItemGoal().getItemId() != null
+                    && node.getItemGoal().getItemId() == itemId) {
+                result.add(node);
+            }
+            if (node.isGroup()) {
+                findGoalsForItem(node.getChildren(), itemId, result);
+            }
+        }
+    }
+
+    /**
+     * A board whose tiles have random AND/OR trees of item goals drawn from a small item
+     * range, so items repeat within and across tiles, with random goals complete.
+     */
+    static Bingo randomBoard(Random random) {
+        Bingo board = TestBoards.board(BOARD_TILES);
+        int[] nextGoal = {0};
+        for (Tile tile : board.getTiles()) {
+            tile.setGoalTree(new ArrayList<>(Arrays.asList(randomGroup(random, 0, nextGoal))));
+        }
+        return board;
+    }
+
+    private static GoalTreeNode randomGroup(Random random, int depth, int[] nextGoal) {
+        GoalTreeNode group = new GoalTreeNode();
+        group.setType("group");
+        group.setId("group-" + nextGoal[0]++);
+        group.setLogicalOperator(random.nextBoolean() ? "AND" : "OR");
+        group.setMinRequiredGoals(1);
+
+        List<GoalTreeNode> children = new ArrayList<>();
+        int count = 1 + random.nextInt(3);
+        for (int i = 0; i < count; i++) {
+            if (depth < 2 && random.nextInt(4) == 0) {
+                children.add(randomGroup(random, depth + 1, nextGoal));
+                continue;
+            }
+            int target = 1 + random.nextInt(3);
+            GoalTreeNode goal = TestBoards.itemGoal("goal-" + nextGoal[0]++, random.nextInt(ITEM_RANGE), target);
+            if (random.nextInt(3) == 0) {
+                GoalTreeProgress progress = goal.getProgress();
+                progress.setCompletedCount(target);
+                progress.setComplete(true);
+            }
+            children.add(goal);
+        }
+        group.setChildren(children);
+        return group;
+    }
+}
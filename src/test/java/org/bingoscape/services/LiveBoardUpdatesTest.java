@@ -0,0 +1,209 @@
+package org.bingoscape.services;
+
+import com.google.gson.Gson;
+import okhttp3.OkHttpClient;
+import org.bingoscape.BingoScapeConfig;
+import org.bingoscape.models.TileDelta;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the SSE client against a stand-in server on a local socket. Each connection
+ * gets the next scripted event stream, after which the server closes it.
+ */
+public class LiveBoardUpdatesTest {
+    private static final long TIMEOUT_SECONDS = 5;
+    // LiveBoardUpdates waits at least a second before reconnecting; allow for timer slack
+    private static final long MIN_RECONNECT_MS = 900;
+
+    private SseServer server;
+    private LiveBoardUpdates liveBoardUpdates;
+
+    private final BlockingQueue<TileDelta> deltas = new LinkedBlockingQueue<>();
+    private final BlockingQueue<Thread> refreshThreads = new LinkedBlockingQueue<>();
+
+    @Before
+    public void setUp() throws IOException {
+        server = new SseServer();
+        liveBoardUpdates = new LiveBoardUpdates(new OkHttpClient(), new Gson(), config(server.baseUrl()));
+        liveBoardUpdates.startUp((bingoId, tile) -> {}, (bingoId, delta) -> deltas.add(delta),
+                bingoId -> refreshThreads.add(Thread.currentThread()));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        liveBoardUpdates.shutDown();
+        server.close();
+    }
+
+    @Test
+    public void dispatchesEventsAndResumesFromLastEventId() throws Exception {
+        UUID bingoId = UUID.randomUUID();
+        UUID tileId = UUID.randomUUID();
+        server.respond("retry: 10\n"
+                + "id: 7\nevent: tile-delta\ndata: {\"tileId\":\"" + tileId + "\"}\n\n"
+                + ": heartbeat\n\n"
+                + "event: refresh\ndata: now\n\n");
+        server.respond("");
+
+        liveBoardUpdates.follow(bingoId);
+
+        Map<String, String> first = server.nextRequest();
+        assertEquals("GET /api/runelite/bingos/" + bingoId + "/stream HTTP/1.1", first.get(SseServer.REQUEST_LINE));
+        assertEquals("Bearer test-key", first.get("authorization"));
+        assertEquals("text/event-stream", first.get("accept"));
+
+        TileDelta delta = deltas.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertNotNull(delta);
+        assertEquals(tileId, delta.getTileId());
+
+        Thread streamThread = refreshThreads.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertNotNull(streamThread);
+        assertEquals("bingoscape-live-updates", streamThread.getName());
+        assertTrue(streamThread.isDaemon());
+
+        Map<String, String> second = server.nextRequest();
+        assertEquals("7", second.get("last-event-id"));
+    }
+
+    @Test
+    public void stopInterruptsReconnectBackoff() throws Exception {
+        UUID firstBingo = UUID.randomUUID();
+        UUID secondBingo = UUID.randomUUID();
+        // A minute of backoff after the first stream ends
+        server.respond("retry: 60000\n\n");
+
+        liveBoardUpdates.follow(firstBingo);
+        assertNotNull(server.nextRequest());
+        Thread.sleep(200);
+
+        // Following another bingo must not wait for the old stream's backoff
+        liveBoardUpdates.follow(secondBingo);
+
+        Map<String, String> request = server.nextRequest();
+        assertTrue(request.get(SseServer.REQUEST_LINE).contains(secondBingo.toString()));
+    }
+
+    @Test
+    public void retryBelowMinimumIsClamped() throws Exception {
+        // Taken as is, a zero retry would reconnect in a tight loop
+        server.respond("retry: 0\n\n");
+        server.respond("");
+
+        liveBoardUpdates.follow(UUID.randomUUID());
+        assertNotNull(server.nextRequest());
+        long firstAt = System.nanoTime();
+        assertNotNull(server.nextRequest());
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - firstAt) >= MIN_RECONNECT_MS);
+    }
+
+    private static BingoScapeConfig config(String baseUrl) {
+        return (BingoScapeConfig) Proxy.newProxyInstance(BingoScapeConfig.class.getClassLoader(),
+                new Class<?>[]{BingoScapeConfig.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "apiKey":
+                            return "test-key";
+                        case "apiBaseUrl":
+                            return baseUrl;
+                        case "toString":
+                            return "TestConfig";
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    /**
+     * Minimal HTTP server that answers each connection with the next scripted event
+     * stream and then closes it. Request lines and headers are recorded in order.
+     */
+    private static final class SseServer implements AutoCloseable {
+        private static final String REQUEST_LINE = ":request-line";
+
+        private final ServerSocket socket;
+        private final Thread acceptThread;
+        private final BlockingQueue<String> responses = new LinkedBlockingQueue<>();
+        private final BlockingQueue<Map<String, String>> requests = new LinkedBlockingQueue<>();
+
+        private SseServer() throws IOException {
+            socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            acceptThread = new Thread(this::serve, "sse-test-server");
+            acceptThread.setDaemon(true);
+            acceptThread.start();
+        }
+
+        private String baseUrl() {
+            return "http://127.0.0.1:" + socket.getLocalPort();
+        }
+
+        private void respond(String events) {
+            responses.add(events);
+        }
+
+        private Map<String, String> nextRequest() throws InterruptedException {
+            Map<String, String> request = requests.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertNotNull("No request within " + TIMEOUT_SECONDS + "s", request);
+            return request;
+        }
+
+        private void serve() {
+            while (!socket.isClosed()) {
+                try (Socket connection = socket.accept()) {
+                    BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+                    Map<String, String> headers = new HashMap<>();
+                    headers.put(REQUEST_LINE, reader.readLine());
+                    String line;
+                    while ((line = reader.readLine()) != null && !line.isEmpty()) {
+                        int colon = line.indexOf(':');
+                        headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT),
+                                line.substring(colon + 1).trim());
+                    }
+                    requests.add(headers);
+
+                    String events = responses.poll();
+                    OutputStream out = connection.getOutputStream();
+                    out.write(("HTTP/1.1 200 OK\r\n"
+                            + "Content-Type: text/event-stream\r\n"
+                            + "Connection: close\r\n\r\n"
+                            + (events != null ? events : "")).getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                } catch (IOException e) {
+                    // Closed by the test, or the client hung up
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.bingoscape.services;
+
+import org.bingoscape.TestBoards;
+import org.bingoscape.models.Bingo;
+import org.bingoscape.models.GoalTreeProgress;
+import org.bingoscape.models.Tile;
+import org.bingoscape.models.TileDelta;
+import org.bingoscape.utils.TileDeltaApplier;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Applies a stream of goal progress deltas on one thread while other threads keep
+ * looking up items, and checks that a published snapshot never changes under its
+ * readers and that incremental updates end up where a full rebuild would.
+ */
+public class MatcherSnapshotConcurrencyTest {
+    private static final int TILES = 100;
+    private static final int DELTAS = 5_000;
+    private static final int READERS = 3;
+    private static final LootSource SOURCE = LootSource.ofNpc(null);
+
+    @Test
+    public void snapshotsStayConsistentWhileDeltasApply() throws Exception {
+        Bingo original = TestBoards.board(TILES);
+        MatcherSnapshot first = MatcherSnapshot.build(original, 1);
+        List<List<UUID>> expectedFirst = lookUpAll(first);
+
+        AtomicReference<Bingo> board = new AtomicReference<>(original);
+        AtomicReference<MatcherSnapshot> published = new AtomicReference<>(first);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch writerDone = new CountDownLatch(1);
+
+        Thread writer = new Thread(() -> {
+            try {
+                Random random = new Random(3);
+                for (int i = 0; i < DELTAS; i++) {
+                    Bingo current = board.get();
+                    TileDeltaApplier.Patch patch = TileDeltaApplier.apply(current,
+                            Collections.singletonList(randomDelta(random, current)));
+                    MatcherSnapshot previous = published.get();
+                    MatcherSnapshot next = previous.withChangedTiles(patch.getBingo(), patch.getChangedTileIds(),
+                            previous.getSequence() + 1);
+                    board.set(patch.getBingo());
+                    published.set(next);
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            } finally {
+                writerDone.countDown();
+            }
+        }, "delta-writer");
+
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < READERS; r++) {
+            Thread reader = new Thread(() -> {
+                try {
+                    while (writerDone.getCount() > 0 && failure.get() == null) {
+                        assertEquals(expectedFirst, lookUpAll(first));
+                        lookUpAll(published.get());
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            }, "matcher-reader-" + r);
+            readers.add(reader);
+        }
+
+        readers.forEach(Thread::start);
+        writer.start();
+        assertTrue("Writer did not finish", writerDone.await(60, TimeUnit.SECONDS));
+        for (Thread reader : readers) {
+            reader.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        assertNull("Failure during concurrent lookups: " + failure.get(), failure.get());
+
+        // The original board was never modified
+        for (Tile tile : original.getTiles()) {
+            assertFalse(tile.getGoalTree().get(0).getChildren().get(0).getProgress().isComplete());
+            assertFalse(tile.getGoalTree().get(0).getChildren().get(1).getProgress().isComplete());
+        }
+        assertEquals(expectedFirst, lookUpAll(first));
+
+        // Incremental updates give the same answers as compiling the final board
+        assertEquals(lookUpAll(MatcherSnapshot.build(board.get(), Long.MAX_VALUE)), lookUpAll(published.get()));
+    }
+
+    /**
+     * Open tiles for each goal item of the test board, in item order.
+     */
+    private static List<List<UUID>> lookUpAll(MatcherSnapshot snapshot) {
+        List<List<UUID>> result = new ArrayList<>();
+        for (int i = 0; i < TILES; i++) {
+            for (int itemId : new int[]{1000 + i, 2000 + i}) {
+                List<BoardTile> matches = new ArrayList<>();
+                snapshot.collectOpenTiles(itemId, SOURCE, 1, matches);
+                List<UUID> tileIds = new ArrayList<>();
+                for (BoardTile match : matches) {
+                    tileIds.add(match.getTileId());
+                }
+                result.add(tileIds);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Completes or resets one random goal.
+     */
+    private static TileDelta randomDelta(Random random, Bingo board) {
+        int index = random.nextInt(TILES);
+        Tile tile = board.getTiles().get(index);
+        boolean complete = random.nextBoolean();
+
+        GoalTreeProgress progress = new GoalTreeProgress();
+        progress.setCompletedCount(complete ? 1 : 0);
+        progress.setTotalCount(1);
+        progress.setComplete(complete);
+
+        TileDelta delta = new TileDelta();
+        delta.setTileId(tile.getId());
+        delta.setGoalProgress(Collections.singletonMap("goal-" + index + (random.nextBoolean() ? "-a" : "-b"),
+                progress));
+        return delta;
+    }
+}
@@ -0,0 +1,184 @@
+package org.bingoscape.services;
+
+import org.bingoscape.TestBoards;
+import org.bingoscape.models.Bingo;
+import org.bingoscape.models.EventGoal;
+import org.bingoscape.models.GoalTreeNode;
+import org.bingoscape.models.GoalTreeProgress;
+import org.bingoscape.models.Tile;
+import org.bingoscape.models.TileDelta;
+import org.bingoscape.models.TileSubmissionType;
+import org.bingoscape.utils.TileDeltaApplier;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that a snapshot derived with {@link MatcherSnapshot#withChangedTiles} answers
+ * every item and event lookup the way a full build of the same board does, including
+ * the predicted outcome, so reused evaluators and event goals are covered as well as
+ * the item index.
+ */
+public class MatcherSnapshotTest {
+    private static final int TILES = 30;
+    private static final int DELTAS = 2_000;
+    private static final LootSource SOURCE = LootSource.ofNpc(null);
+    private static final String KILL_COUNT_MESSAGE = "Your Zulrah kill count is: 5.";
+    private static final String COLLECTION_LOG_MESSAGE = "New item added to your collection log: Tanzanite fang";
+    private static final TileSubmissionType[] STATUSES = {
+            TileSubmissionType.ACCEPTED, TileSubmissionType.PENDING, TileSubmissionType.DECLINED,
+    };
+
+    @Test
+    public void acceptedTilesAreNotMatched() {
+        Bingo board = boardWithEventGoals();
+        board.getTiles().get(0).setSubmission(TestBoards.submission(TileSubmissionType.ACCEPTED));
+        board.getTiles().get(3).setSubmission(TestBoards.submission(TileSubmissionType.PENDING));
+        MatcherSnapshot snapshot = MatcherSnapshot.build(board, 1);
+
+        assertFalse(snapshot.hasOpenMatch(1000, SOURCE));
+        assertTrue(snapshot.hasOpenMatch(1003, SOURCE));
+        assertTrue(TileRequirementMatcher.isTileApproved(board.getTiles().get(0)));
+        assertFalse(TileRequirementMatcher.isTileApproved(board.getTiles().get(3)));
+
+        // Tile 0 has a kill count goal too, but only tile 3 is still open
+        List<String> events = describeEvents(snapshot, KILL_COUNT_MESSAGE);
+        assertEquals(TILES / 3 - 1, events.size());
+        assertTrue(events.get(0).startsWith(board.getTiles().get(3).getId() + " "));
+        for (String event : events) {
+            assertFalse(event.startsWith(board.getTiles().get(0).getId().toString()));
+        }
+    }
+
+    @Test
+    public void incrementalUpdatesMatchFullBuild() {
+        Random random = new Random(14);
+        Bingo board = boardWithEventGoals();
+        MatcherSnapshot snapshot = MatcherSnapshot.build(board, 1);
+
+        for (int i = 0; i < DELTAS; i++) {
+            TileDeltaApplier.Patch patch = TileDeltaApplier.apply(board,
+                    Collections.singletonList(randomDelta(random, board)));
+            board = patch.getBingo();
+            snapshot = snapshot.withChangedTiles(board, patch.getChangedTileIds(), i + 2);
+            assertNotNull(snapshot);
+
+            MatcherSnapshot full = MatcherSnapshot.build(board, i + 2);
+            assertEquals("delta " + i, describeItems(full), describeItems(snapshot));
+            assertEquals("delta " + i, describeEvents(full, KILL_COUNT_MESSAGE),
+                    describeEvents(snapshot, KILL_COUNT_MESSAGE));
+            assertEquals("delta " + i, describeEvents(full, COLLECTION_LOG_MESSAGE),
+                    describeEvents(snapshot, COLLECTION_LOG_MESSAGE));
+            assertEquals("delta " + i, full.getTrackableTileCount(), snapshot.getTrackableTileCount());
+        }
+    }
+
+    /**
+     * Open tiles with their predicted outcome and goals for every goal item, in item order.
+     */
+    private static List<String> describeItems(MatcherSnapshot snapshot) {
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < TILES; i++) {
+            for (int itemId : new int[]{1000 + i, 2000 + i}) {
+                List<BoardTile> matches = new ArrayList<>();
+                snapshot.collectOpenTiles(itemId, SOURCE, 1, matches);
+                result.add(itemId + " " + snapshot.hasOpenMatch(itemId, SOURCE) + " " + describe(matches));
+            }
+        }
+        return result;
+    }
+
+    private static List<String> describeEvents(MatcherSnapshot snapshot, String message) {
+        ChatEvent event = ChatEvent.parse(message, snapshot.getEventIndex().getTriggerMask());
+        if (event == null) {
+            return Collections.emptyList();
+        }
+        List<EventGoalIndex.EventHit> hits = new ArrayList<>();
+        snapshot.getEventIndex().collectChat(event, hits);
+        List<BoardTile> tiles = new ArrayList<>();
+        snapshot.collectEventTiles(hits, event.getCount(), tiles);
+        return describe(tiles);
+    }
+
+    private static List<String> describe(List<BoardTile> tiles) {
+        List<String> result = new ArrayList<>();
+        for (BoardTile tile : tiles) {
+            List<String> goalIds = new ArrayList<>();
+            for (GoalTreeNode goal : tile.getGoals()) {
+                goalIds.add(goal.getId());
+            }
+            result.add(tile.getTileId() + " " + tile.getOutcome() + " " + goalIds);
+        }
+        return result;
+    }
+
+    /**
+     * The test board with a Zulrah kill count goal on every third tile and a collection
+     * log goal on every fifth, in the same AND group as the item goals.
+     */
+    private static Bingo boardWithEventGoals() {
+        Bingo board = TestBoards.board(TILES);
+        for (int i = 0; i < TILES; i++) {
+            List<GoalTreeNode> children = board.getTiles().get(i).getGoalTree().get(0).getChildren();
+            if (i % 3 == 0) {
+                children.add(eventGoal("goal-" + i + "-kc", "kill_count", "Zulrah", 5));
+            }
+            if (i % 5 == 0) {
+                children.add(eventGoal("goal-" + i + "-clog", "collection_log", "Tanzanite fang", 1));
+            }
+        }
+        return board;
+    }
+
+    private static GoalTreeNode eventGoal(String id, String trigger, String target, int targetValue) {
+        EventGoal eventGoal = new EventGoal();
+        eventGoal.setTrigger(trigger);
+        eventGoal.setTarget(target);
+
+        GoalTreeNode goal = new GoalTreeNode();
+        goal.setType("goal");
+        goal.setId(id);
+        goal.setGoalType("event");
+        goal.setTargetValue(targetValue);
+        goal.setEventGoal(eventGoal);
+        goal.setProgress(progress(false, targetValue));
+        return goal;
+    }
+
+    /**
+     * Changes one random tile's submission status, or completes or resets one of its goals.
+     */
+    private static TileDelta randomDelta(Random random, Bingo board) {
+        int index = random.nextInt(TILES);
+        Tile tile = board.getTiles().get(index);
+        TileDelta delta = new TileDelta();
+        delta.setTileId(tile.getId());
+
+        if (random.nextInt(3) == 0) {
+            delta.setSubmission(TestBoards.submission(STATUSES[random.nextInt(STATUSES.length)]));
+            return delta;
+        }
+
+        List<GoalTreeNode> goals = tile.getGoalTree().get(0).getChildren();
+        GoalTreeNode goal = goals.get(random.nextInt(goals.size()));
+        delta.setGoalProgress(Collections.singletonMap(goal.getId(),
+                progress(random.nextBoolean(), goal.getTargetValue())));
+        return delta;
+    }
+
+    private static GoalTreeProgress progress(boolean complete, int target) {
+        GoalTreeProgress progress = new GoalTreeProgress();
+        progress.setCompletedCount(complete ? target : 0);
+        progress.setTotalCount(target);
+        progress.setComplete(complete);
+        return progress;
+    }
+}
@@ -0,0 +1,206 @@
+package org.bingoscape.services;
+
+import org.bingoscape.BingoScapeConfig;
+import org.bingoscape.EvidenceFormat;
+import org.bingoscape.services.metrics.ScreenshotMetrics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.awt.image.ImageObserver;
+import java.awt.image.ImageProducer;
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Proxy;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Runs frames through the pipeline's encode thread, including frames that fail to
+ * convert, and checks that a warm pipeline reuses its rasters. Time and allocation per
+ * screenshot against the conversion the plugin did before the pipeline are measured by
+ * {@code ScreenshotEncodeBenchmark} in the jmh source set.
+ */
+public class ScreenshotPipelineTest {
+    private static final long TIMEOUT_SECONDS = 30;
+    private static final int POOL_FRAME_SIZE = 1000;
+
+    private ScreenshotMetrics metrics;
+    private ScreenshotPipeline pipeline;
+
+    @Before
+    public void setUp() {
+        metrics = new ScreenshotMetrics();
+        pipeline = new ScreenshotPipeline(metrics, config());
+        pipeline.startUp();
+    }
+
+    @After
+    public void tearDown() {
+        pipeline.shutDown();
+    }
+
+    @Test
+    public void encodesPng() throws Exception {
+        byte[] bytes = encode(frame(64, 48));
+
+        assertNotNull(bytes);
+        assertEquals(EvidenceFormat.PNG, EvidenceFormat.detect(bytes));
+        assertNotNull(pipeline.getHash(bytes));
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(bytes));
+        assertEquals(64, decoded.getWidth());
+        assertEquals(48, decoded.getHeight());
+    }
+
+    @Test
+    public void runtimeExceptionGivesNull() throws Exception {
+        // An image that hasn't loaded reports a size of -1, which BufferedImage rejects
+        assertNull(encode(new FailingImage(null)));
+        assertNotNull(encode(frame(16, 16)));
+    }
+
+    @Test
+    public void errorGivesNull() throws Exception {
+        assertNull(encode(new FailingImage(new OutOfMemoryError("Simulated"))));
+        // The encode thread keeps working after the error
+        assertNotNull(encode(frame(16, 16)));
+    }
+
+    @Test
+    public void warmScreenshotReusesRaster() throws Exception {
+        // Another size first, so class loading and the output buffer are out of the way
+        assertNotNull(encode(frame(POOL_FRAME_SIZE / 2, POOL_FRAME_SIZE / 2)));
+        BufferedImage frame = frame(POOL_FRAME_SIZE, POOL_FRAME_SIZE);
+
+        // Measured on the encode thread itself, from the end of one screenshot to the end of the next
+        long start = allocatedAfterEncode(frame(8, 8));
+        assumeTrue(start >= 0);
+        long afterCold = allocatedAfterEncode(frame);
+        long afterWarm = allocatedAfterEncode(frame);
+        long cold = afterCold - start;
+        long warm = afterWarm - afterCold;
+
+        // The cold screenshot also allocated the raster, four bytes per pixel
+        long raster = (long) POOL_FRAME_SIZE * POOL_FRAME_SIZE * 4;
+        assertTrue(cold + " then " + warm + " bytes", cold - warm > raster * 3 / 4);
+    }
+
+    private byte[] encode(Image image) throws Exception {
+        CompletableFuture<byte[]> result = new CompletableFuture<>();
+        pipeline.encode(image, null, result::complete);
+        return result.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Encodes the frame and returns the encode thread's allocated byte count right after,
+     * or -1 if the JVM does not report per-thread allocation.
+     */
+    private long allocatedAfterEncode(Image image) throws Exception {
+        CompletableFuture<Long> result = new CompletableFuture<>();
+        pipeline.encode(image, null, bytes -> {
+            if (bytes == null) {
+                result.completeExceptionally(new AssertionError("Screenshot was not encoded"));
+                return;
+            }
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            result.complete(bean instanceof com.sun.management.ThreadMXBean
+                    ? ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId())
+                    : -1);
+        });
+        return result.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * A frame with flat areas, gradients and some noise, so it compresses roughly like
+     * a game frame rather than like a blank or random image.
+     */
+    static BufferedImage frame(int width, int height) {
+        BufferedImage frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(23);
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int block = ((x >> 5) * 31 + (y >> 5) * 17) & 0xFF;
+                int noise = random.nextInt(8) == 0 ? random.nextInt(32) : 0;
+                row[x] = (block << 16) | ((((x + y) >> 3) + noise) & 0xFF) << 8 | ((y >> 2) & 0xFF);
+            }
+            frame.setRGB(0, y, width, 1, row, 0, width);
+        }
+        return frame;
+    }
+
+    static BingoScapeConfig config() {
+        return (BingoScapeConfig) Proxy.newProxyInstance(BingoScapeConfig.class.getClassLoader(),
+                new Class<?>[]{BingoScapeConfig.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "evidenceFormat":
+                            return EvidenceFormat.PNG;
+                        case "jpegQuality":
+                            return 85;
+                        case "fastPngLevel":
+                        case "maxScreenshotDimension":
+                            return 0;
+                        case "toString":
+                            return "TestConfig";
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    /**
+     * An image that throws the given error when asked for its size, or reports -1 like
+     * an image that hasn't loaded when given none.
+     */
+    private static final class FailingImage extends Image {
+        private final Error error;
+
+        private FailingImage(Error error) {
+            this.error = error;
+        }
+
+        @Override
+        public int getWidth(ImageObserver observer) {
+            if (error != null) {
+                throw error;
+            }
+            return -1;
+        }
+
+        @Override
+        public int getHeight(ImageObserver observer) {
+            return -1;
+        }
+
+        @Override
+        public ImageProducer getSource() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Graphics getGraphics() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Object getProperty(String name, ImageObserver observer) {
+            return null;
+        }
+    }
+}
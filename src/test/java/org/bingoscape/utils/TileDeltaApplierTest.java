@@ -0,0 +1,94 @@
+package org.bingoscape.utils;
+
+import org.bingoscape.TestBoards;
+import org.bingoscape.models.Bingo;
+import org.bingoscape.models.GoalTreeProgress;
+import org.bingoscape.models.Tile;
+import org.bingoscape.models.TileDelta;
+import org.bingoscape.models.TileSubmissionType;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TileDeltaApplierTest {
+    private static final Date EARLIER = new Date(TestBoards.CREATED_AT.getTime() + 1_000);
+    private static final Date LATER = new Date(TestBoards.CREATED_AT.getTime() + 2_000);
+
+    @Test
+    public void appliesNewerDeltaToCopy() {
+        Bingo board = TestBoards.board(4);
+        Tile tile = board.getTiles().get(1);
+
+        TileDeltaApplier.Patch patch = TileDeltaApplier.apply(board,
+                Collections.singletonList(acceptedDelta(tile, LATER)));
+
+        assertEquals(Collections.singleton(tile.getId()), patch.getChangedTileIds());
+        Tile patched = patch.getBingo().getTiles().get(1);
+        assertEquals(TileSubmissionType.ACCEPTED, patched.getSubmission().getStatus());
+        assertEquals(LATER, patched.getUpdatedAt());
+
+        // The original board is untouched and unchanged tiles are shared
+        assertNotSame(board, patch.getBingo());
+        assertNull(tile.getSubmission());
+        assertEquals(TestBoards.CREATED_AT, tile.getUpdatedAt());
+        assertSame(board.getTiles().get(0), patch.getBingo().getTiles().get(0));
+    }
+
+    @Test
+    public void goalProgressIsAppliedToCopiedTree() {
+        Bingo board = TestBoards.board(2);
+        Tile tile = board.getTiles().get(0);
+        GoalTreeProgress done = new GoalTreeProgress();
+        done.setCompletedCount(1);
+        done.setTotalCount(1);
+        done.setComplete(true);
+
+        TileDelta delta = new TileDelta();
+        delta.setTileId(tile.getId());
+        delta.setGoalProgress(Collections.singletonMap("goal-0-a", done));
+        TileDeltaApplier.Patch patch = TileDeltaApplier.apply(board, Collections.singletonList(delta));
+
+        Tile patched = patch.getBingo().getTiles().get(0);
+        assertTrue(patched.getGoalTree().get(0).getChildren().get(0).getProgress().isComplete());
+        assertFalse(tile.getGoalTree().get(0).getChildren().get(0).getProgress().isComplete());
+    }
+
+    @Test
+    public void staleRefreshDoesNotRollBackLiveDelta() {
+        Bingo board = TestBoards.board(4);
+        Tile tile = board.getTiles().get(1);
+        Bingo live = TileDeltaApplier.apply(board, Collections.singletonList(acceptedDelta(tile, LATER))).getBingo();
+
+        // A full refresh the server sent before that change still shows the tile pending
+        Bingo refresh = TestBoards.board(4);
+        Tile refreshed = refresh.getTiles().get(1);
+        refreshed.setSubmission(TestBoards.submission(TileSubmissionType.PENDING));
+        refreshed.setUpdatedAt(EARLIER);
+
+        List<TileDelta> deltas = TileDeltaApplier.diff(live, refresh);
+        assertNotNull(deltas);
+        TileDeltaApplier.Patch patch = TileDeltaApplier.apply(live, deltas);
+
+        assertTrue(patch.getChangedTileIds().isEmpty());
+        assertSame(live, patch.getBingo());
+        assertEquals(TileSubmissionType.ACCEPTED, live.getTiles().get(1).getSubmission().getStatus());
+    }
+
+    private static TileDelta acceptedDelta(Tile tile, Date updatedAt) {
+        TileDelta delta = new TileDelta();
+        delta.setTileId(tile.getId());
+        delta.setSubmission(TestBoards.submission(TileSubmissionType.ACCEPTED));
+        delta.setUpdatedAt(updatedAt);
+        return delta;
+    }
+}